@@ -2,6 +2,7 @@ plugins {
 	java
 	id("org.springframework.boot") version "3.1.0"
 	id("io.spring.dependency-management") version "1.1.0"
+	id("me.champeau.jmh") version "0.7.1"
 }
 
 group = "hello"
@@ -21,11 +22,15 @@ repositories {
 dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-thymeleaf")
 	implementation("org.springframework.boot:spring-boot-starter-web")
+	implementation("org.springframework.boot:spring-boot-starter-webflux")
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 	compileOnly("org.projectlombok:lombok")
 	annotationProcessor("org.projectlombok:lombok")
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 	implementation ("org.openjdk.nashorn:nashorn-core:15.3")
+	implementation("com.github.ben-manes.caffeine:caffeine")
 //	implementation("org.graalvm.js:js:21.2.0")
 //	implementation("org.graalvm.sdk:graal-sdk:22.0.0.2")
 }
@@ -33,3 +38,14 @@ dependencies {
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+// ./gradlew jmh -> src/jmh benchmarks, results in build/results/jmh/results.json
+// compare runs across releases with the json, -prof gc adds gc.alloc.rate.norm (bytes / op)
+jmh {
+	jmhVersion.set("1.36")
+	fork.set(1)
+	warmupIterations.set(3)
+	iterations.set(5)
+	profilers.set(listOf("gc"))
+	resultFormat.set("JSON")
+}
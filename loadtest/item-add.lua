@@ -0,0 +1,6 @@
+-- wrk -s loadtest/item-add.lua : POST /validation/v4/items/add with a valid item form
+-- the handler redirects (302) on success, wrk only reports non 2xx / 3xx responses as errors
+
+wrk.method = "POST"
+wrk.headers["Content-Type"] = "application/x-www-form-urlencoded"
+wrk.body = "itemName=itemA&price=10000&quantity=10"
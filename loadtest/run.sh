@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+# platform pool vs virtual thread requests (VirtualThreadConfiguration), over real http
+#
+#   ./gradlew bootJar && loadtest/run.sh
+#
+# starts the boot jar once per mode, drives POST /validation/v4/items/add with wrk
+# and keeps the wrk --latency report (requests/sec and the 99% line) in loadtest/results/<mode>.txt,
+# the two are summed up in loadtest/results/summary.md.
+# the virtual mode needs a java 21+ runtime (JAVA=/path/to/jdk21/bin/java).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+JAVA=${JAVA:-java}
+JAR=${JAR:-$(ls build/libs/*-SNAPSHOT.jar | grep -v plain | head -n 1)}
+PORT=${PORT:-8080}
+THREADS=${THREADS:-8}
+CONNECTIONS=${CONNECTIONS:-400}
+DURATION=${DURATION:-30s}
+URL="http://localhost:${PORT}/validation/v4/items/add"
+
+mkdir -p loadtest/results
+
+run() {
+    local mode=$1 virtual=$2
+    "$JAVA" -jar "$JAR" --server.port="$PORT" --item.threads.virtual.enabled="$virtual" \
+        > "loadtest/results/${mode}-server.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' RETURN
+
+    until curl -sf -o /dev/null "http://localhost:${PORT}/validation/v4/items"; do
+        kill -0 "$pid" 2>/dev/null || { echo "${mode}: server did not start, see loadtest/results/${mode}-server.log" >&2; return 1; }
+        sleep 1
+    done
+
+    # warm up, then measure
+    wrk -t"$THREADS" -c"$CONNECTIONS" -d10s -s loadtest/item-add.lua "$URL" > /dev/null
+    wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency -s loadtest/item-add.lua "$URL" \
+        | tee "loadtest/results/${mode}.txt"
+}
+
+summary() {
+    local mode=$1 report="loadtest/results/$1.txt"
+    local rps p99
+    rps=$(awk '/^Requests\/sec:/ {print $2}' "$report")
+    p99=$(awk '$1 == "99%" {print $2}' "$report")
+    echo "| ${mode} | ${JAVA_VERSION} | ${THREADS} / ${CONNECTIONS} / ${DURATION} | ${rps} | ${p99} |"
+}
+
+JAVA_VERSION=$("$JAVA" -version 2>&1 | head -n 1)
+
+run platform false
+run virtual true
+
+{
+    echo "| mode | jdk | wrk (-t / -c / -d) | requests/sec | p99 |"
+    echo "|------|-----|--------------------|--------------|-----|"
+    summary platform
+    summary virtual
+} | tee loadtest/results/summary.md
@@ -0,0 +1,121 @@
+package hello.itemservice.domain.item;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ItemRepository under contention, for each store backend
+ *
+ * - findById / findPage / findAll / searchByPrice / update : 4 threads against a preloaded repository
+ * - snapshot : memory store with item.store.snapshot-reads (copy on write ItemSnapshot)
+ * - mixed : 3 reader threads and 1 writer thread on the same repository
+ * - save : 4 threads, the repository is recreated every iteration so it does not grow without bound
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ItemRepositoryBenchmark {
+
+    @Param({"memory", "offheap", "snapshot"})
+    String store;
+
+    @Param({"100000"})
+    int preload;
+
+    ItemRepository itemRepository;
+    ItemSearchCond priceCond;
+
+    @Setup
+    public void setUp() {
+        itemRepository = newRepository(store);
+        List<Item> items = new ArrayList<>(preload);
+        for (int i = 0; i < preload; i++) {
+            items.add(new Item("item" + i, 1000 + i % 100000, i % 9999));
+        }
+        itemRepository.saveAll(items);
+        priceCond = new ItemSearchCond();
+        priceCond.setMinPrice(50000);
+        priceCond.setMaxPrice(50100);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Item findById() {
+        return itemRepository.findById(randomId());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ItemPage findPage() {
+        return itemRepository.findPage(randomId(), ItemPage.DEFAULT_SIZE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Item> findAll() {
+        return itemRepository.findAll();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Item> searchByPrice() {
+        return itemRepository.search(priceCond, ItemPage.DEFAULT_SIZE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void update() {
+        itemRepository.update(randomId(), new Item("updated", 20000, 20));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Item mixedRead() {
+        return itemRepository.findById(randomId());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public void mixedWrite() {
+        itemRepository.update(randomId(), new Item("updated", 20000, 20));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Item save(SaveState state) {
+        return state.itemRepository.save(new Item("item", 10000, 10));
+    }
+
+    @State(Scope.Benchmark)
+    public static class SaveState {
+
+        @Param({"memory", "offheap"})
+        String store;
+
+        ItemRepository itemRepository;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            itemRepository = newRepository(store);
+        }
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, preload + 1);
+    }
+
+    private static ItemRepository newRepository(String store) {
+        if ("snapshot".equals(store)) {
+            return new ItemRepository(new MemoryItemStore(), null, true);
+        }
+        return new ItemRepository("offheap".equals(store) ? new OffHeapItemStore() : new MemoryItemStore());
+    }
+}
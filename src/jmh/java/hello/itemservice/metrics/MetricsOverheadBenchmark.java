@@ -0,0 +1,103 @@
+package hello.itemservice.metrics;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.web.validation.ItemValidator;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Validator;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * cost of the item metrics on the two hot calls, ItemValidator.validate and ItemRepository.update
+ *
+ * - none   : no metrics
+ * - timed  : what ItemMetricsConfiguration installs, TimedValidator / ItemRepository.setMetrics with pre-registered timers
+ * - proxy  : the spring class proxy with a MethodInterceptor and a timer lookup per call it replaced
+ *
+ * with -prof gc, gc.alloc.rate.norm of validate is expected to stay at ~0 bytes/op for none and timed,
+ * the proxy allocates its MethodInvocation on every call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricsOverheadBenchmark {
+
+    @Param({"none", "timed", "proxy"})
+    String metrics;
+
+    Validator validator;
+    ItemRepository itemRepository;
+    Item item;
+    Item updateParam;
+    BindingResult bindingResult;
+
+    @Setup
+    public void setUp() {
+        ItemMetrics itemMetrics = new ItemMetrics(new SimpleMeterRegistry(), 1.0);
+        ItemValidator itemValidator = new ItemValidator();
+        ItemRepository repository = new ItemRepository();
+        switch (metrics) {
+            case "none" -> {
+                validator = itemValidator;
+                itemRepository = repository;
+            }
+            case "timed" -> {
+                validator = new TimedValidator(itemValidator, itemMetrics, "itemValidator");
+                repository.setMetrics(itemMetrics);
+                itemRepository = repository;
+            }
+            case "proxy" -> {
+                //the map lookup of the old recordValidation / recordRepository
+                ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+                validator = (Validator) proxy(itemValidator, invocation -> {
+                    long start = itemMetrics.start();
+                    try {
+                        return invocation.proceed();
+                    } finally {
+                        itemMetrics.recordValidation(timers.computeIfAbsent("itemValidator", itemMetrics::validationTimer), start);
+                    }
+                });
+                itemRepository = (ItemRepository) proxy(repository, invocation -> {
+                    long start = itemMetrics.start();
+                    try {
+                        return invocation.proceed();
+                    } finally {
+                        itemMetrics.recordValidation(timers.computeIfAbsent(invocation.getMethod().getName(), itemMetrics::validationTimer), start);
+                    }
+                });
+            }
+            default -> throw new IllegalArgumentException(metrics);
+        }
+        item = itemRepository.save(new Item("itemA", 10000, 10));
+        updateParam = new Item("itemB", 20000, 20);
+        bindingResult = new BeanPropertyBindingResult(item, "item");
+    }
+
+    @Benchmark
+    public BindingResult validate() {
+        validator.validate(item, bindingResult);
+        return bindingResult;
+    }
+
+    @Benchmark
+    public Item update() {
+        itemRepository.update(item.getId(), updateParam);
+        return updateParam;
+    }
+
+    private static Object proxy(Object target, MethodInterceptor interceptor) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,39 @@
+package hello.itemservice.validation;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.DefaultMessageCodesResolver;
+import org.springframework.validation.MessageCodesResolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * cost of turning one rejectValue / reject into its message codes (see MessageCodeResolverTest)
+ * default -> DefaultMessageCodesResolver, caching -> CachingMessageCodesResolver in front of it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MessageCodesResolverBenchmark {
+
+    @Param({"default", "caching"})
+    String resolver;
+
+    MessageCodesResolver codesResolver;
+
+    @Setup
+    public void setUp() {
+        codesResolver = resolver.equals("caching")
+                ? new CachingMessageCodesResolver(1000)
+                : new DefaultMessageCodesResolver();
+    }
+
+    @Benchmark
+    public String[] fieldCodes() {
+        return codesResolver.resolveMessageCodes("required", "item", "itemName", String.class);
+    }
+
+    @Benchmark
+    public String[] objectCodes() {
+        return codesResolver.resolveMessageCodes("totalPriceMin", "item");
+    }
+}
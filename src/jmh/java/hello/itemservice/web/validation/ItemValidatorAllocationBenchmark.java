@@ -0,0 +1,35 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.Item;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ItemValidator alone on a valid item, with the BindingResult created once in setup.
+ * with -prof gc, gc.alloc.rate.norm is expected to stay at ~0 bytes/op
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ItemValidatorAllocationBenchmark {
+
+    ItemValidator itemValidator;
+    Item item;
+    BindingResult bindingResult;
+
+    @Setup
+    public void setUp() {
+        itemValidator = new ItemValidator();
+        item = new Item("itemA", 10000, 10);
+        bindingResult = new BeanPropertyBindingResult(item, "item");
+    }
+
+    @Benchmark
+    public BindingResult validItem() {
+        itemValidator.validate(item, bindingResult);
+        return bindingResult;
+    }
+}
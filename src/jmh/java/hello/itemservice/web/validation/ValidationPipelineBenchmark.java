@@ -0,0 +1,95 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.SaveCheck;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * cost of the validation step of each controller version, for a valid and an invalid input
+ *
+ * - V2 : ItemValidator (Validator over precompiled CompiledRules)
+ * - V3 : Bean Validation on Item with the SaveCheck group
+ *        (Item currently carries no constraint annotations, so this is the bare Bean Validation overhead)
+ * - V4 : Bean Validation on ItemSaveForm / ItemUpdateForm
+ *
+ * every benchmark creates its BindingResult like WebDataBinder does once per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ValidationPipelineBenchmark {
+
+    @Param({"valid", "invalid"})
+    String input;
+
+    ValidatorFactory validatorFactory;
+    SpringValidatorAdapter beanValidator;
+    ItemValidator itemValidator;
+
+    Item item;
+    ItemSaveForm saveForm;
+    ItemUpdateForm updateForm;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        beanValidator = new SpringValidatorAdapter(validatorFactory.getValidator());
+        itemValidator = new ItemValidator();
+
+        boolean valid = "valid".equals(input);
+        item = valid ? new Item("itemA", 10000, 10) : new Item(" ", 10, 100000);
+
+        saveForm = new ItemSaveForm();
+        saveForm.setItemName(item.getItemName());
+        saveForm.setPrice(item.getPrice());
+        saveForm.setQuantity(item.getQuantity());
+
+        updateForm = new ItemUpdateForm();
+        updateForm.setId(1L);
+        updateForm.setItemName(item.getItemName());
+        updateForm.setPrice(item.getPrice());
+        updateForm.setQuantity(item.getQuantity());
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public BindingResult v2ItemValidator() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+        itemValidator.validate(item, bindingResult);
+        return bindingResult;
+    }
+
+    @Benchmark
+    public BindingResult v3BeanValidationSaveCheck() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+        beanValidator.validate(item, bindingResult, SaveCheck.class);
+        return bindingResult;
+    }
+
+    @Benchmark
+    public BindingResult v4SaveForm() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(saveForm, "item");
+        beanValidator.validate(saveForm, bindingResult);
+        return bindingResult;
+    }
+
+    @Benchmark
+    public BindingResult v4UpdateForm() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(updateForm, "item");
+        beanValidator.validate(updateForm, bindingResult);
+        return bindingResult;
+    }
+}
@@ -14,9 +14,13 @@ public class TestDataInit {
 
     /**
      * 테스트용 데이터 추가
+     * skipped when the repository was already restored from item.persistence
      */
     @PostConstruct
     public void init() {
+        if (!itemRepository.isEmpty()) {
+            return;
+        }
         itemRepository.save(new Item("itemA", 10000, 10));
         itemRepository.save(new Item("itemB", 20000, 20));
     }
@@ -11,6 +11,8 @@ import org.hibernate.validator.constraints.ScriptAssert;
 //do not use the scriptassert as nashhorn got deprecated from spring 3.0.1 onwards and code is not clean (js - java mixup)
 //add nashhorn to dependency in build.gradle to still use this feature
 //@ScriptAssert(lang = "javascript", script = "_this.price * _this.quantity >= 10000")
+//same rule without a script engine, compiled once into java (hello.itemservice.expression)
+//@ExpressionAssert(expression = "_this.price * _this.quantity >= 10000")
 //@Data
 //public class Item {
 //
@@ -45,4 +47,13 @@ public class Item {
     private String itemName;
     private Integer price;
     private Integer quantity;
+
+    public Item() {
+    }
+
+    public Item(String itemName, Integer price, Integer quantity) {
+        this.itemName = itemName;
+        this.price = price;
+        this.quantity = quantity;
+    }
 }
@@ -0,0 +1,144 @@
+package hello.itemservice.domain.item;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.LongStream;
+
+/**
+ * secondary indexes on itemName, price and quantity, kept up to date by ItemRepository
+ *
+ * - price / quantity : sorted set of (value, id), so a range query is a subSet of the skip list
+ *   and needs no per value bucket. the key keeps the whole long id : packing value and id into
+ *   one long capped ids at 32 bits, and a save past that cap left the item stored but unindexed
+ * - itemName : sorted set of (name, id), a prefix query walks the tail set while the prefix matches
+ *
+ * all three are ConcurrentSkipListSets, readers never block writers.
+ * the index can briefly disagree with the store while a write is in flight,
+ * ItemRepository.search re-checks every hit against the stored item.
+ *
+ * the time spent maintaining the indexes on save / update is accumulated in
+ * getMaintenanceNanos() / getMaintenanceCount(), exported as item.index.maintenance(.time) by ItemMetricsConfiguration.
+ */
+public class ItemIndex {
+
+    private final ConcurrentSkipListSet<ValueKey> priceIndex = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<ValueKey> quantityIndex = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<NameKey> nameIndex = new ConcurrentSkipListSet<>();
+
+    private final LongAdder maintenanceCount = new LongAdder();
+    private final LongAdder maintenanceNanos = new LongAdder();
+
+    public void add(Item item) {
+        long startNanos = System.nanoTime();
+        long id = checkId(item.getId());
+        addEntries(id, item);
+        record(startNanos);
+    }
+
+    public void update(long id, Item oldItem, Item newItem) {
+        long startNanos = System.nanoTime();
+        checkId(id);
+        removeEntries(id, oldItem);
+        addEntries(id, newItem);
+        record(startNanos);
+    }
+
+    public void clear() {
+        priceIndex.clear();
+        quantityIndex.clear();
+        nameIndex.clear();
+    }
+
+    /**
+     * @return ids of items priced between min and max (inclusive), in price order
+     */
+    public LongStream findIdsByPrice(int min, int max) {
+        return range(priceIndex, min, max);
+    }
+
+    /**
+     * @return ids of items with quantity between min and max (inclusive), in quantity order
+     */
+    public LongStream findIdsByQuantity(int min, int max) {
+        return range(quantityIndex, min, max);
+    }
+
+    /**
+     * @return ids of items whose name starts with prefix, in name order
+     */
+    public LongStream findIdsByNamePrefix(String prefix) {
+        return nameIndex.tailSet(new NameKey(prefix, Long.MIN_VALUE)).stream()
+                .takeWhile(key -> key.name().startsWith(prefix))
+                .mapToLong(NameKey::id);
+    }
+
+    public long getMaintenanceCount() {
+        return maintenanceCount.sum();
+    }
+
+    public long getMaintenanceNanos() {
+        return maintenanceNanos.sum();
+    }
+
+    private void addEntries(long id, Item item) {
+        if (item.getPrice() != null) {
+            priceIndex.add(new ValueKey(item.getPrice(), id));
+        }
+        if (item.getQuantity() != null) {
+            quantityIndex.add(new ValueKey(item.getQuantity(), id));
+        }
+        if (item.getItemName() != null) {
+            nameIndex.add(new NameKey(item.getItemName(), id));
+        }
+    }
+
+    private void removeEntries(long id, Item item) {
+        if (item.getPrice() != null) {
+            priceIndex.remove(new ValueKey(item.getPrice(), id));
+        }
+        if (item.getQuantity() != null) {
+            quantityIndex.remove(new ValueKey(item.getQuantity(), id));
+        }
+        if (item.getItemName() != null) {
+            nameIndex.remove(new NameKey(item.getItemName(), id));
+        }
+    }
+
+    private void record(long startNanos) {
+        maintenanceNanos.add(System.nanoTime() - startNanos);
+        maintenanceCount.increment();
+    }
+
+    private static LongStream range(ConcurrentSkipListSet<ValueKey> index, int min, int max) {
+        if (min > max) {
+            return LongStream.empty();
+        }
+        return index.subSet(new ValueKey(min, Long.MIN_VALUE), true, new ValueKey(max, Long.MAX_VALUE), true).stream()
+                .mapToLong(ValueKey::id);
+    }
+
+    private static long checkId(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("item id can not be indexed : null");
+        }
+        return id;
+    }
+
+    private record ValueKey(int value, long id) implements Comparable<ValueKey> {
+
+        @Override
+        public int compareTo(ValueKey other) {
+            int result = Integer.compare(value, other.value);
+            return result != 0 ? result : Long.compare(id, other.id);
+        }
+    }
+
+    private record NameKey(String name, long id) implements Comparable<NameKey> {
+
+        @Override
+        public int compareTo(NameKey other) {
+            int result = name.compareTo(other.name);
+            return result != 0 ? result : Long.compare(id, other.id);
+        }
+    }
+}
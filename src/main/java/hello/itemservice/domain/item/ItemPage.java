@@ -0,0 +1,32 @@
+package hello.itemservice.domain.item;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * one page of items ordered by id (keyset paging)
+ *
+ * the next page is requested with cursor=nextCursor, nextCursor is null on the last page.
+ * unlike offset paging, the cost of a page does not grow with how deep into the catalog it is.
+ */
+@Getter
+public class ItemPage {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private final List<Item> items;
+    private final int size;
+    private final Long nextCursor;
+
+    public ItemPage(List<Item> items, int size, Long nextCursor) {
+        this.items = items;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -1,41 +1,557 @@
 package hello.itemservice.domain.item;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
+/**
+ * entry point for every controller (V1 - V4, api)
+ *
+ * the actual storage is delegated to an ItemStore so the backend can be switched
+ * with item.store.type without touching the controllers.
+ * new ItemRepository() keeps the old behaviour (heap store) for plain unit tests.
+ *
+ * ItemIndex is maintained here rather than in each store, so every backend gets
+ * the same search(ItemSearchCond) without a full scan.
+ *
+ * with item.persistence.enabled=true every write is also appended to an ItemWriteAheadLog,
+ * and the store is rebuilt from it when the repository is created.
+ * the log has to hold the writes of one id in the order they hit the store, so
+ * - save / saveAll take the update lock of a new id before the item is put into the store
+ *   (ids come from ItemStore.allocateIds), and append under it like update does
+ * - every write holds the read side of clearLock, clearStore the write side :
+ *   no save or update runs between a clear and its clear record
+ *
+ * getVersion / getLastModified change with every write, getItemVersion with every write of that item
+ * (ETag / Last-Modified of the item pages and the api).
+ * with item.store.snapshot-reads=true every write also publishes an immutable ItemSnapshot and
+ * findById / findAll / findPage / search read from it, without a lock and without copying the items.
+ * a write then copies the snapshot array (O(n), saveAll once per batch) and every item is kept on the heap
+ * a second time, so this mode is for catalogs that fit the heap and are read far more often than written.
+ */
 @Repository
 public class ItemRepository {
 
-    private static final Map<Long, Item> store = new HashMap<>(); //static
-    private static long sequence = 0L; //static
+    private static final int UPDATE_STRIPES = 64;
+    private static final int SCAN_BATCH = 1024;
+
+    private final ItemStore store;
+    private final ItemIndex index = new ItemIndex();
+    @Nullable
+    private final ItemWriteAheadLog writeAheadLog;
+
+    //serializes writes of the same id, so the old values removed from the index are the right ones
+    //and the log records of an id are appended in store order
+    private final Lock[] updateLocks = new Lock[UPDATE_STRIPES];
+    //read side : save / saveAll / update / updateAll, write side : clearStore
+    private final ReadWriteLock clearLock = new ReentrantReadWriteLock();
+
+    private final AtomicLong version = new AtomicLong();
+    private final ConcurrentMap<Long, ItemVersion> itemVersions = new ConcurrentHashMap<>();
+    private volatile long lastModified = System.currentTimeMillis();
+    //null unless snapshot reads are on, replaced (never changed) by writers holding snapshotLock
+    @Nullable
+    private volatile ItemSnapshot snapshot;
+    private final Lock snapshotLock = new ReentrantLock();
+    //set once at startup by ItemMetricsConfiguration (item.metrics.repository.enabled)
+    private ItemRepositoryMetrics metrics = ItemRepositoryMetrics.NONE;
+
+    public ItemRepository() {
+        this(new MemoryItemStore());
+    }
+
+    public ItemRepository(ItemStore store) {
+        this(store, null);
+    }
+
+    public ItemRepository(ItemStore store, @Nullable ItemWriteAheadLog writeAheadLog) {
+        this(store, writeAheadLog, false);
+    }
+
+    @Autowired
+    public ItemRepository(ItemStore store, @Nullable ItemWriteAheadLog writeAheadLog,
+                          @Value("${item.store.snapshot-reads:false}") boolean snapshotReads) {
+        this.store = store;
+        this.writeAheadLog = writeAheadLog;
+        this.snapshot = snapshotReads ? ItemSnapshot.EMPTY : null;
+        for (int i = 0; i < UPDATE_STRIPES; i++) {
+            updateLocks[i] = new ReentrantLock();
+        }
+        if (writeAheadLog != null) {
+            writeAheadLog.recover(this::restore, this::clearWithoutLog, store::reserveIds);
+            writeAheadLog.start(this::forEachItem, store::getLastId, store::getClearedId);
+        }
+    }
 
     public Item save(Item item) {
-        item.setId(++sequence);
-        store.put(item.getId(), item);
-        return item;
+        long start = metrics.start();
+        try {
+            long lsn = 0L;
+            clearLock.readLock().lock();
+            try {
+                long id = store.allocateIds(1);
+                item.setId(id);
+                Lock lock = updateLocks[stripe(id)];
+                lock.lock();
+                try {
+                    store.restore(item);
+                    index.add(item);
+                    published(id);
+                    if (writeAheadLog != null) {
+                        lsn = writeAheadLog.appendSave(item);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            } finally {
+                clearLock.readLock().unlock();
+            }
+            if (writeAheadLog != null) {
+                writeAheadLog.awaitDurable(lsn);
+            }
+            return item;
+        } finally {
+            metrics.record(ItemRepositoryMetrics.Operation.SAVE, start);
+        }
+    }
+
+    /**
+     * batched insert, ids are allocated as one block and the log is waited on once for the whole batch
+     */
+    public List<Item> saveAll(List<Item> items) {
+        long start = metrics.start();
+        try {
+            if (items.isEmpty()) {
+                return items;
+            }
+            long lsn = 0L;
+            clearLock.readLock().lock();
+            try {
+                long id = store.allocateIds(items.size());
+                boolean[] stripes = new boolean[UPDATE_STRIPES];
+                for (Item item : items) {
+                    item.setId(id);
+                    stripes[stripe(id++)] = true;
+                }
+                lockStripes(stripes);
+                try {
+                    for (Item item : items) {
+                        store.restore(item);
+                        index.add(item);
+                        if (writeAheadLog != null) {
+                            lsn = writeAheadLog.appendSave(item);
+                        }
+                    }
+                    publishedAll(items);
+                } finally {
+                    unlockStripes(stripes);
+                }
+            } finally {
+                clearLock.readLock().unlock();
+            }
+            if (writeAheadLog != null) {
+                writeAheadLog.awaitDurable(lsn);
+            }
+            return items;
+        } finally {
+            metrics.record(ItemRepositoryMetrics.Operation.SAVE_ALL, start);
+        }
     }
 
     public Item findById(Long id) {
-        return store.get(id);
+        if (id == null) {
+            return null;
+        }
+        ItemSnapshot current = snapshot;
+        return current != null ? current.findById(id) : store.findById(id);
     }
 
+    /**
+     * with snapshot reads, the items of the current snapshot (not a copy, read only)
+     */
     public List<Item> findAll() {
-        return new ArrayList<>(store.values());
+        ItemSnapshot current = snapshot;
+        return current != null ? current.getItems() : store.findAll();
+    }
+
+    public boolean isEmpty() {
+        ItemSnapshot current = snapshot;
+        return current != null ? current.size() == 0 : store.findPage(0L, 1).isEmpty();
+    }
+
+    /**
+     * changes with every save / update / clear, equal versions mean the same items
+     */
+    public long getVersion() {
+        ItemSnapshot current = snapshot;
+        return current != null ? current.getVersion() : version.get();
+    }
+
+    /**
+     * epoch millis of the last save / update / clear, or of the creation of the repository
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return version and time of the last write of the item, null if there is no such item
+     */
+    @Nullable
+    public ItemVersion getItemVersion(Long id) {
+        return id == null ? null : itemVersions.get(id);
+    }
+
+    /**
+     * @return the current snapshot, null unless item.store.snapshot-reads=true
+     */
+    @Nullable
+    public ItemSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @param cursor id of the last item on the previous page, null for the first page
+     * @param size   page size, null for ItemPage.DEFAULT_SIZE, capped at ItemPage.MAX_SIZE
+     */
+    public ItemPage findPage(Long cursor, Integer size) {
+        int pageSize = pageSize(size);
+        long afterId = cursor == null ? 0L : Math.max(0L, cursor);
+
+        //read one extra item to know whether there is a next page
+        ItemSnapshot current = snapshot;
+        List<Item> items = current != null ? current.page(afterId, pageSize + 1) : store.findPage(afterId, pageSize + 1);
+        if (items.size() <= pageSize) {
+            return new ItemPage(items, pageSize, null);
+        }
+        List<Item> pageItems = items.subList(0, pageSize);
+        return new ItemPage(pageItems, pageSize, pageItems.get(pageSize - 1).getId());
+    }
+
+    /**
+     * same page as findPage, but the items are read while the page is iterated (StreamingItemPage)
+     * with snapshot reads the chunks come from the snapshot current now, like findPage
+     *
+     * @param size    page size, null for ItemPage.DEFAULT_SIZE, capped at maxSize
+     * @param maxSize cap of size, can be far above ItemPage.MAX_SIZE since the page is never held at once
+     */
+    public StreamingItemPage streamPage(Long cursor, Integer size, int maxSize) {
+        int pageSize = size == null ? ItemPage.DEFAULT_SIZE : Math.max(1, Math.min(size, maxSize));
+        long afterId = cursor == null ? 0L : Math.max(0L, cursor);
+        ItemSnapshot current = snapshot;
+        return new StreamingItemPage(current != null ? current::page : store::findPage, afterId, pageSize);
+    }
+
+    /**
+     * index backed search, the most selective index available is used
+     * (name prefix, then price range, then quantity range) and the rest of the condition is checked per hit.
+     *
+     * @param limit max number of items, null for ItemPage.DEFAULT_SIZE, capped at ItemPage.MAX_SIZE
+     */
+    public List<Item> search(ItemSearchCond cond, Integer limit) {
+        long start = metrics.start();
+        try {
+            int maxItems = pageSize(limit);
+
+            LongStream candidateIds;
+            if (cond.hasItemName()) {
+                candidateIds = index.findIdsByNamePrefix(cond.getItemName());
+            } else if (cond.hasPriceRange()) {
+                candidateIds = index.findIdsByPrice(orMin(cond.getMinPrice()), orMax(cond.getMaxPrice()));
+            } else if (cond.hasQuantityRange()) {
+                candidateIds = index.findIdsByQuantity(orMin(cond.getMinQuantity()), orMax(cond.getMaxQuantity()));
+            } else {
+                return findPage(null, maxItems).getItems();
+            }
+
+            ItemSnapshot current = snapshot;
+            return candidateIds
+                    .mapToObj(id -> current != null ? current.findById(id) : store.findById(id))
+                    .filter(Objects::nonNull)
+                    .filter(cond::matches)
+                    .limit(maxItems)
+                    .collect(Collectors.toList());
+        } finally {
+            metrics.record(ItemRepositoryMetrics.Operation.SEARCH, start);
+        }
     }
 
     public void update(Long itemId, Item updateParam) {
-        Item findItem = findById(itemId);
-        findItem.setItemName(updateParam.getItemName());
-        findItem.setPrice(updateParam.getPrice());
-        findItem.setQuantity(updateParam.getQuantity());
+        long start = metrics.start();
+        try {
+            long lsn = 0L;
+            clearLock.readLock().lock();
+            try {
+                Lock lock = updateLocks[stripe(itemId)];
+                lock.lock();
+                try {
+                    Item oldItem = store.findById(itemId);
+                    if (oldItem == null) {
+                        return;
+                    }
+                    store.update(itemId, updateParam);
+                    index.update(itemId, oldItem, updateParam);
+                    published(itemId);
+                    if (writeAheadLog != null) {
+                        //appended under the lock so the log keeps the update order of the id
+                        lsn = writeAheadLog.appendUpdate(itemId, updateParam);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            } finally {
+                clearLock.readLock().unlock();
+            }
+            if (writeAheadLog != null) {
+                writeAheadLog.awaitDurable(lsn);
+            }
+        } finally {
+            metrics.record(ItemRepositoryMetrics.Operation.UPDATE, start);
+        }
+    }
+
+    /**
+     * updates many items as one unit (bulk PATCH)
+     *
+     * - the update locks of every id are held together (taken in stripe order, so two batches never deadlock),
+     *   no other update of those ids runs between reading an item and writing its new values
+     * - change gets the current item (read only) and returns its new values, or null to leave it as it is.
+     *   ids without an item are skipped, change is not called for them
+     * - with snapshot reads the batch is published as one snapshot, readers see all of it or none of it
+     * - the log is waited on once for the whole batch
+     *
+     * @return the updated items, in id order
+     */
+    public List<Item> updateAll(Collection<Long> ids, UnaryOperator<Item> change) {
+        long start = metrics.start();
+        try {
+            boolean[] stripes = new boolean[UPDATE_STRIPES];
+            for (Long id : ids) {
+                stripes[stripe(id)] = true;
+            }
+            List<Item> updated = new ArrayList<>(ids.size());
+            long lsn = 0L;
+            clearLock.readLock().lock();
+            lockStripes(stripes);
+            try {
+                for (Long id : ids) {
+                    Item oldItem = store.findById(id);
+                    if (oldItem == null) {
+                        continue;
+                    }
+                    Item updateParam = change.apply(oldItem);
+                    if (updateParam == null) {
+                        continue;
+                    }
+                    store.update(id, updateParam);
+                    index.update(id, oldItem, updateParam);
+                    if (writeAheadLog != null) {
+                        lsn = writeAheadLog.appendUpdate(id, updateParam);
+                    }
+                    updated.add(store.findById(id));
+                }
+                updated.sort(Comparator.comparing(Item::getId));
+                if (!updated.isEmpty()) {
+                    publishedAll(updated);
+                }
+            } finally {
+                unlockStripes(stripes);
+                clearLock.readLock().unlock();
+            }
+            if (writeAheadLog != null && !updated.isEmpty()) {
+                writeAheadLog.awaitDurable(lsn);
+            }
+            return updated;
+        } finally {
+            metrics.record(ItemRepositoryMetrics.Operation.UPDATE_ALL, start);
+        }
     }
 
     public void clearStore() {
-        store.clear();
+        long lsn = 0L;
+        clearLock.writeLock().lock();
+        try {
+            clearWithoutLog();
+            if (writeAheadLog != null) {
+                lsn = writeAheadLog.appendClear(store.getLastId());
+            }
+        } finally {
+            clearLock.writeLock().unlock();
+        }
+        if (writeAheadLog != null) {
+            writeAheadLog.awaitDurable(lsn);
+        }
+    }
+
+    public ItemIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * times save / saveAll / update / updateAll / search from now on, call it before the repository is in use
+     */
+    public void setMetrics(ItemRepositoryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * true when writes wait for an ItemWriteAheadLog fsync, false when they only touch memory
+     */
+    public boolean isPersistent() {
+        return writeAheadLog != null;
+    }
+
+    private void restore(Item item) {
+        Item oldItem = store.findById(item.getId());
+        store.restore(item);
+        if (oldItem == null) {
+            index.add(item);
+        } else {
+            index.update(item.getId(), oldItem, item);
+        }
+        published(item.getId());
+    }
+
+    private void clearWithoutLog() {
+        snapshotLock.lock();
+        try {
+            store.clear();
+            index.clear();
+            itemVersions.clear();
+            long next = version.incrementAndGet();
+            lastModified = System.currentTimeMillis();
+            if (snapshot != null) {
+                snapshot = ItemSnapshot.empty(next);
+            }
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * after a write of id : next version, and with snapshot reads a snapshot with what the store now holds for id.
+     * the store is read again under snapshotLock, so of two racing writes of one id the later publish is the later value
+     */
+    private void published(long id) {
+        if (snapshot == null) {
+            written(id, version.incrementAndGet());
+            return;
+        }
+        snapshotLock.lock();
+        try {
+            Item item = store.findById(id);
+            long next = version.incrementAndGet();
+            if (item != null) {
+                written(id, next);
+                snapshot = snapshot.with(item, next);
+            } else {
+                itemVersions.remove(id);
+                snapshot = snapshot.without(id, next);
+            }
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private void publishedAll(List<Item> items) {
+        if (snapshot == null) {
+            writtenAll(items, version.incrementAndGet());
+            return;
+        }
+        snapshotLock.lock();
+        try {
+            List<Item> current = new ArrayList<>(items.size());
+            for (Item item : items) {
+                Item stored = store.findById(item.getId());
+                if (stored != null) {
+                    current.add(stored);
+                }
+            }
+            long next = version.incrementAndGet();
+            writtenAll(current, next);
+            snapshot = snapshot.withAll(current, next);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private void written(long id, long itemVersion) {
+        long now = System.currentTimeMillis();
+        itemVersions.put(id, new ItemVersion(itemVersion, now));
+        lastModified = now;
+    }
+
+    //one version for the whole batch, like the one snapshot it is published in
+    private void writtenAll(List<Item> items, long itemVersion) {
+        ItemVersion written = new ItemVersion(itemVersion, System.currentTimeMillis());
+        for (Item item : items) {
+            itemVersions.put(item.getId(), written);
+        }
+        lastModified = written.lastModified();
+    }
+
+    //walks the whole store in id order without building one big list
+    private void forEachItem(Consumer<Item> consumer) {
+        long afterId = 0L;
+        List<Item> batch;
+        do {
+            batch = store.findPage(afterId, SCAN_BATCH);
+            for (Item item : batch) {
+                consumer.accept(item);
+                afterId = item.getId();
+            }
+        } while (batch.size() == SCAN_BATCH);
+    }
+
+    //in stripe order, so two batches never deadlock
+    private void lockStripes(boolean[] stripes) {
+        for (int i = 0; i < UPDATE_STRIPES; i++) {
+            if (stripes[i]) {
+                updateLocks[i].lock();
+            }
+        }
+    }
+
+    private void unlockStripes(boolean[] stripes) {
+        for (int i = UPDATE_STRIPES - 1; i >= 0; i--) {
+            if (stripes[i]) {
+                updateLocks[i].unlock();
+            }
+        }
+    }
+
+    private static int stripe(long id) {
+        return (int) (id & (UPDATE_STRIPES - 1));
+    }
+
+    private static int pageSize(Integer size) {
+        return size == null ? ItemPage.DEFAULT_SIZE : Math.max(1, Math.min(size, ItemPage.MAX_SIZE));
+    }
+
+    private static int orMin(Integer value) {
+        return value == null ? Integer.MIN_VALUE : value;
+    }
+
+    private static int orMax(Integer value) {
+        return value == null ? Integer.MAX_VALUE : value;
     }
 
 }
@@ -0,0 +1,43 @@
+package hello.itemservice.domain.item;
+
+/**
+ * timing hook of the ItemRepository operations that carry the request latency (writes and the log wait, search)
+ *
+ * ItemRepository calls it around those operations itself instead of being wrapped in a proxy :
+ * NONE (no metrics) reads no clock, ItemMetrics keeps one registered Timer per Operation,
+ * so a timed call is one start() and one Timer.record, no interceptor, no lookup, no allocation.
+ */
+public interface ItemRepositoryMetrics {
+
+    ItemRepositoryMetrics NONE = new ItemRepositoryMetrics() {
+        @Override
+        public long start() {
+            return 0L;
+        }
+
+        @Override
+        public void record(Operation operation, long start) {
+        }
+    };
+
+    enum Operation {
+        SAVE("save"), SAVE_ALL("saveAll"), UPDATE("update"), UPDATE_ALL("updateAll"), SEARCH("search");
+
+        private final String tag;
+
+        Operation(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    /**
+     * @return start time to pass back to record, 0 when the call is not timed
+     */
+    long start();
+
+    void record(Operation operation, long start);
+}
@@ -0,0 +1,44 @@
+package hello.itemservice.domain.item;
+
+import lombok.Data;
+
+/**
+ * search condition for ItemRepository.search, every field is optional
+ *
+ * itemName is matched as a prefix, the price / quantity bounds are inclusive
+ */
+@Data
+public class ItemSearchCond {
+
+    private String itemName;
+    private Integer minPrice;
+    private Integer maxPrice;
+    private Integer minQuantity;
+    private Integer maxQuantity;
+
+    public boolean hasItemName() {
+        return itemName != null && !itemName.isEmpty();
+    }
+
+    public boolean hasPriceRange() {
+        return minPrice != null || maxPrice != null;
+    }
+
+    public boolean hasQuantityRange() {
+        return minQuantity != null || maxQuantity != null;
+    }
+
+    public boolean matches(Item item) {
+        if (hasItemName() && (item.getItemName() == null || !item.getItemName().startsWith(itemName))) {
+            return false;
+        }
+        if (hasPriceRange() && !inRange(item.getPrice(), minPrice, maxPrice)) {
+            return false;
+        }
+        return !hasQuantityRange() || inRange(item.getQuantity(), minQuantity, maxQuantity);
+    }
+
+    private static boolean inRange(Integer value, Integer min, Integer max) {
+        return value != null && (min == null || value >= min) && (max == null || value <= max);
+    }
+}
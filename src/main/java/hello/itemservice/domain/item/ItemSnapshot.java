@@ -0,0 +1,148 @@
+package hello.itemservice.domain.item;
+
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * immutable view of every item in id order, with the repository version it was published at
+ *
+ * ItemRepository (item.store.snapshot-reads=true) publishes a new snapshot on every write (copy on write),
+ * readers take the current one from a volatile field and then never lock or copy :
+ * - getItems / page are views over the one array of the snapshot
+ * - items are private copies, an update publishes a new Item instead of changing the one a reader is rendering
+ * - getVersion changes with every write, so it can be used as the ETag of a list
+ *
+ * the items of a snapshot must not be modified by callers.
+ */
+public final class ItemSnapshot {
+
+    static final ItemSnapshot EMPTY = new ItemSnapshot(0L, new Item[0]);
+
+    private final long version;
+    private final Item[] items;
+    private final List<Item> view;
+
+    private ItemSnapshot(long version, Item[] items) {
+        this.version = version;
+        this.items = items;
+        this.view = Collections.unmodifiableList(Arrays.asList(items));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * every item in id order, not a copy
+     */
+    public List<Item> getItems() {
+        return view;
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    @Nullable
+    public Item findById(long id) {
+        int index = indexOf(id);
+        return index >= 0 ? items[index] : null;
+    }
+
+    /**
+     * same contract as ItemStore.findPage, a view of at most limit items with id greater than afterId
+     */
+    public List<Item> page(long afterId, int limit) {
+        int from = afterId == Long.MAX_VALUE ? items.length : insertionPoint(afterId + 1);
+        return view.subList(from, Math.min(items.length, from + limit));
+    }
+
+    /**
+     * @return a snapshot with the item added, or in place of the item with the same id
+     */
+    ItemSnapshot with(Item item, long version) {
+        Item copy = copy(item);
+        int index = indexOf(copy.getId());
+        Item[] next;
+        if (index >= 0) {
+            next = items.clone();
+            next[index] = copy;
+        } else {
+            int at = -(index + 1);
+            next = new Item[items.length + 1];
+            System.arraycopy(items, 0, next, 0, at);
+            next[at] = copy;
+            System.arraycopy(items, at, next, at + 1, items.length - at);
+        }
+        return new ItemSnapshot(version, next);
+    }
+
+    /**
+     * one copy for a whole batch, added items must be in ascending id order (ItemRepository.saveAll)
+     */
+    ItemSnapshot withAll(List<Item> added, long version) {
+        List<Item> merged = new ArrayList<>(items.length + added.size());
+        int i = 0;
+        for (Item item : added) {
+            long id = item.getId();
+            while (i < items.length && items[i].getId() < id) {
+                merged.add(items[i++]);
+            }
+            if (i < items.length && items[i].getId() == id) {
+                i++;
+            }
+            merged.add(copy(item));
+        }
+        while (i < items.length) {
+            merged.add(items[i++]);
+        }
+        return new ItemSnapshot(version, merged.toArray(new Item[0]));
+    }
+
+    ItemSnapshot without(long id, long version) {
+        int index = indexOf(id);
+        if (index < 0) {
+            return new ItemSnapshot(version, items);
+        }
+        Item[] next = new Item[items.length - 1];
+        System.arraycopy(items, 0, next, 0, index);
+        System.arraycopy(items, index + 1, next, index, items.length - index - 1);
+        return new ItemSnapshot(version, next);
+    }
+
+    static ItemSnapshot empty(long version) {
+        return new ItemSnapshot(version, new Item[0]);
+    }
+
+    private int indexOf(long id) {
+        int low = 0;
+        int high = items.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = items[mid].getId();
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int insertionPoint(long id) {
+        int index = indexOf(id);
+        return index >= 0 ? index : -(index + 1);
+    }
+
+    private static Item copy(Item item) {
+        Item copy = new Item(item.getItemName(), item.getPrice(), item.getQuantity());
+        copy.setId(item.getId());
+        return copy;
+    }
+}
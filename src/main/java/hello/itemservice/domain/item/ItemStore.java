@@ -0,0 +1,72 @@
+package hello.itemservice.domain.item;
+
+import java.util.List;
+
+/**
+ * storage backend behind ItemRepository
+ *
+ * controllers only ever talk to ItemRepository, the backend is picked by
+ * item.store.type in application.properties (see ItemStoreConfiguration)
+ * - memory  : MemoryItemStore, Item objects on the heap (default)
+ * - offheap : OffHeapItemStore, primitive columns in direct memory
+ *
+ * every store owns its own id sequence, ids start at 1 and are never reused.
+ */
+public interface ItemStore {
+
+    Item save(Item item);
+
+    /**
+     * saves every item under one contiguous block of ids, in list order
+     */
+    List<Item> saveAll(List<Item> items);
+
+    /**
+     * @return the item, or null if there is no item for the id
+     */
+    Item findById(long id);
+
+    List<Item> findAll();
+
+    /**
+     * keyset page, items with id greater than afterId in ascending id order
+     *
+     * @return at most limit items, fewer only when the end of the store is reached
+     */
+    List<Item> findPage(long afterId, int limit);
+
+    void update(long id, Item updateParam);
+
+    /**
+     * puts the item under its own id (insert or overwrite), used when replaying a log or snapshot.
+     * the sequence is moved past the id so later saves never reuse it.
+     */
+    void restore(Item item);
+
+    /**
+     * hands out count ids as one block without storing anything, the items are then put with restore.
+     * ItemRepository uses it to take the lock of an id before the item becomes visible.
+     *
+     * @return the first id of the block
+     */
+    long allocateIds(int count);
+
+    /**
+     * @return the highest id handed out so far, cleared items included (0 before the first save)
+     */
+    long getLastId();
+
+    /**
+     * @return the last id handed out before the last clear, items up to it are gone (0 before the first clear).
+     * reads start after it, so cleared ids are never walked again
+     */
+    long getClearedId();
+
+    /**
+     * moves the sequence past lastId without storing anything, used when replaying a log or snapshot
+     * so ids of items cleared before the restart are not handed out again.
+     */
+    void reserveIds(long lastId);
+
+    void clear();
+}
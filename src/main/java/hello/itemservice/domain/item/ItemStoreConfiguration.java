@@ -0,0 +1,46 @@
+package hello.itemservice.domain.item;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * picks the ItemStore backend
+ *
+ * item.store.type=memory  (default) -> MemoryItemStore
+ * item.store.type=offheap           -> OffHeapItemStore
+ *
+ * the offheap store allocates direct buffers, so size -XX:MaxDirectMemorySize
+ * for the catalog instead of -Xmx when using it.
+ *
+ * item.persistence.enabled=true adds an ItemWriteAheadLog under item.persistence.dir,
+ * ItemRepository replays it on startup.
+ */
+@Configuration
+public class ItemStoreConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "item.store.type", havingValue = "memory", matchIfMissing = true)
+    public ItemStore memoryItemStore() {
+        return new MemoryItemStore();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "item.store.type", havingValue = "offheap")
+    public ItemStore offHeapItemStore(@Value("${item.store.offheap.segment-rows:65536}") int segmentRows,
+                                      @Value("${item.store.offheap.arena-chunk-bytes:1048576}") int arenaChunkBytes) {
+        return new OffHeapItemStore(segmentRows, arenaChunkBytes);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "item.persistence.enabled", havingValue = "true")
+    public ItemWriteAheadLog itemWriteAheadLog(@Value("${item.persistence.dir:data}") String dir,
+                                               @Value("${item.persistence.region-bytes:67108864}") int regionBytes,
+                                               @Value("${item.persistence.sync:true}") boolean sync,
+                                               @Value("${item.persistence.snapshot-interval-seconds:300}") long snapshotIntervalSeconds) {
+        return new ItemWriteAheadLog(Path.of(dir), regionBytes, sync, snapshotIntervalSeconds);
+    }
+}
@@ -0,0 +1,10 @@
+package hello.itemservice.domain.item;
+
+/**
+ * when an item was written last : the ItemRepository version of that write and its wall clock time
+ *
+ * @param version      ItemRepository.getVersion() right after the write, only grows
+ * @param lastModified epoch millis of the write (Last-Modified)
+ */
+public record ItemVersion(long version, long lastModified) {
+}
@@ -0,0 +1,630 @@
+package hello.itemservice.domain.item;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * optional persistence for ItemRepository (item.persistence.enabled=true)
+ *
+ * log
+ * - every save / update / clearStore is appended as one record to a memory mapped log file (items-<generation>.wal)
+ * - the file is mapped region by region, a record never crosses a region boundary
+ * - record : | length(int) | op(byte) id(long) flags(byte) price(int) quantity(int) nameLength(int) name(utf-8) | crc32(int) |
+ *   save and update records carry the full item, so replaying a record twice gives the same result
+ * - a clear record carries the highest id handed out before the clear in its id field,
+ *   so recovery moves the id sequence past ids whose items are gone and never hands them out again
+ *
+ * group commit
+ * - appenders only copy their record into the mapped region and get back a log sequence number (lsn)
+ * - one flusher thread forces everything written so far in one go and wakes up every appender it covered,
+ *   so with sync=true a write waits for at most one fsync, no matter how many writes share it
+ * - with sync=false writes do not wait at all, a crash can lose the last unflushed batch
+ * - a full region (and the file of a finished generation) is only swapped out under the lock,
+ *   the flusher forces what is left of it afterwards, so no append ever waits behind an fsync
+ *
+ * snapshot
+ * - every snapshotInterval the log rolls over to a new generation and the whole store is written to items.snapshot
+ * - log generations older than the snapshot are deleted, so recovery is one snapshot read plus a short log replay
+ * - snapshot header : | magic(int) generation(long) clearedId(long) lastId(long) |, lastId is the highest id
+ *   handed out when the snapshot was written, clearedId the one of the last clear before it. recovery replays
+ *   them as a clear at clearedId and a reservation up to lastId, so ids are not reused and reads still start
+ *   after the cleared range even when the clear record itself is deleted.
+ *   snapshots of the older formats (ITM1 without ids, ITM2 with lastId only) are still read
+ */
+@Slf4j
+public class ItemWriteAheadLog implements Closeable {
+
+    private static final int MAGIC = 0x49544D31; //"ITM1"
+    private static final int SNAPSHOT_MAGIC_LAST_ID = 0x49544D32; //"ITM2", snapshot header with lastId
+    private static final int SNAPSHOT_MAGIC = 0x49544D33; //"ITM3", snapshot header with clearedId and lastId
+    private static final int HEADER_BYTES = 8;
+    private static final int CRC_BYTES = 4;
+    private static final int FIXED_PAYLOAD_BYTES = 1 + 8 + 1 + 4 + 4 + 4;
+
+    private static final byte OP_SAVE = 1;
+    private static final byte OP_UPDATE = 2;
+    private static final byte OP_CLEAR = 3;
+
+    private static final byte NAME_NULL = 1;
+    private static final byte PRICE_NULL = 1 << 1;
+    private static final byte QUANTITY_NULL = 1 << 2;
+
+    private static final String SNAPSHOT_FILE = "items.snapshot";
+    private static final String LOG_PREFIX = "items-";
+    private static final String LOG_SUFFIX = ".wal";
+
+    private final Path directory;
+    private final int regionBytes;
+    private final boolean sync;
+    private final long snapshotIntervalSeconds;
+
+    //guards everything below, held only while copying a record, never during fsync
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+
+    private long generation;
+    private FileChannel channel;
+    private MappedByteBuffer region;
+    private long fileStartLsn;   //lsn of the first byte of the current file
+    private long regionStartLsn; //lsn of the first byte of the current region
+    private long writtenLsn;
+    private long flushedLsn;
+    private long recordsSinceSnapshot;
+    private boolean closed;
+    //swapped out regions the flusher still has to force, oldest first
+    private final Deque<RetiredRegion> retired = new ArrayDeque<>();
+
+    private Thread flusher;
+    private ScheduledExecutorService snapshotScheduler;
+
+    public ItemWriteAheadLog(Path directory, int regionBytes, boolean sync, long snapshotIntervalSeconds) {
+        if (regionBytes < 4096) {
+            throw new IllegalArgumentException("regionBytes must be at least 4096 : " + regionBytes);
+        }
+        this.directory = directory;
+        this.regionBytes = regionBytes;
+        this.sync = sync;
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+    }
+
+    /**
+     * loads the snapshot, replays the newer log generations and opens a fresh generation for appending.
+     * must be called once, before any append.
+     *
+     * @param restore    called for every item found, in log order
+     * @param clear      called for every clearStore found in the log, and for the last clear before the snapshot
+     * @param reserveIds called with the highest id handed out before a clear / a snapshot,
+     *                   the id sequence has to move past it (ItemStore.reserveIds)
+     */
+    public void recover(Consumer<Item> restore, Runnable clear, LongConsumer reserveIds) {
+        long startNanos = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            long snapshotGeneration = readSnapshot(restore, clear, reserveIds);
+            long lastGeneration = snapshotGeneration;
+            long records = 0;
+            for (long logGeneration : logGenerations()) {
+                if (logGeneration >= snapshotGeneration) {
+                    records += replay(logFile(logGeneration), restore, clear, reserveIds);
+                }
+                lastGeneration = Math.max(lastGeneration, logGeneration);
+            }
+
+            lock.lock();
+            try {
+                openGeneration(lastGeneration + 1);
+                //anything replayed from the log is folded into the first snapshot
+                recordsSinceSnapshot = records;
+            } finally {
+                lock.unlock();
+            }
+            log.info("item log recovered, snapshot generation={}, replayed records={}, took={}ms",
+                    snapshotGeneration, records, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } catch (IOException e) {
+            throw new UncheckedIOException("item log recovery failed : " + directory, e);
+        }
+    }
+
+    /**
+     * starts the flusher and the snapshot schedule
+     *
+     * @param snapshotSource writes every item of the store to the given consumer
+     * @param lastId         highest id handed out by the store (ItemStore.getLastId)
+     * @param clearedId      last id of the last clear of the store (ItemStore.getClearedId)
+     */
+    public void start(Consumer<Consumer<Item>> snapshotSource, LongSupplier lastId, LongSupplier clearedId) {
+        flusher = new Thread(this::flushLoop, "item-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+
+        if (snapshotIntervalSeconds > 0) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "item-log-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotScheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    snapshot(snapshotSource, lastId, clearedId);
+                } catch (RuntimeException e) {
+                    log.error("item snapshot failed", e);
+                }
+            }, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * @return lsn to pass to awaitDurable
+     */
+    public long appendSave(Item item) {
+        return append(OP_SAVE, item.getId(), item);
+    }
+
+    public long appendUpdate(long id, Item updateParam) {
+        return append(OP_UPDATE, id, updateParam);
+    }
+
+    /**
+     * @param lastId highest id handed out before the clear, recovery keeps the sequence past it
+     */
+    public long appendClear(long lastId) {
+        return append(OP_CLEAR, lastId, null);
+    }
+
+    /**
+     * blocks until the record at lsn has been forced to disk, returns at once when sync=false
+     */
+    public void awaitDurable(long lsn) {
+        if (!sync) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (flushedLsn < lsn && !closed) {
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * rolls the log over to a new generation, then writes the store to items.snapshot
+     * and deletes the log generations the snapshot covers.
+     *
+     * writes that happen while the store is being walked land in the new generation,
+     * replaying them over the snapshot is harmless because records carry full items.
+     *
+     * @param lastId    highest id handed out by the store, kept in the header for ids cleared before the snapshot
+     * @param clearedId last id of the last clear of the store, kept in the header so reads skip the cleared range
+     */
+    public void snapshot(Consumer<Consumer<Item>> snapshotSource, LongSupplier lastId, LongSupplier clearedId) {
+        long snapshotGeneration;
+        lock.lock();
+        try {
+            if (closed || recordsSinceSnapshot == 0) {
+                return;
+            }
+            retireRegion(channel);
+            snapshotGeneration = generation + 1;
+            openGeneration(snapshotGeneration);
+            recordsSinceSnapshot = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("item log roll over failed", e);
+        } finally {
+            lock.unlock();
+        }
+
+        long startNanos = System.nanoTime();
+        Path tmp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        long[] count = new long[1];
+        try (FileChannel snapshotChannel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                     Channels.newOutputStream(snapshotChannel), 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(snapshotGeneration);
+            //read after the roll over : ids handed out and clears done later are in the new generation
+            out.writeLong(clearedId.getAsLong());
+            out.writeLong(lastId.getAsLong());
+            snapshotSource.accept(item -> {
+                try {
+                    byte[] record = encode(OP_SAVE, item.getId(), item);
+                    out.write(record);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.writeInt(0);
+            out.flush();
+            snapshotChannel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("item snapshot failed", e);
+        }
+
+        try {
+            Files.move(tmp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            for (long logGeneration : logGenerations()) {
+                if (logGeneration < snapshotGeneration) {
+                    Files.deleteIfExists(logFile(logGeneration));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("item snapshot install failed", e);
+        }
+        log.info("item snapshot written, generation={}, items={}, took={}ms",
+                snapshotGeneration, count[0], TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    @Override
+    public void close() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            //shutting down, nobody appends any more : force the rest here
+            for (RetiredRegion oldRegion : retired) {
+                oldRegion.region().force();
+                if (oldRegion.channel() != null) {
+                    oldRegion.channel().close();
+                }
+            }
+            retired.clear();
+            if (channel != null) {
+                forceRegion();
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.warn("item log close failed", e);
+        } finally {
+            closed = true;
+            pending.signalAll();
+            flushed.signalAll();
+            lock.unlock();
+        }
+    }
+
+    private long append(byte op, long id, Item item) {
+        byte[] record = encode(op, id, item);
+        if (record.length > regionBytes - HEADER_BYTES) {
+            throw new IllegalArgumentException("item log record larger than a region : " + record.length);
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("item log is closed");
+            }
+            int position = (int) (writtenLsn - regionStartLsn);
+            if (position + record.length > regionBytes) {
+                //the rest of the region stays zero, replay skips to the next region boundary
+                retireRegion(null);
+                mapRegion(regionStartLsn + regionBytes);
+                position = 0;
+                writtenLsn = regionStartLsn;
+            }
+            region.put(position, record);
+            writtenLsn += record.length;
+            recordsSinceSnapshot++;
+            pending.signal();
+            return writtenLsn;
+        } catch (IOException e) {
+            throw new UncheckedIOException("item log append failed", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            RetiredRegion oldRegion;
+            MappedByteBuffer flushRegion;
+            long startLsn;
+            long target;
+            int from;
+            lock.lock();
+            try {
+                while (flushedLsn >= writtenLsn && retired.isEmpty() && !closed) {
+                    pending.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+                //swapped out regions first, flushedLsn only ever covers a prefix of the log
+                oldRegion = retired.peekFirst();
+                if (oldRegion != null) {
+                    flushRegion = oldRegion.region();
+                    startLsn = oldRegion.startLsn();
+                    target = oldRegion.endLsn();
+                } else {
+                    flushRegion = region;
+                    startLsn = regionStartLsn;
+                    target = writtenLsn;
+                }
+                from = (int) (Math.max(flushedLsn, startLsn) - startLsn);
+            } finally {
+                lock.unlock();
+            }
+
+            //the fsync runs without the lock, appenders keep filling the region meanwhile
+            flushRegion.force(from, Math.max(0, (int) (target - startLsn) - from));
+            if (oldRegion != null && oldRegion.channel() != null) {
+                closeQuietly(oldRegion.channel());
+            }
+
+            lock.lock();
+            try {
+                if (oldRegion != null) {
+                    retired.remove(oldRegion);
+                }
+                if (target > flushedLsn) {
+                    flushedLsn = target;
+                    flushed.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * hands the current region to the flusher, lock must be held
+     *
+     * @param oldChannel closed by the flusher after the force, null while the file stays in use
+     */
+    private void retireRegion(FileChannel oldChannel) {
+        retired.addLast(new RetiredRegion(region, regionStartLsn, writtenLsn, oldChannel));
+        pending.signal();
+    }
+
+    private static void closeQuietly(FileChannel oldChannel) {
+        try {
+            oldChannel.close();
+        } catch (IOException e) {
+            log.warn("item log file close failed", e);
+        }
+    }
+
+    //lock must be held, only used by close
+    private void forceRegion() {
+        if (region != null && writtenLsn > flushedLsn) {
+            region.force();
+            flushedLsn = writtenLsn;
+            flushed.signalAll();
+        }
+    }
+
+    //lock must be held
+    private void openGeneration(long newGeneration) throws IOException {
+        generation = newGeneration;
+        channel = FileChannel.open(logFile(newGeneration), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        fileStartLsn = writtenLsn;
+        mapRegion(fileStartLsn);
+        region.putInt(0, MAGIC);
+        region.putInt(4, regionBytes);
+        writtenLsn = fileStartLsn + HEADER_BYTES;
+    }
+
+    //lock must be held
+    private void mapRegion(long startLsn) throws IOException {
+        regionStartLsn = startLsn;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, startLsn - fileStartLsn, regionBytes);
+    }
+
+    private long readSnapshot(Consumer<Item> restore, Runnable clear, LongConsumer reserveIds) throws IOException {
+        Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(snapshotFile)) {
+            return 0L;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile), 1 << 16))) {
+            int magic = in.readInt();
+            if (magic != SNAPSHOT_MAGIC && magic != SNAPSHOT_MAGIC_LAST_ID && magic != MAGIC) {
+                throw new IOException("not an item snapshot : " + snapshotFile);
+            }
+            long snapshotGeneration = in.readLong();
+            if (magic == SNAPSHOT_MAGIC) {
+                long clearedId = in.readLong();
+                if (clearedId > 0) {
+                    //the items of the snapshot all come after the clear
+                    reserveIds.accept(clearedId);
+                    clear.run();
+                }
+            }
+            if (magic != MAGIC) {
+                reserveIds.accept(in.readLong());
+            }
+            while (true) {
+                int length = in.readInt();
+                if (length == 0) {
+                    return snapshotGeneration;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                if (in.readInt() != crc(payload, 0, length)) {
+                    throw new IOException("corrupt item snapshot : " + snapshotFile);
+                }
+                restore.accept(decode(ByteBuffer.wrap(payload)));
+            }
+        } catch (EOFException e) {
+            throw new IOException("truncated item snapshot : " + snapshotFile, e);
+        }
+    }
+
+    private long replay(Path logFile, Consumer<Item> restore, Runnable clear, LongConsumer reserveIds) throws IOException {
+        long records = 0;
+        try (FileChannel readChannel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            long size = readChannel.size();
+            if (size < HEADER_BYTES) {
+                return 0;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readChannel.read(header, 0);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("not an item log : " + logFile);
+            }
+            int fileRegionBytes = header.getInt(4);
+
+            for (long regionStart = 0; regionStart < size; regionStart += fileRegionBytes) {
+                MappedByteBuffer mapped = readChannel.map(FileChannel.MapMode.READ_ONLY, regionStart,
+                        Math.min(fileRegionBytes, size - regionStart));
+                int position = regionStart == 0 ? HEADER_BYTES : 0;
+                if (mapped.limit() - position < 4 || mapped.getInt(position) == 0) {
+                    //nothing was ever written into this region, end of log
+                    return records;
+                }
+                while (mapped.limit() - position >= 4) {
+                    int length = mapped.getInt(position);
+                    if (length == 0) {
+                        break; //rest of region unused, continue at the next one
+                    }
+                    if (length < FIXED_PAYLOAD_BYTES || position + 4 + length + CRC_BYTES > mapped.limit()) {
+                        return records; //torn tail
+                    }
+                    ByteBuffer payload = mapped.slice(position + 4, length);
+                    if (mapped.getInt(position + 4 + length) != crc(payload)) {
+                        return records; //torn tail
+                    }
+                    Item item = decode(payload);
+                    if (item == null) {
+                        //clear records of the older format carry 0, nothing to reserve
+                        reserveIds.accept(payload.getLong(1));
+                        clear.run();
+                    } else {
+                        restore.accept(item);
+                    }
+                    records++;
+                    position += 4 + length + CRC_BYTES;
+                }
+            }
+        }
+        return records;
+    }
+
+    private List<Long> logGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(LOG_PREFIX) && name.endsWith(LOG_SUFFIX))
+                    .forEach(name -> generations.add(Long.parseLong(
+                            name.substring(LOG_PREFIX.length(), name.length() - LOG_SUFFIX.length()))));
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    private Path logFile(long logGeneration) {
+        return directory.resolve(String.format("%s%012d%s", LOG_PREFIX, logGeneration, LOG_SUFFIX));
+    }
+
+    private static byte[] encode(byte op, long id, Item item) {
+        byte[] name = item == null || item.getItemName() == null ? null : item.getItemName().getBytes(UTF_8);
+        int length = FIXED_PAYLOAD_BYTES + (name == null ? 0 : name.length);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + length + CRC_BYTES);
+        buffer.putInt(length);
+        buffer.put(op);
+        buffer.putLong(id);
+
+        byte flags = 0;
+        if (item == null || item.getItemName() == null) {
+            flags |= NAME_NULL;
+        }
+        if (item == null || item.getPrice() == null) {
+            flags |= PRICE_NULL;
+        }
+        if (item == null || item.getQuantity() == null) {
+            flags |= QUANTITY_NULL;
+        }
+        buffer.put(flags);
+        buffer.putInt((flags & PRICE_NULL) != 0 ? 0 : item.getPrice());
+        buffer.putInt((flags & QUANTITY_NULL) != 0 ? 0 : item.getQuantity());
+        buffer.putInt(name == null ? 0 : name.length);
+        if (name != null) {
+            buffer.put(name);
+        }
+        buffer.putInt(crc(buffer.array(), 4, length));
+        return buffer.array();
+    }
+
+    /**
+     * @return the item of a save / update record, null for a clear record
+     */
+    private static Item decode(ByteBuffer payload) {
+        byte op = payload.get(0);
+        if (op == OP_CLEAR) {
+            return null;
+        }
+        long id = payload.getLong(1);
+        byte flags = payload.get(9);
+        int price = payload.getInt(10);
+        int quantity = payload.getInt(14);
+        int nameLength = payload.getInt(18);
+
+        String itemName = null;
+        if ((flags & NAME_NULL) == 0) {
+            byte[] name = new byte[nameLength];
+            payload.get(FIXED_PAYLOAD_BYTES, name);
+            itemName = new String(name, UTF_8);
+        }
+        Item item = new Item(itemName,
+                (flags & PRICE_NULL) != 0 ? null : price,
+                (flags & QUANTITY_NULL) != 0 ? null : quantity);
+        item.setId(id);
+        return item;
+    }
+
+    /**
+     * a region that was swapped out, forced by the flusher up to endLsn
+     */
+    private record RetiredRegion(MappedByteBuffer region, long startLsn, long endLsn, FileChannel channel) {
+    }
+
+    private static int crc(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static int crc(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+}
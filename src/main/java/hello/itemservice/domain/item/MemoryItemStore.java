@@ -0,0 +1,108 @@
+package hello.itemservice.domain.item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * heap backed ItemStore
+ *
+ * - ConcurrentHashMap instead of HashMap : lock striped per bin, reads never block
+ * - AtomicLong instead of ++sequence : every save gets a unique id without synchronized
+ * - update replaces the stored Item with a fresh copy instead of calling setters on it,
+ *   so a reader that already holds the old instance never sees a half updated item
+ *
+ * ids are handed out densely and items are never removed one by one,
+ * so a page is read by walking ids upwards from the cursor instead of sorting the map.
+ */
+public class MemoryItemStore implements ItemStore {
+
+    private final ConcurrentMap<Long, Item> store = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile long firstId = 1L;
+
+    @Override
+    public Item save(Item item) {
+        item.setId(sequence.incrementAndGet());
+        store.put(item.getId(), item);
+        return item;
+    }
+
+    @Override
+    public List<Item> saveAll(List<Item> items) {
+        //one atomic add reserves the whole id range instead of one increment per item
+        long id = sequence.getAndAdd(items.size());
+        for (Item item : items) {
+            item.setId(++id);
+            store.put(item.getId(), item);
+        }
+        return items;
+    }
+
+    @Override
+    public Item findById(long id) {
+        return store.get(id);
+    }
+
+    @Override
+    public List<Item> findAll() {
+        return new ArrayList<>(store.values());
+    }
+
+    @Override
+    public List<Item> findPage(long afterId, int limit) {
+        List<Item> items = new ArrayList<>(limit);
+        long lastId = sequence.get();
+        for (long id = Math.max(afterId + 1, firstId); id <= lastId && items.size() < limit; id++) {
+            Item item = store.get(id);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    @Override
+    public void update(long id, Item updateParam) {
+        store.computeIfPresent(id, (itemId, findItem) -> {
+            Item updatedItem = new Item(updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity());
+            updatedItem.setId(itemId);
+            return updatedItem;
+        });
+    }
+
+    @Override
+    public void restore(Item item) {
+        long id = item.getId();
+        store.put(id, item);
+        sequence.accumulateAndGet(id, Math::max);
+    }
+
+    @Override
+    public long allocateIds(int count) {
+        return sequence.getAndAdd(count) + 1;
+    }
+
+    @Override
+    public long getLastId() {
+        return sequence.get();
+    }
+
+    @Override
+    public long getClearedId() {
+        return firstId - 1;
+    }
+
+    @Override
+    public void reserveIds(long lastId) {
+        sequence.accumulateAndGet(lastId, Math::max);
+    }
+
+    @Override
+    public void clear() {
+        firstId = sequence.get() + 1;
+        store.clear();
+    }
+}
@@ -0,0 +1,431 @@
+package hello.itemservice.domain.item;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * ItemStore that keeps items outside of the java heap
+ *
+ * HashMap<Long, Item> costs a boxed Long key, a map node, an Item and two boxed Integers per item,
+ * which at tens of millions of items is most of the heap and most of the GC work.
+ * here every item is one fixed size row in a direct ByteBuffer, addressed by its id :
+ *
+ * | flags(int) | price(int) | quantity(int) | nameChunk(int) | namePosition(int) | nameLength(int) |
+ *
+ * - rows live in segments of segmentRows rows, a new segment is allocated when ids run past the last one
+ * - item names are written as utf-8 into a separate append only arena, the row only keeps where
+ * - Item objects are only created on read (findById / findAll), nothing on the heap is kept per item
+ *
+ * concurrency
+ * - ids come from an AtomicLong, so a row is only ever written by its saving thread or by update
+ * - rows are guarded by striped StampedLocks, readers try an optimistic read first and never block writers
+ * - clear() starts a new table, it is not meant to run concurrently with writes (test / admin use only)
+ *
+ * a write that keeps the name of the row (price / quantity only updates) keeps pointing at the bytes already
+ * in the arena. only a changed name appends a new copy, the old bytes are not reclaimed until clear().
+ * space in the arena is taken with a CAS on one cursor, a lock is only taken to add a chunk.
+ */
+public class OffHeapItemStore implements ItemStore {
+
+    private static final int FLAGS = 0;
+    private static final int PRICE = 4;
+    private static final int QUANTITY = 8;
+    private static final int NAME_CHUNK = 12;
+    private static final int NAME_POSITION = 16;
+    private static final int NAME_LENGTH = 20;
+    private static final int ROW_BYTES = 24;
+
+    private static final int PRESENT = 1;
+    private static final int PRICE_NULL = 1 << 1;
+    private static final int QUANTITY_NULL = 1 << 2;
+    private static final int NO_NAME = -1;
+
+    private static final int STRIPES = 64;
+
+    private final int segmentRows;
+    private final int segmentShift;
+    private final int arenaChunkBytes;
+    private final StampedLock[] stripes = new StampedLock[STRIPES];
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile Table table;
+
+    public OffHeapItemStore() {
+        this(1 << 16, 1 << 20);
+    }
+
+    public OffHeapItemStore(int segmentRows, int arenaChunkBytes) {
+        if (segmentRows <= 0 || Integer.bitCount(segmentRows) != 1
+                || (long) segmentRows * ROW_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("segmentRows must be a power of two and fit in one buffer : " + segmentRows);
+        }
+        if (arenaChunkBytes <= 0) {
+            throw new IllegalArgumentException("arenaChunkBytes must be positive : " + arenaChunkBytes);
+        }
+        this.segmentRows = segmentRows;
+        this.segmentShift = Integer.numberOfTrailingZeros(segmentRows);
+        this.arenaChunkBytes = arenaChunkBytes;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new StampedLock();
+        }
+        this.table = new Table(0L);
+    }
+
+    @Override
+    public Item save(Item item) {
+        Table current = table;
+        long id = sequence.incrementAndGet();
+        long row = id - current.baseId - 1;
+        ByteBuffer segment = current.segmentForWrite(row);
+        writeRow(current, segment, offset(row), id, item);
+        item.setId(id);
+        return item;
+    }
+
+    @Override
+    public List<Item> saveAll(List<Item> items) {
+        Table current = table;
+        //one atomic add reserves the whole id range instead of one increment per item
+        long id = sequence.getAndAdd(items.size());
+        for (Item item : items) {
+            id++;
+            long row = id - current.baseId - 1;
+            writeRow(current, current.segmentForWrite(row), offset(row), id, item);
+            item.setId(id);
+        }
+        return items;
+    }
+
+    @Override
+    public Item findById(long id) {
+        Table current = table;
+        long row = id - current.baseId - 1;
+        if (row < 0 || id > sequence.get()) {
+            return null;
+        }
+        ByteBuffer segment = current.segmentForRead(row);
+        if (segment == null) {
+            return null;
+        }
+        return readRow(current, segment, offset(row), id);
+    }
+
+    @Override
+    public List<Item> findAll() {
+        Table current = table;
+        long lastId = sequence.get();
+        List<Item> items = new ArrayList<>((int) Math.min(Integer.MAX_VALUE - 8, Math.max(0, lastId - current.baseId)));
+        for (long id = current.baseId + 1; id <= lastId; id++) {
+            long row = id - current.baseId - 1;
+            ByteBuffer segment = current.segmentForRead(row);
+            if (segment == null) {
+                continue;
+            }
+            Item item = readRow(current, segment, offset(row), id);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    @Override
+    public List<Item> findPage(long afterId, int limit) {
+        Table current = table;
+        long lastId = sequence.get();
+        List<Item> items = new ArrayList<>(limit);
+        for (long id = Math.max(afterId, current.baseId) + 1; id <= lastId && items.size() < limit; id++) {
+            long row = id - current.baseId - 1;
+            ByteBuffer segment = current.segmentForRead(row);
+            if (segment == null) {
+                continue;
+            }
+            Item item = readRow(current, segment, offset(row), id);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    @Override
+    public void update(long id, Item updateParam) {
+        Table current = table;
+        long row = id - current.baseId - 1;
+        if (row < 0 || id > sequence.get()) {
+            return;
+        }
+        ByteBuffer segment = current.segmentForRead(row);
+        if (segment == null) {
+            return;
+        }
+        int offset = offset(row);
+        if ((segment.getInt(offset + FLAGS) & PRESENT) == 0) {
+            return;
+        }
+        writeRow(current, segment, offset, id, updateParam);
+    }
+
+    @Override
+    public void restore(Item item) {
+        Table current = table;
+        long id = item.getId();
+        sequence.accumulateAndGet(id, Math::max);
+        long row = id - current.baseId - 1;
+        if (row < 0) {
+            return;
+        }
+        writeRow(current, current.segmentForWrite(row), offset(row), id, item);
+    }
+
+    @Override
+    public long allocateIds(int count) {
+        return sequence.getAndAdd(count) + 1;
+    }
+
+    @Override
+    public long getLastId() {
+        return sequence.get();
+    }
+
+    @Override
+    public long getClearedId() {
+        return table.baseId;
+    }
+
+    @Override
+    public void reserveIds(long lastId) {
+        sequence.accumulateAndGet(lastId, Math::max);
+    }
+
+    @Override
+    public void clear() {
+        table = new Table(sequence.get());
+    }
+
+    /**
+     * bytes taken from the name arena since the last clear, unused chunk tails included
+     */
+    long nameArenaBytes() {
+        return table.arena.usedBytes();
+    }
+
+    private void writeRow(Table current, ByteBuffer segment, int offset, long id, Item item) {
+        String itemName = item.getItemName();
+        Integer price = item.getPrice();
+        Integer quantity = item.getQuantity();
+
+        int nameChunk = 0;
+        int namePosition = 0;
+        int nameLength = NO_NAME;
+        if (itemName != null) {
+            byte[] nameBytes = itemName.getBytes(UTF_8);
+            //writes of one id are never concurrent, the row can be read without its lock here
+            int oldChunk = segment.getInt(offset + NAME_CHUNK);
+            int oldPosition = segment.getInt(offset + NAME_POSITION);
+            if ((segment.getInt(offset + FLAGS) & PRESENT) != 0
+                    && current.arena.contains(oldChunk, oldPosition, segment.getInt(offset + NAME_LENGTH), nameBytes)) {
+                nameChunk = oldChunk;
+                namePosition = oldPosition;
+            } else {
+                long nameRef = current.arena.append(nameBytes);
+                nameChunk = (int) (nameRef >>> 32);
+                namePosition = (int) nameRef;
+            }
+            nameLength = nameBytes.length;
+        }
+
+        int flags = PRESENT;
+        if (price == null) {
+            flags |= PRICE_NULL;
+        }
+        if (quantity == null) {
+            flags |= QUANTITY_NULL;
+        }
+
+        StampedLock lock = stripe(id);
+        long stamp = lock.writeLock();
+        try {
+            segment.putInt(offset + PRICE, price == null ? 0 : price);
+            segment.putInt(offset + QUANTITY, quantity == null ? 0 : quantity);
+            segment.putInt(offset + NAME_CHUNK, nameChunk);
+            segment.putInt(offset + NAME_POSITION, namePosition);
+            segment.putInt(offset + NAME_LENGTH, nameLength);
+            segment.putInt(offset + FLAGS, flags);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private Item readRow(Table current, ByteBuffer segment, int offset, long id) {
+        StampedLock lock = stripe(id);
+        long stamp = lock.tryOptimisticRead();
+        int flags = segment.getInt(offset + FLAGS);
+        int price = segment.getInt(offset + PRICE);
+        int quantity = segment.getInt(offset + QUANTITY);
+        int nameChunk = segment.getInt(offset + NAME_CHUNK);
+        int namePosition = segment.getInt(offset + NAME_POSITION);
+        int nameLength = segment.getInt(offset + NAME_LENGTH);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                flags = segment.getInt(offset + FLAGS);
+                price = segment.getInt(offset + PRICE);
+                quantity = segment.getInt(offset + QUANTITY);
+                nameChunk = segment.getInt(offset + NAME_CHUNK);
+                namePosition = segment.getInt(offset + NAME_POSITION);
+                nameLength = segment.getInt(offset + NAME_LENGTH);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if ((flags & PRESENT) == 0) {
+            return null;
+        }
+
+        Item item = new Item(current.arena.read(nameChunk, namePosition, nameLength),
+                (flags & PRICE_NULL) != 0 ? null : price,
+                (flags & QUANTITY_NULL) != 0 ? null : quantity);
+        item.setId(id);
+        return item;
+    }
+
+    private int offset(long row) {
+        return (int) (row & (segmentRows - 1)) * ROW_BYTES;
+    }
+
+    private StampedLock stripe(long id) {
+        return stripes[(int) (id & (STRIPES - 1))];
+    }
+
+    /**
+     * rows and names of one clear() generation
+     */
+    private final class Table {
+
+        private final long baseId;
+        private final NameArena arena = new NameArena();
+        private volatile ByteBuffer[] segments = new ByteBuffer[0];
+
+        private Table(long baseId) {
+            this.baseId = baseId;
+        }
+
+        private ByteBuffer segmentForRead(long row) {
+            long index = row >>> segmentShift;
+            ByteBuffer[] current = segments;
+            return index < current.length ? current[(int) index] : null;
+        }
+
+        private ByteBuffer segmentForWrite(long row) {
+            ByteBuffer segment = segmentForRead(row);
+            if (segment != null) {
+                return segment;
+            }
+            int index = Math.toIntExact(row >>> segmentShift);
+            synchronized (this) {
+                ByteBuffer[] current = segments;
+                if (index < current.length && current[index] != null) {
+                    return current[index];
+                }
+                ByteBuffer[] next = Arrays.copyOf(current, Math.max(index + 1, current.length));
+                next[index] = ByteBuffer.allocateDirect(segmentRows * ROW_BYTES).order(ByteOrder.nativeOrder());
+                segments = next;
+                return next[index];
+            }
+        }
+    }
+
+    /**
+     * append only utf-8 storage for item names, chunk index and position are packed into one long
+     *
+     * cursor holds the same packing for the next free byte : append moves it with a CAS and then writes
+     * its own range, so appenders never wait for each other. only a full chunk takes the lock,
+     * adds a chunk and moves the cursor into it, the unused tail of the old chunk is left empty.
+     */
+    private final class NameArena {
+
+        private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+        private final AtomicLong cursor = new AtomicLong();
+
+        private long append(byte[] bytes) {
+            while (true) {
+                long ref = cursor.get();
+                int chunk = (int) (ref >>> 32);
+                int start = (int) ref;
+                ByteBuffer[] current = chunks;
+                if (chunk < current.length && current[chunk].capacity() - start >= bytes.length) {
+                    if (cursor.compareAndSet(ref, ref + bytes.length)) {
+                        current[chunk].put(start, bytes);
+                        return ref;
+                    }
+                    continue;
+                }
+                long added = addChunk(ref, bytes.length);
+                if (added >= 0) {
+                    chunks[(int) (added >>> 32)].put(0, bytes);
+                    return added;
+                }
+            }
+        }
+
+        /**
+         * @return the ref of the first bytes.length bytes of a new chunk, -1 when another thread moved the cursor first
+         */
+        private synchronized long addChunk(long seenRef, int length) {
+            if (cursor.get() != seenRef) {
+                return -1;
+            }
+            ByteBuffer[] current = chunks;
+            ByteBuffer[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = ByteBuffer.allocateDirect(Math.max(arenaChunkBytes, length));
+            //published before the cursor points into it
+            chunks = next;
+            long ref = (long) current.length << 32;
+            cursor.set(ref + length);
+            return ref;
+        }
+
+        /**
+         * true when the name at chunk / start is exactly bytes
+         */
+        private boolean contains(int chunk, int start, int length, byte[] bytes) {
+            if (length != bytes.length) {
+                return false;
+            }
+            ByteBuffer buffer = chunks[chunk];
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(start + i) != bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long usedBytes() {
+            long ref = cursor.get();
+            int chunk = (int) (ref >>> 32);
+            ByteBuffer[] current = chunks;
+            long used = 0;
+            for (int i = 0; i < chunk && i < current.length; i++) {
+                used += current[i].capacity();
+            }
+            return used + (int) ref;
+        }
+
+        private String read(int chunk, int start, int length) {
+            if (length == NO_NAME) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            chunks[chunk].get(start, bytes);
+            return new String(bytes, UTF_8);
+        }
+    }
+}
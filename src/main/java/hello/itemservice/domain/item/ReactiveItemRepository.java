@@ -0,0 +1,49 @@
+package hello.itemservice.domain.item;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * non-blocking facade over ItemRepository for the webflux endpoints (profile "reactive")
+ *
+ * reads and in-memory writes only take short ReentrantLock sections, so they run on the event loop.
+ * with item.persistence.enabled=true a write waits for the log fsync (awaitDurable),
+ * those writes are moved to writeScheduler so no event loop thread ever blocks on disk.
+ */
+public class ReactiveItemRepository {
+
+    private final ItemRepository itemRepository;
+    private final Scheduler writeScheduler;
+
+    public ReactiveItemRepository(ItemRepository itemRepository) {
+        this(itemRepository, Schedulers.boundedElastic());
+    }
+
+    public ReactiveItemRepository(ItemRepository itemRepository, Scheduler writeScheduler) {
+        this.itemRepository = itemRepository;
+        this.writeScheduler = writeScheduler;
+    }
+
+    public Mono<Item> save(Item item) {
+        return write(Mono.fromCallable(() -> itemRepository.save(item)));
+    }
+
+    public Mono<List<Item>> saveAll(List<Item> items) {
+        return write(Mono.fromCallable(() -> itemRepository.saveAll(items)));
+    }
+
+    public Mono<Item> findById(Long id) {
+        return Mono.fromCallable(() -> itemRepository.findById(id));
+    }
+
+    public Mono<ItemPage> findPage(Long cursor, Integer size) {
+        return Mono.fromCallable(() -> itemRepository.findPage(cursor, size));
+    }
+
+    private <T> Mono<T> write(Mono<T> write) {
+        return itemRepository.isPersistent() ? write.subscribeOn(writeScheduler) : write;
+    }
+}
@@ -0,0 +1,124 @@
+package hello.itemservice.domain.item;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * keyset page whose items are read from the store CHUNK at a time while they are iterated
+ *
+ * ItemPage holds every item of the page before the view starts, here a th:each over getItems()
+ * pulls the next chunk only when the rows before it were written, so rendering a large page keeps
+ * at most one chunk in memory. getters match ItemPage (items, size, nextCursor, hasNext),
+ * the list templates work with either one.
+ *
+ * single use : the items can be iterated once, nextCursor / hasNext are known after that
+ * (the templates only ask for them below the table).
+ *
+ * the chunks come from a Pages source, the store or, with snapshot reads, the one ItemSnapshot
+ * current when the page was created, so every chunk of the page sees the same version.
+ */
+public class StreamingItemPage implements Iterable<Item> {
+
+    static final int CHUNK = 64;
+
+    /**
+     * same contract as ItemStore.findPage
+     */
+    @FunctionalInterface
+    interface Pages {
+        List<Item> findPage(long afterId, int limit);
+    }
+
+    private final Pages pages;
+    private final long afterId;
+    private final int size;
+
+    private boolean iterated;
+    private boolean finished;
+    private Long nextCursor;
+
+    StreamingItemPage(Pages pages, long afterId, int size) {
+        this.pages = pages;
+        this.afterId = afterId;
+        this.size = size;
+    }
+
+    public Iterable<Item> getItems() {
+        return this;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public Iterator<Item> iterator() {
+        if (iterated) {
+            throw new IllegalStateException("a streaming item page can only be iterated once");
+        }
+        iterated = true;
+        return new ChunkIterator();
+    }
+
+    private final class ChunkIterator implements Iterator<Item> {
+
+        private List<Item> chunk = Collections.emptyList();
+        private int index;
+        private long lastId = afterId;
+        private int remaining = size;
+        private boolean exhausted;
+
+        @Override
+        public boolean hasNext() {
+            if (index < chunk.size()) {
+                return true;
+            }
+            if (remaining == 0 || exhausted) {
+                finish();
+                return false;
+            }
+            int limit = Math.min(CHUNK, remaining);
+            chunk = pages.findPage(lastId, limit);
+            index = 0;
+            exhausted = chunk.size() < limit;
+            if (chunk.isEmpty()) {
+                finish();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public Item next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Item item = chunk.get(index++);
+            lastId = item.getId();
+            remaining--;
+            return item;
+        }
+
+        private void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            chunk = Collections.emptyList();
+            //a full page : one more read to know whether there is a next page, like ItemRepository.findPage
+            if (!exhausted && remaining == 0 && !pages.findPage(lastId, 1).isEmpty()) {
+                nextCursor = lastId;
+            }
+        }
+    }
+}
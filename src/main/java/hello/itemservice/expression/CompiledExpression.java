@@ -0,0 +1,463 @@
+package hello.itemservice.expression;
+
+import jakarta.validation.ConstraintDeclarationException;
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * an @ExpressionAssert expression compiled for one class
+ *
+ * the expression is parsed once into a tree of small lambdas (closure tree)
+ * - _this.price -> getter MethodHandle, resolved and type checked at compile time
+ * - numbers are evaluated as long with Math.*Exact, int * int can not overflow anymore
+ *   (an overflow or a division by zero fails the rule instead of wrapping around)
+ * - a null property read by a number / boolean operand means the rule is not applied -> valid
+ *
+ * unknown properties, type errors and syntax errors throw ConstraintDeclarationException on the first validation
+ */
+public final class CompiledExpression {
+
+    private static final ConcurrentMap<Key, CompiledExpression> CACHE = new ConcurrentHashMap<>();
+
+    private final String expression;
+    private final Class<?> rootType;
+    private final BoolNode root;
+
+    private CompiledExpression(String expression, Class<?> rootType, BoolNode root) {
+        this.expression = expression;
+        this.rootType = rootType;
+        this.root = root;
+    }
+
+    public static CompiledExpression compile(String expression, Class<?> rootType, String alias) {
+        return CACHE.computeIfAbsent(new Key(expression, rootType, alias),
+                key -> new CompiledExpression(expression, rootType, new Parser(expression, rootType, alias).parse()));
+    }
+
+    public boolean evaluate(Object target) {
+        try {
+            return root.test(target);
+        } catch (NullOperand e) {
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public Class<?> getRootType() {
+        return rootType;
+    }
+
+    private record Key(String expression, Class<?> rootType, String alias) {
+    }
+
+    @FunctionalInterface
+    private interface BoolNode {
+        boolean test(Object target);
+    }
+
+    @FunctionalInterface
+    private interface NumNode {
+        long eval(Object target);
+    }
+
+    @FunctionalInterface
+    private interface RefNode {
+        Object get(Object target);
+    }
+
+    /**
+     * thrown when a number / boolean operand reads null, preallocated and without stack trace
+     */
+    private static final class NullOperand extends RuntimeException {
+        static final NullOperand INSTANCE = new NullOperand();
+
+        private NullOperand() {
+            super(null, null, false, false);
+        }
+    }
+
+    private enum Kind {NUM, BOOL, REF, NULL}
+
+    /**
+     * typed operand while parsing, ref is the raw value (null checks work on every kind)
+     */
+    private record Operand(Kind kind, NumNode num, BoolNode bool, RefNode ref) {
+
+        static Operand num(NumNode num, RefNode ref) {
+            return new Operand(Kind.NUM, num, null, ref);
+        }
+
+        static Operand bool(BoolNode bool, RefNode ref) {
+            return new Operand(Kind.BOOL, null, bool, ref);
+        }
+    }
+
+    private static final class Parser {
+
+        private final String expression;
+        private final Class<?> rootType;
+        private final String alias;
+        private final List<String> tokens;
+        private int position;
+
+        Parser(String expression, Class<?> rootType, String alias) {
+            this.expression = expression;
+            this.rootType = rootType;
+            this.alias = alias;
+            this.tokens = tokenize(expression);
+        }
+
+        BoolNode parse() {
+            Operand result = or();
+            if (position < tokens.size()) {
+                throw error("unexpected '" + tokens.get(position) + "'");
+            }
+            return bool(result);
+        }
+
+        private Operand or() {
+            Operand left = and();
+            while (accept("||")) {
+                BoolNode l = bool(left);
+                BoolNode r = bool(and());
+                left = Operand.bool(target -> l.test(target) || r.test(target), null);
+            }
+            return left;
+        }
+
+        private Operand and() {
+            Operand left = not();
+            while (accept("&&")) {
+                BoolNode l = bool(left);
+                BoolNode r = bool(not());
+                left = Operand.bool(target -> l.test(target) && r.test(target), null);
+            }
+            return left;
+        }
+
+        private Operand not() {
+            if (accept("!")) {
+                BoolNode operand = bool(not());
+                return Operand.bool(target -> !operand.test(target), null);
+            }
+            return comparison();
+        }
+
+        private Operand comparison() {
+            Operand left = additive();
+            String op = peek();
+            if (op == null || !(op.equals("==") || op.equals("!=") || op.equals("<") || op.equals("<=")
+                    || op.equals(">") || op.equals(">="))) {
+                return left;
+            }
+            position++;
+            Operand right = additive();
+            if (op.equals("==") || op.equals("!=")) {
+                BoolNode equal = equality(left, right);
+                return op.equals("==") ? Operand.bool(equal, null) : Operand.bool(target -> !equal.test(target), null);
+            }
+            NumNode l = num(left);
+            NumNode r = num(right);
+            return switch (op) {
+                case "<" -> Operand.bool(target -> l.eval(target) < r.eval(target), null);
+                case "<=" -> Operand.bool(target -> l.eval(target) <= r.eval(target), null);
+                case ">" -> Operand.bool(target -> l.eval(target) > r.eval(target), null);
+                default -> Operand.bool(target -> l.eval(target) >= r.eval(target), null);
+            };
+        }
+
+        private BoolNode equality(Operand left, Operand right) {
+            if (left.kind() == Kind.NULL || right.kind() == Kind.NULL) {
+                RefNode other = left.kind() == Kind.NULL ? right.ref() : left.ref();
+                if (other == null) {
+                    //null == null, null == 1 + 2
+                    boolean bothNull = left.kind() == right.kind();
+                    return target -> bothNull;
+                }
+                return target -> other.get(target) == null;
+            }
+            if (left.kind() == Kind.NUM && right.kind() == Kind.NUM) {
+                NumNode l = left.num();
+                NumNode r = right.num();
+                return target -> l.eval(target) == r.eval(target);
+            }
+            if (left.kind() == Kind.BOOL && right.kind() == Kind.BOOL) {
+                BoolNode l = left.bool();
+                BoolNode r = right.bool();
+                return target -> l.test(target) == r.test(target);
+            }
+            if (left.kind() == Kind.REF && right.kind() == Kind.REF) {
+                RefNode l = left.ref();
+                RefNode r = right.ref();
+                return target -> Objects.equals(l.get(target), r.get(target));
+            }
+            throw error("can not compare " + left.kind() + " with " + right.kind());
+        }
+
+        private Operand additive() {
+            Operand left = multiplicative();
+            while (true) {
+                if (accept("+")) {
+                    NumNode l = num(left);
+                    NumNode r = num(multiplicative());
+                    left = Operand.num(target -> Math.addExact(l.eval(target), r.eval(target)), null);
+                } else if (accept("-")) {
+                    NumNode l = num(left);
+                    NumNode r = num(multiplicative());
+                    left = Operand.num(target -> Math.subtractExact(l.eval(target), r.eval(target)), null);
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        private Operand multiplicative() {
+            Operand left = unary();
+            while (true) {
+                if (accept("*")) {
+                    NumNode l = num(left);
+                    NumNode r = num(unary());
+                    left = Operand.num(target -> Math.multiplyExact(l.eval(target), r.eval(target)), null);
+                } else if (accept("/")) {
+                    NumNode l = num(left);
+                    NumNode r = num(unary());
+                    left = Operand.num(target -> Math.floorDiv(l.eval(target), r.eval(target)), null);
+                } else if (accept("%")) {
+                    NumNode l = num(left);
+                    NumNode r = num(unary());
+                    left = Operand.num(target -> Math.floorMod(l.eval(target), r.eval(target)), null);
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        private Operand unary() {
+            if (accept("-")) {
+                NumNode operand = num(unary());
+                return Operand.num(target -> Math.negateExact(operand.eval(target)), null);
+            }
+            return primary();
+        }
+
+        private Operand primary() {
+            String token = next();
+            if (token.equals("(")) {
+                Operand inner = or();
+                expect(")");
+                return inner;
+            }
+            if (Character.isDigit(token.charAt(0))) {
+                long value = parseLong(token);
+                return Operand.num(target -> value, target -> value);
+            }
+            if (token.charAt(0) == '\'' || token.charAt(0) == '"') {
+                String value = token.substring(1, token.length() - 1);
+                return new Operand(Kind.REF, null, null, target -> value);
+            }
+            switch (token) {
+                case "true":
+                    return Operand.bool(target -> true, target -> Boolean.TRUE);
+                case "false":
+                    return Operand.bool(target -> false, target -> Boolean.FALSE);
+                case "null":
+                    return new Operand(Kind.NULL, null, null, null);
+                default:
+            }
+            if (!token.equals(alias)) {
+                throw error("unknown name '" + token + "', properties are read through " + alias);
+            }
+            expect(".");
+            return property();
+        }
+
+        /**
+         * _this.a.b -> chain of getters, a null in the middle reads as null
+         */
+        private Operand property() {
+            List<MethodHandle> getters = new ArrayList<>();
+            Class<?> type = rootType;
+            do {
+                String name = next();
+                PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, name);
+                if (descriptor == null || descriptor.getReadMethod() == null) {
+                    throw error("no readable property '" + name + "' on " + type.getSimpleName());
+                }
+                getters.add(getter(descriptor.getReadMethod()));
+                type = descriptor.getPropertyType();
+            } while (accept("."));
+
+            MethodHandle[] chain = getters.toArray(new MethodHandle[0]);
+            RefNode ref = chain.length == 1 ? target -> read(chain[0], target) : target -> {
+                Object value = target;
+                for (MethodHandle getter : chain) {
+                    value = read(getter, value);
+                    if (value == null) {
+                        return null;
+                    }
+                }
+                return value;
+            };
+
+            if (isIntegral(type)) {
+                return Operand.num(target -> {
+                    Object value = ref.get(target);
+                    if (value == null) {
+                        throw NullOperand.INSTANCE;
+                    }
+                    return ((Number) value).longValue();
+                }, ref);
+            }
+            if (type == boolean.class || type == Boolean.class) {
+                return Operand.bool(target -> {
+                    Object value = ref.get(target);
+                    if (value == null) {
+                        throw NullOperand.INSTANCE;
+                    }
+                    return (Boolean) value;
+                }, ref);
+            }
+            return new Operand(Kind.REF, null, null, ref);
+        }
+
+        private NumNode num(Operand operand) {
+            if (operand.kind() != Kind.NUM) {
+                throw error("number expected but was " + operand.kind());
+            }
+            return operand.num();
+        }
+
+        private BoolNode bool(Operand operand) {
+            if (operand.kind() != Kind.BOOL) {
+                throw error("boolean expected but was " + operand.kind());
+            }
+            return operand.bool();
+        }
+
+        private static boolean isIntegral(Class<?> type) {
+            return type == int.class || type == long.class || type == short.class || type == byte.class
+                    || type == Integer.class || type == Long.class || type == Short.class || type == Byte.class;
+        }
+
+        private MethodHandle getter(Method readMethod) {
+            try {
+                readMethod.trySetAccessible();
+                return MethodHandles.lookup().unreflect(readMethod)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+            } catch (IllegalAccessException e) {
+                throw new ConstraintDeclarationException("can not access " + readMethod + " in \"" + expression + "\"", e);
+            }
+        }
+
+        private long parseLong(String token) {
+            try {
+                return Long.parseLong(token);
+            } catch (NumberFormatException e) {
+                throw error("not an integer '" + token + "'");
+            }
+        }
+
+        private boolean accept(String token) {
+            if (token.equals(peek())) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw error("'" + token + "' expected");
+            }
+        }
+
+        private String peek() {
+            return position < tokens.size() ? tokens.get(position) : null;
+        }
+
+        private String next() {
+            if (position >= tokens.size()) {
+                throw error("unexpected end");
+            }
+            return tokens.get(position++);
+        }
+
+        private ConstraintDeclarationException error(String message) {
+            return new ConstraintDeclarationException(message + " in \"" + expression + "\" (" + rootType.getSimpleName() + ")");
+        }
+
+        private List<String> tokenize(String expression) {
+            List<String> tokens = new ArrayList<>();
+            int i = 0;
+            while (i < expression.length()) {
+                char c = expression.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (Character.isDigit(c)) {
+                    int start = i;
+                    while (i < expression.length() && Character.isDigit(expression.charAt(i))) {
+                        i++;
+                    }
+                    tokens.add(expression.substring(start, i));
+                } else if (Character.isJavaIdentifierStart(c)) {
+                    int start = i;
+                    while (i < expression.length() && Character.isJavaIdentifierPart(expression.charAt(i))) {
+                        i++;
+                    }
+                    tokens.add(expression.substring(start, i));
+                } else if (c == '\'' || c == '"') {
+                    int end = expression.indexOf(c, i + 1);
+                    if (end < 0) {
+                        throw error("unterminated string");
+                    }
+                    tokens.add(expression.substring(i, end + 1));
+                    i = end + 1;
+                } else {
+                    String op = operator(expression, i);
+                    //javascript style === / !== are accepted as == / !=
+                    tokens.add(op.length() == 3 ? op.substring(0, 2) : op);
+                    i += op.length();
+                }
+            }
+            return tokens;
+        }
+
+        private String operator(String expression, int i) {
+            for (String op : new String[]{"===", "!==", "==", "!=", "<=", ">=", "&&", "||"}) {
+                if (expression.startsWith(op, i)) {
+                    return op;
+                }
+            }
+            char c = expression.charAt(i);
+            if ("()+-*/%<>!.".indexOf(c) >= 0) {
+                return String.valueOf(c);
+            }
+            throw error("unexpected character '" + c + "'");
+        }
+    }
+
+    private static Object read(MethodHandle getter, Object target) {
+        try {
+            return (Object) getter.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
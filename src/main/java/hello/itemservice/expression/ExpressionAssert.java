@@ -0,0 +1,51 @@
+package hello.itemservice.expression;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.*;
+
+/**
+ * class level cross field rule, the replacement for @ScriptAssert / @CustomScriptAssert
+ *
+ * ie) @ExpressionAssert(expression = "_this.price * _this.quantity >= 10000")
+ *
+ * the expression is compiled once per annotated class into java code (see CompiledExpression),
+ * no script engine, no shared engine state.
+ * - numbers : integer properties (int, Integer, long, ...), literals, + - * / %
+ * - booleans : == != < <= > >=, && || !, boolean properties
+ * - null / 'text' literals for == != against any property
+ * a rule that reads a null property is not applied (same as other constraints, @NotNull reports the null)
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(ExpressionAssert.List.class)
+@Constraint(validatedBy = ExpressionAssertValidator.class)
+@Documented
+public @interface ExpressionAssert {
+
+    String message() default "expression \"{expression}\" is not satisfied";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    String expression();
+
+    /**
+     * name of the validated object inside the expression
+     */
+    String alias() default "_this";
+
+    /**
+     * property the violation is reported on, empty -> object error
+     */
+    String reportOn() default "";
+
+    @Target({ElementType.TYPE})
+    @Retention(RetentionPolicy.RUNTIME)
+    @Documented
+    @interface List {
+        ExpressionAssert[] value();
+    }
+}
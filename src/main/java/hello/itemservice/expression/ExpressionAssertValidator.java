@@ -0,0 +1,48 @@
+package hello.itemservice.expression;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import org.springframework.util.StringUtils;
+
+/**
+ * one instance per constraint declaration, shared by all threads
+ * the annotation does not know the class it sits on, so the expression is compiled on the first isValid
+ * (CompiledExpression caches it per expression and class)
+ */
+public class ExpressionAssertValidator implements ConstraintValidator<ExpressionAssert, Object> {
+
+    private String expression;
+    private String alias;
+    private String reportOn;
+
+    private volatile CompiledExpression compiled;
+
+    @Override
+    public void initialize(ExpressionAssert constraintAnnotation) {
+        this.expression = constraintAnnotation.expression();
+        this.alias = constraintAnnotation.alias();
+        this.reportOn = constraintAnnotation.reportOn();
+    }
+
+    @Override
+    public boolean isValid(Object value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+        CompiledExpression expression = compiled;
+        if (expression == null || expression.getRootType() != value.getClass()) {
+            expression = CompiledExpression.compile(this.expression, value.getClass(), alias);
+            compiled = expression;
+        }
+        if (expression.evaluate(value)) {
+            return true;
+        }
+        if (StringUtils.hasText(reportOn)) {
+            context.disableDefaultConstraintViolation();
+            context.buildConstraintViolationWithTemplate(context.getDefaultConstraintMessageTemplate())
+                    .addPropertyNode(reportOn)
+                    .addConstraintViolation();
+        }
+        return false;
+    }
+}
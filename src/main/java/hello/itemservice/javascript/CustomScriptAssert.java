@@ -1,20 +1,31 @@
-//package hello.itemservice.javascript;
-//
-//import hello.itemservice.javascript.CustomScriptAssertValidator;
-//import jakarta.validation.Constraint;
-//import jakarta.validation.Payload;
-//
-//import java.lang.annotation.*;
-//
-//@Target({ElementType.TYPE})
-//@Retention(RetentionPolicy.RUNTIME)
-//@Constraint(validatedBy = CustomScriptAssertValidator.class)
-//public @interface CustomScriptAssert {
-//    String message() default "Custom validation failed";
-//
-//    String script();
-//    Class<?>[] groups() default {};
-//    Class<? extends Payload>[] payload() default {};
-////    Class<?>[] groups() default {};
-////    Class<? extends Payload>[] payload() default {};
-//}
\ No newline at end of file
+package hello.itemservice.javascript;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.*;
+
+/**
+ * script based cross field rule, ie) @CustomScriptAssert(script = "_this.price * _this.quantity >= 10000")
+ *
+ * the script is compiled once and evaluated in pooled script contexts (ScriptEnginePool),
+ * the validated object is bound as alias for the evaluation only.
+ * the value of the last expression is the result, only true passes.
+ * prefer @ExpressionAssert (hello.itemservice.expression) when the rule is plain arithmetic
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = CustomScriptAssertValidator.class)
+public @interface CustomScriptAssert {
+    String message() default "Custom validation failed";
+
+    String script();
+
+    String lang() default "javascript";
+
+    String alias() default "_this";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
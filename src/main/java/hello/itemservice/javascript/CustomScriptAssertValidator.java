@@ -1,40 +1,62 @@
-//package hello.itemservice.javascript;
-//
-//import jakarta.validation.ConstraintValidator;
-//import jakarta.validation.ConstraintValidatorContext;
-//import org.graalvm.polyglot.Context;
-//import org.graalvm.polyglot.Source;
-//import org.graalvm.polyglot.Value;
-//import org.springframework.beans.factory.annotation.Autowired;
-//
-//import javax.script.ScriptEngine;
-//import javax.script.ScriptEngineManager;
-//import javax.script.ScriptException;
-//import java.io.IOException;
-//
-//public class CustomScriptAssertValidator implements ConstraintValidator<CustomScriptAssert, Object> {
-//
-//    private final ScriptEngine scriptEngine;
-//    private String script;
-//
-//    public CustomScriptAssertValidator() {
-//        ScriptEngineManager scriptEngineManager = new ScriptEngineManager();
-//        this.scriptEngine = scriptEngineManager.getEngineByName("graal.js");
-//    }
-//
-//    @Override
-//    public void initialize(CustomScriptAssert annotation) {
-//        this.script = annotation.script();
-//    }
-//
-//    @Override
-//    public boolean isValid(Object value, ConstraintValidatorContext context) {
-//        try {
-//            scriptEngine.eval(script.replace("_this", "value"));
-//            Object result = scriptEngine.get("result");
-//            return result instanceof Boolean && (Boolean) result;
-//        } catch (ScriptException e) {
-//            return false;
-//        }
-//    }
-//}
\ No newline at end of file
+package hello.itemservice.javascript;
+
+import jakarta.validation.ConstraintDeclarationException;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.script.ScriptException;
+
+/**
+ * before : a ScriptEngineManager per validator, the source re-evaluated on every call with
+ * replace("_this", "value") and the answer read back from the shared "result" variable (not thread safe)
+ *
+ * now : the script is compiled in initialize, isValid borrows a context of the pool,
+ * binds the object as alias and takes the value of the script as the result
+ */
+@Slf4j
+public class CustomScriptAssertValidator implements ConstraintValidator<CustomScriptAssert, Object> {
+
+    private final ScriptEnginePool pool;
+    private String lang;
+    private String script;
+    private String alias;
+
+    /**
+     * validator factories without spring (Validation.buildDefaultValidatorFactory) use the shared pool
+     */
+    public CustomScriptAssertValidator() {
+        this(ScriptEnginePool.getDefault());
+    }
+
+    @Autowired
+    public CustomScriptAssertValidator(ScriptEnginePool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void initialize(CustomScriptAssert annotation) {
+        this.lang = annotation.lang();
+        this.script = annotation.script();
+        this.alias = annotation.alias();
+        try {
+            pool.compile(lang, script);
+        } catch (ScriptException e) {
+            throw new ConstraintDeclarationException("script does not compile: " + script, e);
+        }
+    }
+
+    @Override
+    public boolean isValid(Object value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+        try {
+            return Boolean.TRUE.equals(pool.eval(lang, script, alias, value));
+        } catch (ScriptException e) {
+            log.debug("script {} failed for {}", script, value, e);
+            return false;
+        }
+    }
+}
@@ -1,17 +0,0 @@
-//package hello.itemservice.javascript;
-//
-//import org.springframework.context.annotation.Bean;
-//import org.springframework.context.annotation.Configuration;
-//
-//import javax.script.ScriptEngine;
-//import javax.script.ScriptEngineManager;
-//
-//@Configuration
-//public class GraalVMConfiguration {
-//
-//    @Bean
-//    public ScriptEngine graalJSScriptEngine() {
-//        ScriptEngineManager manager = new ScriptEngineManager();
-//        return manager.getEngineByName("graal.js");
-//    }
-//}
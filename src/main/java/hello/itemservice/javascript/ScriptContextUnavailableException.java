@@ -0,0 +1,14 @@
+package hello.itemservice.javascript;
+
+/**
+ * no script context of the pool got free within borrowTimeoutMillis : overload, not an invalid value
+ *
+ * hibernate validator wraps it in a ValidationException, ScriptContextUnavailableHandler (web)
+ * finds it as the cause and answers 503.
+ */
+public class ScriptContextUnavailableException extends RuntimeException {
+
+    public ScriptContextUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package hello.itemservice.javascript;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * graal.js was replaced by nashorn-core (build.gradle), the engine is no longer a bean itself,
+ * CustomScriptAssertValidator gets the pool of compiled scripts and script contexts
+ */
+@Configuration
+public class ScriptEngineConfiguration {
+
+    @Bean
+    public ScriptEnginePool scriptEnginePool(@Value("${item.script.pool.max-contexts:64}") int maxContexts,
+                                             @Value("${item.script.pool.borrow-timeout-millis:5000}") long borrowTimeoutMillis) {
+        return new ScriptEnginePool(maxContexts, borrowTimeoutMillis);
+    }
+}
@@ -0,0 +1,239 @@
+package hello.itemservice.javascript;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * compiled scripts and a bounded pool of script contexts, per script language
+ *
+ * - one ScriptEngine per language, every script is compiled once (CompiledScript)
+ * - a context owns its own engine scope bindings (nashorn -> its own global),
+ *   a context is used by one thread at a time, so evaluations never see each other's variables
+ * - at most maxContexts contexts per language, a thread that finds none idle waits up to borrowTimeoutMillis
+ * - the alias binding is removed before the context goes back to the pool. a script that left a global behind
+ *   (var x, an implicit global, a function declaration) has changed its global for good, nashorn can not delete
+ *   a var, so that context is dropped instead of pooled and the next borrower gets a fresh one.
+ *   scripts that only read their alias (CustomScriptAssert) keep reusing their contexts.
+ *   changes to the built-in objects (Math.max = ...) are not detected, such scripts are not supported.
+ * - no context free within borrowTimeoutMillis is overload, not an invalid value : it is not reported as a
+ *   failed constraint but thrown as a ScriptContextUnavailableException, the web layer answers 503.
+ *
+ * counters : evaluations, waits (pool was empty), wait time, timeouts, created / idle / dropped contexts,
+ * exported by the scriptEnginePoolMetrics MeterBinder (ItemMetricsConfiguration)
+ */
+@Slf4j
+public class ScriptEnginePool {
+
+    private static volatile ScriptEnginePool defaultPool;
+
+    private final int maxContexts;
+    private final long borrowTimeoutMillis;
+    private final ConcurrentMap<String, Engine> engines = new ConcurrentHashMap<>();
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public ScriptEnginePool(int maxContexts, long borrowTimeoutMillis) {
+        if (maxContexts < 1) {
+            throw new IllegalArgumentException("maxContexts must be positive: " + maxContexts);
+        }
+        this.maxContexts = maxContexts;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    /**
+     * pool for code that is not created by spring
+     */
+    public static ScriptEnginePool getDefault() {
+        ScriptEnginePool pool = defaultPool;
+        if (pool == null) {
+            synchronized (ScriptEnginePool.class) {
+                pool = defaultPool;
+                if (pool == null) {
+                    pool = new ScriptEnginePool(64, 5000);
+                    defaultPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    public CompiledScript compile(String lang, String script) throws ScriptException {
+        return engine(lang).compile(script);
+    }
+
+    /**
+     * evaluates the script with value bound as name, returns the value of the script
+     */
+    public Object eval(String lang, String script, String name, Object value) throws ScriptException {
+        Engine engine = engine(lang);
+        CompiledScript compiled = engine.compile(script);
+        ScriptContext context = engine.borrow();
+        Bindings bindings = context.getBindings(ScriptContext.ENGINE_SCOPE);
+        try {
+            bindings.put(name, value);
+            evaluations.increment();
+            return compiled.eval(context);
+        } finally {
+            bindings.remove(name);
+            engine.release(context, bindings);
+        }
+    }
+
+    public long getEvaluationCount() {
+        return evaluations.sum();
+    }
+
+    public long getWaitCount() {
+        return waits.sum();
+    }
+
+    public long getWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    /**
+     * contexts not returned to the pool because a script left globals in them
+     */
+    public long getDroppedContextCount() {
+        return dropped.sum();
+    }
+
+    public int getContextCount() {
+        return engines.values().stream().mapToInt(engine -> engine.created.get()).sum();
+    }
+
+    public int getIdleContextCount() {
+        return engines.values().stream().mapToInt(engine -> engine.idle.size()).sum();
+    }
+
+    public int getCompiledScriptCount() {
+        return engines.values().stream().mapToInt(engine -> engine.scripts.size()).sum();
+    }
+
+    public int getMaxContexts() {
+        return maxContexts;
+    }
+
+    private Engine engine(String lang) {
+        return engines.computeIfAbsent(lang, this::createEngine);
+    }
+
+    private Engine createEngine(String lang) {
+        ScriptEngine scriptEngine = new ScriptEngineManager().getEngineByName(lang);
+        if (scriptEngine == null) {
+            throw new IllegalStateException("no script engine for " + lang + ", add one to the dependencies (ie. nashorn-core)");
+        }
+        if (!(scriptEngine instanceof Compilable)) {
+            throw new IllegalStateException("script engine " + lang + " can not compile scripts");
+        }
+        log.info("script engine for {}: {}", lang, scriptEngine.getFactory().getEngineName());
+        return new Engine(scriptEngine);
+    }
+
+    private final class Engine {
+        final ScriptEngine scriptEngine;
+        final ConcurrentMap<String, CompiledScript> scripts = new ConcurrentHashMap<>();
+        final BlockingQueue<ScriptContext> idle = new ArrayBlockingQueue<>(maxContexts);
+        final AtomicInteger created = new AtomicInteger();
+        //number of engine scope bindings of a context nobody has used yet
+        volatile int cleanBindingCount = -1;
+
+        Engine(ScriptEngine scriptEngine) {
+            this.scriptEngine = scriptEngine;
+        }
+
+        CompiledScript compile(String script) throws ScriptException {
+            CompiledScript compiled = scripts.get(script);
+            if (compiled == null) {
+                compiled = ((Compilable) scriptEngine).compile(script);
+                CompiledScript existing = scripts.putIfAbsent(script, compiled);
+                if (existing != null) {
+                    compiled = existing;
+                }
+            }
+            return compiled;
+        }
+
+        ScriptContext borrow() throws ScriptException {
+            ScriptContext context = idle.poll();
+            if (context != null) {
+                return context;
+            }
+            if (created.incrementAndGet() <= maxContexts) {
+                try {
+                    return newContext();
+                } catch (RuntimeException e) {
+                    created.decrementAndGet();
+                    throw e;
+                }
+            }
+            created.decrementAndGet();
+
+            waits.increment();
+            long start = System.nanoTime();
+            try {
+                context = idle.poll(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ScriptException("interrupted while waiting for a script context");
+            } finally {
+                waitNanos.add(System.nanoTime() - start);
+            }
+            if (context == null) {
+                timeouts.increment();
+                throw new ScriptContextUnavailableException("no script context free after "
+                        + borrowTimeoutMillis + "ms, max-contexts=" + maxContexts);
+            }
+            return context;
+        }
+
+        /**
+         * back to the pool, or dropped when the script left globals behind (the alias is already removed)
+         */
+        void release(ScriptContext context, Bindings bindings) {
+            if (bindings.size() == cleanBindingCount) {
+                idle.offer(context);
+                return;
+            }
+            dropped.increment();
+            //replaced right away in the same slot, a waiting borrower would otherwise sleep until its timeout
+            try {
+                idle.offer(newContext());
+            } catch (RuntimeException e) {
+                created.decrementAndGet();
+                log.warn("script context could not be replaced", e);
+            }
+        }
+
+        private ScriptContext newContext() {
+            SimpleScriptContext context = new SimpleScriptContext();
+            Bindings bindings = scriptEngine.createBindings();
+            context.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
+            cleanBindingCount = bindings.size();
+            return context;
+        }
+    }
+}
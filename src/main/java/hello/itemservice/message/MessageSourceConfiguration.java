@@ -0,0 +1,49 @@
+package hello.itemservice.message;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.context.MessageSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * replaces the message source of MessageSourceAutoConfiguration (bean name "messageSource")
+ * spring.messages.* is read the same way, so spring.messages.basename=messages,errors keeps working
+ */
+@Configuration
+public class MessageSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.messages")
+    public MessageSourceProperties messageSourceProperties() {
+        return new MessageSourceProperties();
+    }
+
+    @Bean
+    public PrecompiledMessageSource messageSource(MessageSourceProperties properties,
+                                                  @Value("${item.messages.precompile-locales:ko,en}") String[] locales,
+                                                  @Value("${item.messages.rendered-cache-size:10000}") int renderedCacheSize) {
+        PrecompiledMessageSource messageSource = new PrecompiledMessageSource(renderedCacheSize);
+        if (StringUtils.hasText(properties.getBasename())) {
+            messageSource.setBasenames(StringUtils.commaDelimitedListToStringArray(
+                    StringUtils.trimAllWhitespace(properties.getBasename())));
+        }
+        if (properties.getEncoding() != null) {
+            messageSource.setDefaultEncoding(properties.getEncoding().name());
+        }
+        messageSource.setFallbackToSystemLocale(properties.isFallbackToSystemLocale());
+        Duration cacheDuration = properties.getCacheDuration();
+        if (cacheDuration != null) {
+            messageSource.setCacheMillis(cacheDuration.toMillis());
+        }
+        messageSource.setAlwaysUseMessageFormat(properties.isAlwaysUseMessageFormat());
+        messageSource.setUseCodeAsDefaultMessage(properties.isUseCodeAsDefaultMessage());
+        messageSource.setPrecompileLocales(Arrays.stream(locales).map(Locale::forLanguageTag).toArray(Locale[]::new));
+        return messageSource;
+    }
+}
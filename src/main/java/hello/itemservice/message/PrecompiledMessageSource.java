@@ -0,0 +1,203 @@
+package hello.itemservice.message;
+
+import hello.itemservice.validation.ValidationResourcesChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ObjectUtils;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ResourceBundleMessageSource that compiles messages,errors into one flat table per locale
+ *
+ * plain ResourceBundleMessageSource, per code of a FieldError (required.item.itemName -> ... -> required)
+ * 1. walks every basename and the parent chain of its bundle (errors_ko -> errors)
+ * 2. looks the MessageFormat up in a nested locale / bundle / code cache
+ * 3. formats it again, even when the arguments never change (range -> {1000, 1000000})
+ *
+ * here
+ * - each locale is compiled once : code -> (pattern, MessageFormat), first basename wins like resolveCode
+ * - one hash lookup per code, codes that are not in the bundles (commonMessages, parent) go to super
+ * - when all arguments are constants (String, Number, Boolean, Character) the rendered message is kept,
+ *   at most maxRenderedMessages of them per locale
+ *
+ * with cacheMillis >= 0 (spring.messages.cache-duration, bundles reloaded) everything goes to super
+ * clearCache publishes a ValidationResourcesChangedEvent, cached validation results hold rendered default messages
+ */
+@Slf4j
+public class PrecompiledMessageSource extends ResourceBundleMessageSource implements InitializingBean, ApplicationEventPublisherAware {
+
+    private final int maxRenderedMessages;
+    private final ConcurrentMap<Locale, Catalog> catalogs = new ConcurrentHashMap<>();
+    private Locale[] precompileLocales = new Locale[0];
+    @Nullable
+    private ApplicationEventPublisher eventPublisher;
+
+    private final LongAdder renderHits = new LongAdder();
+    private final LongAdder renderMisses = new LongAdder();
+
+    public PrecompiledMessageSource(int maxRenderedMessages) {
+        this.maxRenderedMessages = maxRenderedMessages;
+    }
+
+    /**
+     * locales compiled at startup, others are compiled on their first message
+     */
+    public void setPrecompileLocales(Locale... locales) {
+        this.precompileLocales = locales;
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        long start = System.nanoTime();
+        int templates = 0;
+        for (Locale locale : precompileLocales) {
+            templates += catalog(locale).templates.size();
+        }
+        log.info("message source precompiled: locales={}, templates={}, {}ms",
+                Arrays.toString(precompileLocales), templates, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    @Nullable
+    protected String getMessageInternal(@Nullable String code, @Nullable Object[] args, @Nullable Locale locale) {
+        if (code == null || getCacheMillis() >= 0) {
+            return super.getMessageInternal(code, args, locale);
+        }
+        if (locale == null) {
+            locale = Locale.getDefault();
+        }
+        Catalog catalog = catalog(locale);
+        Template template = catalog.templates.get(code);
+        if (template == null) {
+            return super.getMessageInternal(code, args, locale);
+        }
+        if (!isAlwaysUseMessageFormat() && ObjectUtils.isEmpty(args)) {
+            return template.pattern;
+        }
+        if (template.format == null) {
+            //pattern is not a valid MessageFormat, let super report it
+            return super.getMessageInternal(code, args, locale);
+        }
+        return render(catalog, template, resolveArguments(args, locale));
+    }
+
+    /**
+     * drops compiled tables and rendered messages, next lookup compiles again
+     */
+    public void clearCache() {
+        catalogs.clear();
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new ValidationResourcesChangedEvent(this));
+        }
+    }
+
+    public int getTemplateCount() {
+        return catalogs.values().stream().mapToInt(catalog -> catalog.templates.size()).sum();
+    }
+
+    public long getRenderHitCount() {
+        return renderHits.sum();
+    }
+
+    public long getRenderMissCount() {
+        return renderMisses.sum();
+    }
+
+    private String render(Catalog catalog, Template template, Object[] args) {
+        if (!isConstant(args)) {
+            return template.format(args);
+        }
+        RenderKey key = new RenderKey(template.code, List.of(args));
+        String message = catalog.rendered.get(key);
+        if (message != null) {
+            renderHits.increment();
+            return message;
+        }
+        renderMisses.increment();
+        message = template.format(args);
+        if (catalog.rendered.size() < maxRenderedMessages) {
+            catalog.rendered.putIfAbsent(key, message);
+        }
+        return message;
+    }
+
+    private Catalog catalog(Locale locale) {
+        return catalogs.computeIfAbsent(locale, this::compile);
+    }
+
+    private Catalog compile(Locale locale) {
+        Map<String, Template> templates = new HashMap<>();
+        for (String basename : getBasenameSet()) {
+            ResourceBundle bundle = getResourceBundle(basename, locale);
+            if (bundle == null) {
+                continue;
+            }
+            for (String code : bundle.keySet()) {
+                if (!templates.containsKey(code)) {
+                    templates.put(code, compile(code, bundle.getString(code), locale));
+                }
+            }
+        }
+        return new Catalog(templates);
+    }
+
+    private Template compile(String code, String pattern, Locale locale) {
+        MessageFormat format;
+        try {
+            format = createMessageFormat(pattern, locale);
+        } catch (IllegalArgumentException e) {
+            format = null;
+        }
+        return new Template(code, pattern, format);
+    }
+
+    private static boolean isConstant(Object[] args) {
+        for (Object arg : args) {
+            if (!(arg instanceof String || arg instanceof Number || arg instanceof Boolean || arg instanceof Character)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Catalog {
+        final Map<String, Template> templates;
+        final ConcurrentMap<RenderKey, String> rendered = new ConcurrentHashMap<>();
+
+        Catalog(Map<String, Template> templates) {
+            this.templates = templates;
+        }
+    }
+
+    private record Template(String code, String pattern, @Nullable MessageFormat format) {
+
+        String format(Object[] args) {
+            //MessageFormat is not thread safe, same as ResourceBundleMessageSource
+            synchronized (format) {
+                return format.format(args);
+            }
+        }
+    }
+
+    private record RenderKey(String code, List<Object> args) {
+    }
+}
@@ -0,0 +1,143 @@
+package hello.itemservice.metrics;
+
+import hello.itemservice.domain.item.ItemRepositoryMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * meters of the form post hot path, exposed on /actuator/prometheus
+ *
+ * - item.binding     : @ModelAttribute / @RequestBody argument resolution incl. its validation, tag type
+ * - item.validation  : one bean validation run of mvcValidator (@Validated), tag validator
+ * - item.messages    : one MessageSource.getMessage (thymeleaf #{...}, error messages)
+ * - item.repository  : one ItemRepository save / saveAll / update / updateAll / search, tag operation
+ * - item.validation.errors : counter per rejected code, tags object / field / code
+ *   (range.item.price -> object=item, field=price, code=range, totalPriceMin -> field=none)
+ *
+ * sampling : with item.metrics.sample-rate below 1 only that share of the calls reads the clock and
+ * records into a timer, the others pay one ThreadLocalRandom draw. timer counts are therefore sampled
+ * counts, the error counters and the http server metrics of actuator stay exact.
+ * the validation and repository timers are registered up front and held by their caller (TimedValidator,
+ * ItemRepository through ItemRepositoryMetrics), binding timers and error counters are registered once and looked up from a map,
+ * nothing is built per call.
+ */
+public class ItemMetrics implements ItemRepositoryMetrics {
+
+    private static final int SAMPLE_SCALE = 1 << 20;
+    private static final String NO_FIELD = "none";
+
+    private final MeterRegistry registry;
+    private final int sampleThreshold;
+
+    private final Timer messageTimer;
+    private final Timer[] repositoryTimers;
+    private final ConcurrentMap<Class<?>, Timer> bindingTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ErrorKey, Counter> errorCounters = new ConcurrentHashMap<>();
+
+    /**
+     * @param sampleRate share of the calls that are timed, 1 = every call, 0 = timers off
+     */
+    public ItemMetrics(MeterRegistry registry, double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1 : " + sampleRate);
+        }
+        this.registry = registry;
+        this.sampleThreshold = (int) Math.round(sampleRate * SAMPLE_SCALE);
+        this.messageTimer = Timer.builder("item.messages")
+                .description("MessageSource.getMessage")
+                .register(registry);
+        Operation[] operations = Operation.values();
+        this.repositoryTimers = new Timer[operations.length];
+        for (Operation operation : operations) {
+            repositoryTimers[operation.ordinal()] = Timer.builder("item.repository")
+                    .description("one ItemRepository call")
+                    .tag("operation", operation.getTag())
+                    .register(registry);
+        }
+    }
+
+    /**
+     * @return System.nanoTime() when this call is sampled, 0 otherwise. pass it back to the record methods
+     */
+    @Override
+    public long start() {
+        if (sampleThreshold >= SAMPLE_SCALE || (sampleThreshold > 0
+                && ThreadLocalRandom.current().nextInt(SAMPLE_SCALE) < sampleThreshold)) {
+            long now = System.nanoTime();
+            return now == 0 ? 1 : now;
+        }
+        return 0;
+    }
+
+    public void recordBinding(Class<?> type, long start) {
+        if (start != 0) {
+            bindingTimers.computeIfAbsent(type, key -> Timer.builder("item.binding")
+                            .description("@ModelAttribute / @RequestBody argument resolution incl. validation")
+                            .tag("type", key.getSimpleName())
+                            .register(registry))
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * registers the item.validation timer of one validator, the caller keeps it (TimedValidator)
+     */
+    public Timer validationTimer(String validator) {
+        return Timer.builder("item.validation")
+                .description("one Validator run")
+                .tag("validator", validator)
+                .register(registry);
+    }
+
+    public void recordValidation(Timer validationTimer, long start) {
+        if (start != 0) {
+            validationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordMessage(long start) {
+        if (start != 0) {
+            messageTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void record(Operation operation, long start) {
+        if (start != 0) {
+            repositoryTimers[operation.ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * counts every error of errors, not sampled
+     */
+    public void countErrors(Errors errors) {
+        if (!errors.hasErrors()) {
+            return;
+        }
+        for (ObjectError error : errors.getAllErrors()) {
+            String field = error instanceof FieldError fieldError ? fieldError.getField() : NO_FIELD;
+            String code = error.getCode() != null ? error.getCode() : NO_FIELD;
+            errorCounters.computeIfAbsent(new ErrorKey(error.getObjectName(), field, code), key ->
+                            Counter.builder("item.validation.errors")
+                                    .description("rejected values per error code")
+                                    .tag("object", key.objectName())
+                                    .tag("field", key.field())
+                                    .tag("code", key.code())
+                                    .register(registry))
+                    .increment();
+        }
+    }
+
+    private record ErrorKey(String objectName, String field, String code) {
+    }
+}
@@ -0,0 +1,155 @@
+package hello.itemservice.metrics;
+
+import hello.itemservice.domain.item.ItemIndex;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.javascript.ScriptEnginePool;
+import hello.itemservice.message.PrecompiledMessageSource;
+import hello.itemservice.validation.CachingMessageCodesResolver;
+import hello.itemservice.validation.ValidationResultCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.Validator;
+import org.springframework.web.method.annotation.ModelAttributeMethodProcessor;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * item.metrics.enabled=true (default) : ItemMetrics plus the decorators that feed it
+ *
+ * - RequestMappingHandlerAdapter : @ModelAttribute / @RequestBody resolvers wrapped in TimedArgumentResolver
+ * - "messageSource"              : wrapped in TimedMessageSource
+ * - ItemRepository               : ItemMetrics set as its ItemRepositoryMetrics, the repository times
+ *   save / saveAll / update / updateAll / search itself (item.repository{operation}),
+ *   item.metrics.repository.enabled=false leaves it untimed
+ * - "mvcValidator"               : wrapped in TimedValidator (item.validation{validator=mvcValidator})
+ * - "itemValidator"              : wrapped in TimedValidator (item.validation{validator=itemValidator}),
+ *   V2 calls it from the handler body, so its time is not part of item.binding
+ *
+ * no bean is wrapped in a spring proxy : a proxy put an interceptor dispatch, a MethodInvocation and a timer lookup
+ * on every call, more than the allocation free ItemValidator costs itself. CrossFieldRuleRegistry is left as it is,
+ * its time is part of item.binding. MetricsOverheadBenchmark measures what is left.
+ * - hit / miss of the message codes cache, of the rendered message cache and of the validation result cache
+ *   (item.validation.result-cache.enabled) as function counters
+ * - ItemIndex : index updates on save / update and the time spent on them as function counters
+ *   (item.index.maintenance, item.index.maintenance.time)
+ * - ScriptEnginePool (@CustomScriptAssert) : evaluations, waits, wait time, timeouts, dropped contexts as
+ *   function counters, created / idle / max contexts and compiled scripts as gauges (item.script.pool.*)
+ *
+ * the post processors are static and look ItemMetrics up lazily, so they do not pull
+ * the meter registry (and its configuration) into the post processor phase.
+ */
+@Configuration
+@ConditionalOnProperty(name = "item.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class ItemMetricsConfiguration {
+
+    @Bean
+    public ItemMetrics itemMetrics(MeterRegistry registry, @Value("${item.metrics.sample-rate:1.0}") double sampleRate,
+                                   CachingMessageCodesResolver messageCodesResolver,
+                                   @Qualifier("messageSource") MessageSource messageSource,
+                                   ObjectProvider<ValidationResultCache> validationResultCache) {
+        FunctionCounter.builder("item.message-codes.cache", messageCodesResolver, CachingMessageCodesResolver::getHitCount)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("item.message-codes.cache", messageCodesResolver, CachingMessageCodesResolver::getMissCount)
+                .tag("result", "miss").register(registry);
+        MessageSource source = messageSource instanceof TimedMessageSource timed ? timed.getDelegate() : messageSource;
+        if (source instanceof PrecompiledMessageSource precompiled) {
+            FunctionCounter.builder("item.messages.rendered", precompiled, PrecompiledMessageSource::getRenderHitCount)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("item.messages.rendered", precompiled, PrecompiledMessageSource::getRenderMissCount)
+                    .tag("result", "miss").register(registry);
+        }
+        validationResultCache.ifAvailable(cache -> {
+            FunctionCounter.builder("item.validation.result-cache", cache, ValidationResultCache::getHitCount)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("item.validation.result-cache", cache, ValidationResultCache::getMissCount)
+                    .tag("result", "miss").register(registry);
+        });
+        return new ItemMetrics(registry, sampleRate);
+    }
+
+    @Bean
+    public MeterBinder itemIndexMetrics(ItemRepository itemRepository) {
+        ItemIndex index = itemRepository.getIndex();
+        return registry -> {
+            FunctionCounter.builder("item.index.maintenance", index, ItemIndex::getMaintenanceCount)
+                    .description("index updates on save / update").register(registry);
+            FunctionCounter.builder("item.index.maintenance.time", index, i -> i.getMaintenanceNanos() / 1e9)
+                    .description("time spent updating the indexes").baseUnit("seconds").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder scriptEnginePoolMetrics(ScriptEnginePool pool) {
+        return registry -> {
+            FunctionCounter.builder("item.script.pool.evaluations", pool, ScriptEnginePool::getEvaluationCount)
+                    .description("script evaluations").register(registry);
+            FunctionCounter.builder("item.script.pool.waits", pool, ScriptEnginePool::getWaitCount)
+                    .description("borrows that found no idle context").register(registry);
+            FunctionCounter.builder("item.script.pool.wait", pool, p -> p.getWaitNanos() / 1e9)
+                    .description("time spent waiting for a context").baseUnit("seconds").register(registry);
+            FunctionCounter.builder("item.script.pool.timeouts", pool, ScriptEnginePool::getTimeoutCount)
+                    .description("borrows that gave up (503)").register(registry);
+            FunctionCounter.builder("item.script.pool.dropped", pool, ScriptEnginePool::getDroppedContextCount)
+                    .description("contexts replaced because a script left globals").register(registry);
+            Gauge.builder("item.script.pool.contexts", pool, ScriptEnginePool::getContextCount)
+                    .tag("state", "created").register(registry);
+            Gauge.builder("item.script.pool.contexts", pool, ScriptEnginePool::getIdleContextCount)
+                    .tag("state", "idle").register(registry);
+            Gauge.builder("item.script.pool.contexts.max", pool, ScriptEnginePool::getMaxContexts)
+                    .register(registry);
+            Gauge.builder("item.script.pool.scripts", pool, ScriptEnginePool::getCompiledScriptCount)
+                    .description("compiled scripts").register(registry);
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor itemMetricsPostProcessor(ObjectProvider<ItemMetrics> itemMetrics,
+                                                             @Value("${item.metrics.repository.enabled:true}") boolean timeRepository) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof RequestMappingHandlerAdapter adapter) {
+                    timeArgumentResolvers(adapter, itemMetrics.getObject());
+                } else if ("messageSource".equals(beanName) && bean instanceof MessageSource messageSource) {
+                    return new TimedMessageSource(messageSource, itemMetrics);
+                } else if (bean instanceof ItemRepository repository) {
+                    if (timeRepository) {
+                        repository.setMetrics(itemMetrics.getObject());
+                    }
+                } else if (("mvcValidator".equals(beanName) || "itemValidator".equals(beanName))
+                        && bean instanceof Validator validator) {
+                    return new TimedValidator(validator, itemMetrics.getObject(), beanName);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static void timeArgumentResolvers(RequestMappingHandlerAdapter adapter, ItemMetrics metrics) {
+        List<HandlerMethodArgumentResolver> resolvers = adapter.getArgumentResolvers();
+        if (resolvers == null) {
+            return;
+        }
+        List<HandlerMethodArgumentResolver> timed = new ArrayList<>(resolvers.size());
+        for (HandlerMethodArgumentResolver resolver : resolvers) {
+            boolean binding = resolver instanceof ModelAttributeMethodProcessor
+                    || resolver instanceof RequestResponseBodyMethodProcessor;
+            timed.add(binding ? new TimedArgumentResolver(resolver, metrics) : resolver);
+        }
+        adapter.setArgumentResolvers(timed);
+    }
+}
@@ -0,0 +1,69 @@
+package hello.itemservice.metrics;
+
+import org.springframework.core.Conventions;
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.Nullable;
+import org.springframework.validation.BindException;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.annotation.ModelAttributeMethodProcessor;
+import org.springframework.web.method.annotation.ModelFactory;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * wraps the @ModelAttribute / @RequestBody resolvers of RequestMappingHandlerAdapter
+ *
+ * records item.binding{type} (binding + the binder validators) and counts the errors of the
+ * resulting BindingResult, whether the handler takes a BindingResult parameter or the binding fails
+ * with a BindException (MethodArgumentNotValidException) instead.
+ */
+public class TimedArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final HandlerMethodArgumentResolver delegate;
+    private final ItemMetrics metrics;
+
+    public TimedArgumentResolver(HandlerMethodArgumentResolver delegate, ItemMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return delegate.supportsParameter(parameter);
+    }
+
+    @Override
+    @Nullable
+    public Object resolveArgument(MethodParameter parameter, @Nullable ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, @Nullable WebDataBinderFactory binderFactory) throws Exception {
+        long start = metrics.start();
+        Object argument;
+        try {
+            argument = delegate.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
+        } catch (BindException e) {
+            metrics.countErrors(e.getBindingResult());
+            throw e;
+        } finally {
+            metrics.recordBinding(parameter.getParameterType(), start);
+        }
+        if (mavContainer != null) {
+            Object bindingResult = mavContainer.getModel().get(BindingResult.MODEL_KEY_PREFIX + name(parameter));
+            if (bindingResult instanceof BindingResult errors) {
+                metrics.countErrors(errors);
+            }
+        }
+        return argument;
+    }
+
+    /**
+     * model attribute name the resolver stores the BindingResult under
+     */
+    private String name(MethodParameter parameter) {
+        if (delegate instanceof ModelAttributeMethodProcessor) {
+            return ModelFactory.getNameForParameter(parameter);
+        }
+        return Conventions.getVariableNameForParameter(parameter);
+    }
+}
@@ -0,0 +1,88 @@
+package hello.itemservice.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.HierarchicalMessageSource;
+import org.springframework.context.MessageSource;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.lang.Nullable;
+
+import java.util.Locale;
+
+/**
+ * MessageSource decorator for the "messageSource" bean, records item.messages around every lookup
+ * the parent is passed through, so the application context can still attach its parent source
+ *
+ * the message source is created before almost every other bean (AbstractApplicationContext.initMessageSource),
+ * so ItemMetrics (and the meter registry behind it) is only looked up on the first message.
+ */
+public class TimedMessageSource implements HierarchicalMessageSource {
+
+    private final MessageSource delegate;
+    private final ObjectProvider<ItemMetrics> metricsProvider;
+    private volatile ItemMetrics metrics;
+
+    public TimedMessageSource(MessageSource delegate, ObjectProvider<ItemMetrics> metricsProvider) {
+        this.delegate = delegate;
+        this.metricsProvider = metricsProvider;
+    }
+
+    public MessageSource getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getMessage(String code, @Nullable Object[] args, @Nullable String defaultMessage, Locale locale) {
+        ItemMetrics metrics = metrics();
+        long start = metrics.start();
+        try {
+            return delegate.getMessage(code, args, defaultMessage, locale);
+        } finally {
+            metrics.recordMessage(start);
+        }
+    }
+
+    @Override
+    public String getMessage(String code, @Nullable Object[] args, Locale locale) throws NoSuchMessageException {
+        ItemMetrics metrics = metrics();
+        long start = metrics.start();
+        try {
+            return delegate.getMessage(code, args, locale);
+        } finally {
+            metrics.recordMessage(start);
+        }
+    }
+
+    @Override
+    public String getMessage(MessageSourceResolvable resolvable, Locale locale) throws NoSuchMessageException {
+        ItemMetrics metrics = metrics();
+        long start = metrics.start();
+        try {
+            return delegate.getMessage(resolvable, locale);
+        } finally {
+            metrics.recordMessage(start);
+        }
+    }
+
+    private ItemMetrics metrics() {
+        ItemMetrics current = metrics;
+        if (current == null) {
+            current = metricsProvider.getObject();
+            metrics = current;
+        }
+        return current;
+    }
+
+    @Override
+    public void setParentMessageSource(@Nullable MessageSource parent) {
+        if (delegate instanceof HierarchicalMessageSource hierarchical) {
+            hierarchical.setParentMessageSource(parent);
+        }
+    }
+
+    @Override
+    @Nullable
+    public MessageSource getParentMessageSource() {
+        return delegate instanceof HierarchicalMessageSource hierarchical ? hierarchical.getParentMessageSource() : null;
+    }
+}
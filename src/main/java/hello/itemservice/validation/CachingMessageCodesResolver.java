@@ -0,0 +1,93 @@
+package hello.itemservice.validation;
+
+import org.springframework.lang.Nullable;
+import org.springframework.validation.DefaultMessageCodesResolver;
+import org.springframework.validation.MessageCodesResolver;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MessageCodesResolver that remembers the code array of every (errorCode, objectName, field, fieldType)
+ *
+ * DefaultMessageCodesResolver concatenates the codes again on every rejectValue / reject,
+ * ie) required + item + itemName + String -> 4 new strings and an array (see MessageCodeResolverTest).
+ * the set of combinations an application produces is small, so the arrays are built once and handed out again.
+ *
+ * - the returned array is shared between callers, FieldError / ObjectError only read it
+ * - at most maxEntries arrays are kept, beyond that codes are resolved without caching
+ *   (keyed fields like items[12].price could otherwise grow the cache without limit)
+ * - getHitCount / getMissCount / getHitRate tell whether the cache is doing its job
+ */
+public class CachingMessageCodesResolver implements MessageCodesResolver {
+
+    private final MessageCodesResolver delegate;
+    private final int maxEntries;
+    private final ConcurrentMap<CodesKey, String[]> cache = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingMessageCodesResolver(int maxEntries) {
+        this(new DefaultMessageCodesResolver(), maxEntries);
+    }
+
+    public CachingMessageCodesResolver(MessageCodesResolver delegate, int maxEntries) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public String[] resolveMessageCodes(String errorCode, String objectName) {
+        CodesKey key = new CodesKey(errorCode, objectName, null, null);
+        String[] codes = cache.get(key);
+        if (codes != null) {
+            hits.increment();
+            return codes;
+        }
+        misses.increment();
+        return remember(key, delegate.resolveMessageCodes(errorCode, objectName));
+    }
+
+    @Override
+    public String[] resolveMessageCodes(String errorCode, String objectName, String field, @Nullable Class<?> fieldType) {
+        CodesKey key = new CodesKey(errorCode, objectName, field, fieldType);
+        String[] codes = cache.get(key);
+        if (codes != null) {
+            hits.increment();
+            return codes;
+        }
+        misses.increment();
+        return remember(key, delegate.resolveMessageCodes(errorCode, objectName, field, fieldType));
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    private String[] remember(CodesKey key, String[] codes) {
+        if (cache.size() >= maxEntries) {
+            return codes;
+        }
+        String[] existing = cache.putIfAbsent(key, codes);
+        return existing != null ? existing : codes;
+    }
+
+    private record CodesKey(String errorCode, String objectName, @Nullable String field, @Nullable Class<?> fieldType) {
+    }
+}
@@ -0,0 +1,102 @@
+package hello.itemservice.validation;
+
+import org.springframework.util.StringUtils;
+import org.springframework.validation.Errors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * the rules of one target type, declared once with the builder and compiled into a flat array
+ *
+ * - every field rule holds its getter, code and argument array, all built in compile()
+ * - validate walks the array : each field rule reads its property once through the getter
+ *   (no BeanWrapper / errors.getFieldValue), and Errors is only touched when a rule fails
+ * - a passing rule allocates nothing, the getters hand back the already bound values
+ *   and the argument arrays are shared (rejectValue keeps them as is and nobody writes into them)
+ *
+ * cross field rules (CrossFieldRule) are added as they are and run after the field rules, in declaration order.
+ * a compiled instance is immutable and shared by all request threads.
+ */
+public final class CompiledRules<T> {
+
+    private final Rule<T>[] rules;
+
+    private CompiledRules(Rule<T>[] rules) {
+        this.rules = rules;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public void validate(T target, Errors errors) {
+        for (int i = 0; i < rules.length; i++) {
+            rules[i].validate(target, errors);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Rule<T> {
+        void validate(T target, Errors errors);
+    }
+
+    public static final class Builder<T> {
+
+        private final List<Rule<T>> rules = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * "required" when the value is null, empty or whitespace only (like ValidationUtils.rejectIfEmptyOrWhitespace)
+         */
+        public Builder<T> required(String field, Function<? super T, String> getter) {
+            rules.add((target, errors) -> {
+                if (!StringUtils.hasText(getter.apply(target))) {
+                    errors.rejectValue(field, "required");
+                }
+            });
+            return this;
+        }
+
+        /**
+         * "range" {min, max} when the value is null or outside min..max
+         */
+        public Builder<T> range(String field, Function<? super T, Integer> getter, int min, int max) {
+            Object[] arguments = {min, max};
+            rules.add((target, errors) -> {
+                Integer value = getter.apply(target);
+                if (value == null || value < min || value > max) {
+                    errors.rejectValue(field, "range", arguments, null);
+                }
+            });
+            return this;
+        }
+
+        /**
+         * "max" {argument} when the value is null or above max
+         */
+        public Builder<T> max(String field, Function<? super T, Integer> getter, int max, int argument) {
+            Object[] arguments = {argument};
+            rules.add((target, errors) -> {
+                Integer value = getter.apply(target);
+                if (value == null || value > max) {
+                    errors.rejectValue(field, "max", arguments, null);
+                }
+            });
+            return this;
+        }
+
+        public Builder<T> rule(CrossFieldRule<? super T> rule) {
+            rules.add(rule::validate);
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public CompiledRules<T> compile() {
+            return new CompiledRules<>(rules.toArray((Rule<T>[]) new Rule<?>[0]));
+        }
+    }
+}
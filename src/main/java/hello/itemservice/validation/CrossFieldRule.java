@@ -0,0 +1,16 @@
+package hello.itemservice.validation;
+
+import org.springframework.validation.Errors;
+
+/**
+ * a rule over several properties of one object (ie. price * quantity >= 10000)
+ *
+ * it runs after binding and the field constraints, and reports through Errors.reject,
+ * so BindingResult (form controllers) and ItemApiValidator (api bodies) get the same error codes.
+ * implementations are stateless and shared by all request threads.
+ */
+@FunctionalInterface
+public interface CrossFieldRule<T> {
+
+    void validate(T target, Errors errors);
+}
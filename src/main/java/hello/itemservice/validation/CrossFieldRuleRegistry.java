@@ -0,0 +1,55 @@
+package hello.itemservice.validation;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * every cross field rule of the application, per target class
+ *
+ * it is a spring Validator, so controllers add it to their binder (@InitBinder) and the rules run
+ * once per bound object right after @Validated, instead of an inline check in every handler.
+ * ItemApiValidator runs it for api bodies that are validated by hand (batch / import).
+ *
+ * rules are registered while the bean is created (ItemCrossFieldRules) and only read afterwards,
+ * the lookup is an exact class match and the rules are kept as an array (no iterator per call).
+ */
+public class CrossFieldRuleRegistry implements Validator {
+
+    private static final CrossFieldRule<Object>[] NO_RULES = rules(0);
+
+    private final Map<Class<?>, CrossFieldRule<Object>[]> rules = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <T> CrossFieldRuleRegistry register(Class<T> type, CrossFieldRule<? super T> rule) {
+        CrossFieldRule<Object>[] current = rules.getOrDefault(type, NO_RULES);
+        CrossFieldRule<Object>[] next = rules(current.length + 1);
+        System.arraycopy(current, 0, next, 0, current.length);
+        next[current.length] = (CrossFieldRule<Object>) rule;
+        rules.put(type, next);
+        return this;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return rules.containsKey(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        if (target == null) {
+            return;
+        }
+        CrossFieldRule<Object>[] targetRules = rules.getOrDefault(target.getClass(), NO_RULES);
+        for (int i = 0; i < targetRules.length; i++) {
+            targetRules[i].validate(target, errors);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CrossFieldRule<Object>[] rules(int length) {
+        return (CrossFieldRule<Object>[]) new CrossFieldRule<?>[length];
+    }
+}
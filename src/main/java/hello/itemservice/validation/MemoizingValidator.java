@@ -0,0 +1,72 @@
+package hello.itemservice.validation;
+
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.ObjectError;
+import org.springframework.validation.SmartValidator;
+
+import java.util.List;
+
+/**
+ * SmartValidator in front of bean validation (mvcValidator) that replays the errors of an identical earlier form
+ *
+ * clients retry and double submit the same form, and every time the form walks all of its constraints again.
+ * the first validation of a form content stores the errors it added in the ValidationResultCache,
+ * the next one adds those same errors to its BindingResult without calling the delegate.
+ *
+ * only a BindingResult without errors is memoized : after a binding failure (typeMismatch) bean validation
+ * skips that field, so the same field values can give different errors, those go to the delegate every time.
+ * the cached ObjectErrors are shared between requests, like the codes of CachingMessageCodesResolver they are only read.
+ * constraints must only depend on the field values (no clock, no repository lookup) for the cache to be correct.
+ */
+public class MemoizingValidator implements SmartValidator {
+
+    private static final Object[] NO_HINTS = new Object[0];
+
+    private final SmartValidator delegate;
+    private final ValidationResultCache cache;
+
+    public MemoizingValidator(SmartValidator delegate, ValidationResultCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        validate(target, errors, NO_HINTS);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        if (target == null || !(errors instanceof BindingResult bindingResult) || bindingResult.hasErrors()) {
+            delegate.validate(target, errors, validationHints);
+            return;
+        }
+        ValidationResultCache.Key key = cache.key(target, errors.getObjectName(), validationHints,
+                LocaleContextHolder.getLocale());
+        if (key == null) {
+            delegate.validate(target, errors, validationHints);
+            return;
+        }
+
+        List<ObjectError> cached = cache.get(key);
+        if (cached != null) {
+            for (ObjectError error : cached) {
+                bindingResult.addError(error);
+            }
+            return;
+        }
+        delegate.validate(target, errors, validationHints);
+        cache.put(key, bindingResult.getAllErrors());
+    }
+
+    public SmartValidator getDelegate() {
+        return delegate;
+    }
+}
@@ -0,0 +1,75 @@
+package hello.itemservice.validation;
+
+import org.springframework.validation.Errors;
+
+import java.util.function.Function;
+
+/**
+ * left * right >= min, rejected as a global error with arguments {min, product}
+ *
+ * the product is computed in long, two int operands can not overflow it
+ * (the old int math wrapped around, ie. 1000000 * 4295 became 32704).
+ * a null operand does not apply the rule, @NotNull / the field check reports it.
+ * a passing check allocates nothing, the getters hand back the already bound Integers.
+ */
+public final class MinProductRule<T> implements CrossFieldRule<T> {
+
+    private final String code;
+    private final Function<? super T, Integer> left;
+    private final Function<? super T, Integer> right;
+    private final long min;
+    private final Integer minArgument;
+
+    public MinProductRule(String code, Function<? super T, Integer> left, Function<? super T, Integer> right, int min) {
+        this.code = code;
+        this.left = left;
+        this.right = right;
+        this.min = min;
+        this.minArgument = min;
+    }
+
+    @Override
+    public void validate(T target, Errors errors) {
+        Integer leftValue = left.apply(target);
+        Integer rightValue = right.apply(target);
+        if (leftValue == null || rightValue == null) {
+            return;
+        }
+        long product = (long) leftValue * rightValue;
+        if (product < min) {
+            errors.reject(code, new Object[]{minArgument, boxProduct(product)}, null);
+        }
+    }
+
+    /**
+     * for callers that build their own error (ValidationItemControllerV2 addItemV1..V3)
+     */
+    public boolean isViolatedBy(T target) {
+        Integer leftValue = left.apply(target);
+        Integer rightValue = right.apply(target);
+        return leftValue != null && rightValue != null && (long) leftValue * rightValue < min;
+    }
+
+    /**
+     * error arguments {min, product}, only meaningful when isViolatedBy(target)
+     */
+    public Object[] arguments(T target) {
+        return new Object[]{minArgument, boxProduct((long) left.apply(target) * right.apply(target))};
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public int getMin() {
+        return (int) min;
+    }
+
+    /**
+     * a rejected product is below min, so it only leaves the int range downwards (negative quantity);
+     * it stays an Integer otherwise, like the argument the int version used to report
+     */
+    private static Object boxProduct(long product) {
+        return product >= Integer.MIN_VALUE ? Integer.valueOf((int) product) : Long.valueOf(product);
+    }
+}
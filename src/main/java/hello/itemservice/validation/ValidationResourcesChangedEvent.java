@@ -0,0 +1,16 @@
+package hello.itemservice.validation;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * the constraints or the message bundles that validation results are built from have changed
+ *
+ * published by PrecompiledMessageSource.clearCache, and by anything that reloads constraints at runtime.
+ * ValidationResultCache drops its results on it.
+ */
+public class ValidationResourcesChangedEvent extends ApplicationEvent {
+
+    public ValidationResourcesChangedEvent(Object source) {
+        super(source);
+    }
+}
@@ -0,0 +1,118 @@
+package hello.itemservice.validation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.context.ApplicationListener;
+import org.springframework.lang.Nullable;
+import org.springframework.validation.ObjectError;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * errors of earlier validations, per form content, replayed by MemoizingValidator
+ *
+ * a result is keyed by (class, object name, field values, validation hints, locale, generation)
+ * - the field values come from the function registered for the class (ItemValidationResultCache), no reflection
+ * - the hints are the groups of @Validated (SaveCheck / UpdateCheck), the locale is the one default messages
+ *   are interpolated with
+ * - at most maxEntries results, caffeine evicts by W-TinyLFU, so a burst of one-off forms does not push out
+ *   the forms that are really submitted again
+ * - with expireAfterWrite (spring.messages.cache-duration, bundles reloaded) a result is not kept longer than the bundles
+ *
+ * invalidate() (and ValidationResourcesChangedEvent) moves to the next generation before clearing,
+ * so a validation that was running during the invalidation can not put its stale result back.
+ */
+public class ValidationResultCache implements ApplicationListener<ValidationResourcesChangedEvent> {
+
+    private final Map<Class<?>, Function<Object, List<?>>> fieldValues = new HashMap<>();
+    private final Cache<Key, List<ObjectError>> results;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ValidationResultCache(long maxEntries, @Nullable Duration expireAfterWrite) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(maxEntries);
+        if (expireAfterWrite != null) {
+            builder.expireAfterWrite(expireAfterWrite);
+        }
+        this.results = builder.build();
+    }
+
+    /**
+     * @param values every bound field of the type, ie) form -> Arrays.asList(form.getItemName(), form.getPrice())
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ValidationResultCache register(Class<T> type, Function<? super T, List<?>> values) {
+        fieldValues.put(type, (Function<Object, List<?>>) values);
+        return this;
+    }
+
+    public boolean supports(Class<?> clazz) {
+        return fieldValues.containsKey(clazz);
+    }
+
+    /**
+     * @return null when the class of target is not registered
+     */
+    @Nullable
+    public Key key(Object target, String objectName, Object[] validationHints, Locale locale) {
+        Function<Object, List<?>> values = fieldValues.get(target.getClass());
+        if (values == null) {
+            return null;
+        }
+        return new Key(target.getClass(), objectName, values.apply(target), Arrays.asList(validationHints),
+                locale, generation.get());
+    }
+
+    @Nullable
+    public List<ObjectError> get(Key key) {
+        List<ObjectError> errors = results.getIfPresent(key);
+        if (errors != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return errors;
+    }
+
+    public void put(Key key, List<ObjectError> errors) {
+        if (key.generation() == generation.get()) {
+            results.put(key, List.copyOf(errors));
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        results.invalidateAll();
+    }
+
+    @Override
+    public void onApplicationEvent(ValidationResourcesChangedEvent event) {
+        invalidate();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long size() {
+        return results.estimatedSize();
+    }
+
+    public record Key(Class<?> type, String objectName, List<?> values, List<Object> hints, Locale locale,
+                      long generation) {
+    }
+}
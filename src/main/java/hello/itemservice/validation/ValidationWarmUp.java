@@ -0,0 +1,151 @@
+package hello.itemservice.validation;
+
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.ValidationAnnotationUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * builds bean validation metadata before the first request
+ *
+ * hibernate validator creates the BeanMetaData of Item / ItemSaveForm / ItemUpdateForm,
+ * the SaveCheck / UpdateCheck group sequences and the ConstraintValidator instances lazily,
+ * so the first POST of /validation/v3, /validation/v4 paid for all of it.
+ *
+ * after all singletons exist (handler methods are registered by then)
+ * 1. every handler method parameter with @Validated / @Valid is collected with its groups
+ *    (List<ItemSaveForm> -> ItemSaveForm)
+ * 2. getConstraintsForClass builds the metadata
+ * 3. a fresh instance is validated once per group, which initializes the constraint validators
+ *
+ * the validator itself is thread safe and cached by spring, there is nothing to pool.
+ * a type whose warm-up fails is logged and left to be initialized by its first request, startup goes on.
+ * item.validation.warm-up.enabled=false turns it off
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "item.validation.warm-up.enabled", havingValue = "true", matchIfMissing = true)
+public class ValidationWarmUp implements SmartInitializingSingleton {
+
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final Validator validator;
+
+    public ValidationWarmUp(@Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                            Validator validator) {
+        this.handlerMapping = handlerMapping;
+        this.validator = validator;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        Map<Class<?>, Set<Class<?>>> targets = findValidatedTypes();
+        int validations = 0;
+        for (Map.Entry<Class<?>, Set<Class<?>>> target : targets.entrySet()) {
+            try {
+                validations += warmUp(target.getKey(), target.getValue());
+            } catch (RuntimeException e) {
+                log.warn("bean validation warm-up of {} failed, it is initialized on first use", target.getKey().getName(), e);
+            }
+        }
+        log.info("bean validation warm-up: types={}, validations={}, {}ms",
+                targets.keySet().stream().map(Class::getSimpleName).toList(), validations,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * validated parameter type -> groups it is validated with
+     */
+    Map<Class<?>, Set<Class<?>>> findValidatedTypes() {
+        Map<Class<?>, Set<Class<?>>> targets = new LinkedHashMap<>();
+        for (HandlerMethod handlerMethod : handlerMapping.getHandlerMethods().values()) {
+            for (MethodParameter parameter : handlerMethod.getMethodParameters()) {
+                Object[] hints = validationHints(parameter);
+                if (hints == null) {
+                    continue;
+                }
+                Class<?> type = elementType(parameter);
+                Set<Class<?>> groups = targets.computeIfAbsent(type, key -> new LinkedHashSet<>());
+                List<Class<?>> hintGroups = new ArrayList<>();
+                for (Object hint : hints) {
+                    if (hint instanceof Class<?> group) {
+                        hintGroups.add(group);
+                    }
+                }
+                if (hintGroups.isEmpty()) {
+                    groups.add(Default.class);
+                } else {
+                    groups.addAll(hintGroups);
+                }
+            }
+        }
+        return targets;
+    }
+
+    private int warmUp(Class<?> type, Set<Class<?>> groups) {
+        validator.getConstraintsForClass(type);
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return 0;
+        }
+        Object instance;
+        try {
+            instance = BeanUtils.instantiateClass(type);
+        } catch (Exception e) {
+            log.debug("warm-up skips instance validation of {}: {}", type.getName(), e.getMessage());
+            return 0;
+        }
+        int validations = 0;
+        for (Class<?> group : groups) {
+            try {
+                validator.validate(instance, group);
+                validations++;
+            } catch (RuntimeException e) {
+                log.debug("warm-up validation of {} with {} failed", type.getName(), group.getSimpleName(), e);
+            }
+        }
+        return validations;
+    }
+
+    private static Object[] validationHints(MethodParameter parameter) {
+        for (Annotation annotation : parameter.getParameterAnnotations()) {
+            Object[] hints = ValidationAnnotationUtils.determineValidationHints(annotation);
+            if (hints != null) {
+                return hints;
+            }
+        }
+        return null;
+    }
+
+    private static Class<?> elementType(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        if (Collection.class.isAssignableFrom(type)) {
+            Class<?> element = ResolvableType.forMethodParameter(parameter).asCollection().resolveGeneric(0);
+            return element != null ? element : type;
+        }
+        if (type.isArray()) {
+            return type.getComponentType();
+        }
+        return type;
+    }
+}
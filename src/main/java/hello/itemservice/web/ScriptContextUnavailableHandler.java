@@ -0,0 +1,26 @@
+package hello.itemservice.web;
+
+import hello.itemservice.javascript.ScriptContextUnavailableException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.io.IOException;
+
+/**
+ * ScriptEnginePool found no free script context (@CustomScriptAssert under overload) -> 503
+ *
+ * the exception usually arrives as the cause of hibernate validator's ValidationException,
+ * @ExceptionHandler matches it there too. sendError leaves the error page / json body to spring boot,
+ * for the view controllers and the api alike.
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ScriptContextUnavailableHandler {
+
+    @ExceptionHandler
+    public void scriptContextUnavailable(ScriptContextUnavailableException e, HttpServletResponse response) throws IOException {
+        response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+    }
+}
@@ -0,0 +1,69 @@
+package hello.itemservice.web;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * opt-in virtual thread request execution (item.threads.virtual.enabled=true)
+ *
+ * by default tomcat runs every request on its platform thread pool (server.tomcat.threads.max, 200),
+ * a slow client or a log fsync holds one of those threads for the whole request.
+ * here tomcat hands every request to its own virtual thread instead, so blocking costs a parked
+ * virtual thread, not a pool slot, and the limit becomes server.tomcat.max-connections.
+ *
+ * the locks a request can wait on for long use ReentrantLock / Condition : the update stripes and clearLock of
+ * ItemRepository and the append / durability lock of ItemWriteAheadLog, so awaitDurable unmounts the virtual
+ * thread instead of pinning its carrier. synchronized is left only around short in-memory sections that never
+ * block on i/o (OffHeapItemStore segment / name chunk allocation, the MessageFormat of PrecompiledMessageSource,
+ * the one time engine lookup of ScriptEnginePool), those pin a carrier for as long as a few field writes.
+ * the log flusher and snapshot threads stay dedicated platform threads.
+ *
+ * the build targets java 17, so the executor is looked up at startup and needs a java 21+ runtime;
+ * enabling it on an older runtime fails the startup instead of silently keeping the platform pool.
+ * loadtest/run.sh compares both modes over http (wrk against /validation/v4/items/add, requests/sec and p99).
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "item.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService requestExecutor() {
+        return newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(ExecutorService requestExecutor) {
+        log.info("tomcat requests run on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor(), resolved at runtime
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        MethodHandle factory;
+        try {
+            factory = MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("item.threads.virtual.enabled=true needs java 21 or later, running on "
+                    + Runtime.version(), e);
+        }
+        try {
+            return (ExecutorService) factory.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("virtual thread executor could not be created", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package hello.itemservice.web;
+
+import hello.itemservice.validation.CachingMessageCodesResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.MessageCodesResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * global spring mvc settings
+ *
+ * getMessageCodesResolver -> every WebDataBinder (and so every BindingResult of @ModelAttribute / @RequestBody)
+ * generates its error codes through the caching resolver instead of a new DefaultMessageCodesResolver
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CachingMessageCodesResolver messageCodesResolver;
+
+    public WebConfig(@Value("${item.validation.codes-cache.max-entries:10000}") int maxEntries) {
+        this.messageCodesResolver = new CachingMessageCodesResolver(maxEntries);
+    }
+
+    @Bean
+    public CachingMessageCodesResolver cachingMessageCodesResolver() {
+        return messageCodesResolver;
+    }
+
+    @Override
+    public MessageCodesResolver getMessageCodesResolver() {
+        return messageCodesResolver;
+    }
+}
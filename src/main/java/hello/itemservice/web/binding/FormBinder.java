@@ -0,0 +1,178 @@
+package hello.itemservice.web.binding;
+
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.util.NumberUtils;
+import org.springframework.validation.AbstractBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.MessageCodesResolver;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * request parameter binding for one form / domain type without BeanWrapper
+ *
+ * WebDataBinder finds the target properties through BeanWrapper (introspection, PropertyDescriptor,
+ * Method.invoke per property) and converts through the ConversionService lookup on every request.
+ * here the fields are declared once with a constructor and setter references, a bind is
+ * one getParameter + parse + direct setter call per field.
+ *
+ * conversion follows the default binder :
+ * - a missing parameter leaves the field untouched
+ * - numbers : "" -> null, otherwise NumberUtils.parseNumber (trimmed, decode syntax) like StringToNumberConverterFactory
+ * - a number that does not parse is a typeMismatch FieldError with the same codes, arguments, rejected value
+ *   and bindingFailure flag as DefaultBindingErrorProcessor (typeMismatch.item.price, ..., typeMismatch)
+ * multi-valued parameters, field markers (_field / !field), URI variables and allowed / disallowed fields are not
+ * handled here, FormBindingMethodProcessor hands those requests to the WebDataBinder (canBind).
+ */
+public final class FormBinder<T> {
+
+    private final Class<T> type;
+    private final Supplier<T> factory;
+    private Field<T>[] fields = newFields(0);
+
+    private FormBinder(Class<T> type, Supplier<T> factory) {
+        this.type = type;
+        this.factory = factory;
+    }
+
+    public static <T> FormBinder<T> of(Class<T> type, Supplier<T> factory) {
+        return new FormBinder<>(type, factory);
+    }
+
+    public FormBinder<T> text(String name, BiConsumer<T, String> setter) {
+        return add(new Field<>(name, String.class, setter));
+    }
+
+    public FormBinder<T> integer(String name, BiConsumer<T, Integer> setter) {
+        return add(new Field<>(name, Integer.class, setter));
+    }
+
+    public FormBinder<T> longInteger(String name, BiConsumer<T, Long> setter) {
+        return add(new Field<>(name, Long.class, setter));
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public T newInstance() {
+        return factory.get();
+    }
+
+    /**
+     * names of the bound fields, in declaration order (tests check them against the bean properties of the type)
+     */
+    public List<String> getFieldNames() {
+        List<String> names = new ArrayList<>(fields.length);
+        for (Field<T> field : fields) {
+            names.add(field.name);
+        }
+        return names;
+    }
+
+    /**
+     * true when every parameter this binder reads has at most one value, false for a multi-valued one
+     */
+    public boolean hasSingleValues(NativeWebRequest request) {
+        Field<T>[] targetFields = fields;
+        for (int i = 0; i < targetFields.length; i++) {
+            String[] values = request.getParameterValues(targetFields[i].name);
+            if (values != null && values.length > 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean hasField(String name) {
+        for (Field<T> field : fields) {
+            if (field.name.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * binds the request parameters onto target, conversion failures are added to bindingResult
+     */
+    public void bind(T target, NativeWebRequest request, BindingResult bindingResult) {
+        Field<T>[] targetFields = fields;
+        for (int i = 0; i < targetFields.length; i++) {
+            Field<T> field = targetFields[i];
+            String value = request.getParameter(field.name);
+            if (value != null) {
+                field.bind(target, value, bindingResult);
+            }
+        }
+    }
+
+    private FormBinder<T> add(Field<T> field) {
+        Field<T>[] next = Arrays.copyOf(fields, fields.length + 1);
+        next[fields.length] = field;
+        fields = next;
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Field<T>[] newFields(int length) {
+        return (Field<T>[]) new Field<?>[length];
+    }
+
+    private static final class Field<T> {
+
+        private final String name;
+        private final Class<?> fieldType;
+        private final BiConsumer<T, Object> setter;
+
+        @SuppressWarnings("unchecked")
+        private <V> Field(String name, Class<V> fieldType, BiConsumer<T, V> setter) {
+            this.name = name;
+            this.fieldType = fieldType;
+            this.setter = (BiConsumer<T, Object>) setter;
+        }
+
+        private void bind(T target, String value, BindingResult bindingResult) {
+            if (fieldType == String.class) {
+                setter.accept(target, value);
+                return;
+            }
+            Object converted;
+            try {
+                converted = value.isEmpty() ? null : NumberUtils.parseNumber(value, numberType());
+            } catch (IllegalArgumentException e) {
+                rejectTypeMismatch(value, e, bindingResult);
+                return;
+            }
+            setter.accept(target, converted);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Class<? extends Number> numberType() {
+            return (Class<? extends Number>) fieldType;
+        }
+
+        /**
+         * same error as DefaultBindingErrorProcessor.processPropertyAccessException, field type known up front
+         * so the codes do not need BeanWrapper to look it up
+         */
+        private void rejectTypeMismatch(String value, IllegalArgumentException cause, BindingResult bindingResult) {
+            String objectName = bindingResult.getObjectName();
+            MessageCodesResolver codesResolver = bindingResult instanceof AbstractBindingResult abstractBindingResult
+                    ? abstractBindingResult.getMessageCodesResolver() : null;
+            String[] codes = codesResolver != null
+                    ? codesResolver.resolveMessageCodes("typeMismatch", objectName, name, fieldType)
+                    : bindingResult.resolveMessageCodes("typeMismatch", name);
+            Object[] arguments = {new DefaultMessageSourceResolvable(new String[]{objectName + "." + name, name}, name)};
+            String defaultMessage = "Failed to convert property value of type 'java.lang.String' to required type '"
+                    + fieldType.getName() + "' for property '" + name + "'; " + cause.getMessage();
+            bindingResult.addError(new FieldError(objectName, name, value, true, codes, arguments, defaultMessage));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package hello.itemservice.web.binding;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.util.ObjectUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ServletModelAttributeMethodProcessor;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * @ModelAttribute resolver for the types that have a FormBinder, put in front of spring's own
+ *
+ * everything around the binding stays spring's : model attribute lookup, @InitBinder,
+ * the BindingResult, @Validated / binder validators, BindException without a BindingResult parameter.
+ * only creating the attribute (factory instead of BeanUtils.instantiateClass) and binding the
+ * request parameters (FormBinder instead of BeanWrapper) are replaced.
+ *
+ * FormBinder only knows single valued parameters, so a request it can not bind exactly like the WebDataBinder
+ * goes to the WebDataBinder instead (canBind) : a binder with allowed / disallowed / required fields (@InitBinder),
+ * a field marker or default parameter (_field / !field), a multi-valued parameter of a bound field,
+ * or a URI variable named like a bound field (ExtendedServletRequestDataBinder binds those too).
+ */
+public class FormBindingMethodProcessor extends ServletModelAttributeMethodProcessor {
+
+    private final Map<Class<?>, FormBinder<?>> binders = new HashMap<>();
+
+    public FormBindingMethodProcessor(FormBinder<?>... binders) {
+        super(false);
+        for (FormBinder<?> binder : binders) {
+            this.binders.put(binder.getType(), binder);
+        }
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return super.supportsParameter(parameter) && binders.containsKey(parameter.getParameterType());
+    }
+
+    @Override
+    protected Object createAttribute(String attributeName, MethodParameter parameter,
+                                     WebDataBinderFactory binderFactory, NativeWebRequest request) {
+        return binders.get(parameter.getParameterType()).newInstance();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void bindRequestParameters(WebDataBinder binder, NativeWebRequest request) {
+        Object target = binder.getTarget();
+        FormBinder<Object> formBinder = target == null ? null : (FormBinder<Object>) binders.get(target.getClass());
+        if (formBinder == null || !canBind(binder, formBinder, request)) {
+            super.bindRequestParameters(binder, request);
+            return;
+        }
+        formBinder.bind(target, request, binder.getBindingResult());
+    }
+
+    static boolean canBind(WebDataBinder binder, FormBinder<?> formBinder, NativeWebRequest request) {
+        if (!ObjectUtils.isEmpty(binder.getAllowedFields()) || !ObjectUtils.isEmpty(binder.getDisallowedFields())
+                || !ObjectUtils.isEmpty(binder.getRequiredFields())) {
+            return false;
+        }
+        String markerPrefix = binder.getFieldMarkerPrefix();
+        String defaultPrefix = binder.getFieldDefaultPrefix();
+        for (Iterator<String> names = request.getParameterNames(); names.hasNext(); ) {
+            String name = names.next();
+            if ((markerPrefix != null && name.startsWith(markerPrefix))
+                    || (defaultPrefix != null && name.startsWith(defaultPrefix))) {
+                return false;
+            }
+        }
+        if (!formBinder.hasSingleValues(request)) {
+            return false;
+        }
+        Map<?, ?> uriVariables = (Map<?, ?>) request.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (uriVariables != null) {
+            for (Object name : uriVariables.keySet()) {
+                if (formBinder.hasField((String) name)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
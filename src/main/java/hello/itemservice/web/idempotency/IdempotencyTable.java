@@ -0,0 +1,115 @@
+package hello.itemservice.web.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * result of a write per Idempotency-Key header, so a retried request gets the original result instead of a second write
+ *
+ * gateways retry a POST after a timeout without knowing whether the first one was saved,
+ * ItemRepository.save hands out a new id every time, so each retry would be one more item.
+ * with the same Idempotency-Key the write runs once and every retry gets what the first request got (the item id).
+ *
+ * - a key belongs to one endpoint (scope), the same key sent to two endpoints is two keys
+ * - the first request of a key stores the digest of its payload (PayloadDigest, SHA-256) next to its result,
+ *   a request with the same key and another payload is not a retry but a client bug : 422 instead of silently
+ *   answering with the first result. only the digest is kept, 32 bytes per key whatever the payload size
+ * - the first request of a key puts a pending result, a concurrent retry waits for it (at most waitTimeout, then 409)
+ * - a write that throws removes its key again, the next retry writes
+ * - keys are kept for ttl after the write, at most maxEntries of them and at most MAX_KEY_LENGTH chars each,
+ *   so the table has a fixed memory ceiling. an evicted key is written again, like a key that was never sent
+ * - no key, no table : the write just runs
+ */
+public class IdempotencyTable<V> {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final int MAX_KEY_LENGTH = 128;
+
+    private final Cache<Key, Entry<V>> results;
+    private final long waitTimeoutNanos;
+
+    public IdempotencyTable(Duration ttl, long maxEntries, Duration waitTimeout) {
+        this.results = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .build();
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+    }
+
+    /**
+     * @param scope       the endpoint the key is sent to (ie. its path), keys of different scopes never match
+     * @param key         value of the Idempotency-Key header, null to run the write without deduplication
+     * @param payload     digest of the request payload, taken before the write
+     * @param write       the write, returns what a retry should get back (ie. the saved item id)
+     */
+    public V execute(String scope, @Nullable String key, PayloadDigest payload, Supplier<V> write) {
+        if (key == null) {
+            return write.get();
+        }
+        checkKey(key);
+        Key tableKey = new Key(scope, key);
+        while (true) {
+            Entry<V> entry = new Entry<>(payload, new CompletableFuture<>());
+            Entry<V> existing = results.asMap().putIfAbsent(tableKey, entry);
+            if (existing == null) {
+                return run(tableKey, entry, write);
+            }
+            if (!existing.payload().equals(payload)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "the " + HEADER + " was already used with a different request");
+            }
+            try {
+                return existing.result().get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                //the first write failed and removed its key, this request writes instead
+            } catch (TimeoutException e) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "a request with the same " + HEADER + " is still in progress");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "interrupted");
+            }
+        }
+    }
+
+    public long size() {
+        return results.estimatedSize();
+    }
+
+    private V run(Key key, Entry<V> entry, Supplier<V> write) {
+        V value;
+        try {
+            value = write.get();
+        } catch (RuntimeException | Error e) {
+            results.asMap().remove(key, entry);
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+        entry.result().complete(value);
+        return value;
+    }
+
+    private static void checkKey(String key) {
+        if (!StringUtils.hasText(key) || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    HEADER + " must have 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    private record Key(String scope, String key) {
+    }
+
+    private record Entry<V>(PayloadDigest payload, CompletableFuture<V> result) {
+    }
+}
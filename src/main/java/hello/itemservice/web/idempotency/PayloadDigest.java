@@ -0,0 +1,97 @@
+package hello.itemservice.web.idempotency;
+
+import org.springframework.lang.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 of the values of a request payload, what IdempotencyTable compares to tell a retry from another request
+ *
+ * every value is written with a type tag, strings with their length, and null as a tag of its own,
+ * so ("ab", "c") and ("a", "bc"), or 1 and null, never feed the same bytes to the digest.
+ * 32 bytes per key whatever the payload size, and unlike a 32-bit hashCode two payloads
+ * can not be made to match by shifting one field against another.
+ */
+public final class PayloadDigest {
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+
+    private final byte[] digest;
+
+    private PayloadDigest(byte[] digest) {
+        this.digest = digest;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PayloadDigest other && Arrays.equals(digest, other.digest);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(digest);
+    }
+
+    @Override
+    public String toString() {
+        return HexFormat.of().formatHex(digest);
+    }
+
+    public static final class Builder {
+
+        private final MessageDigest digest;
+        private final ByteBuffer value = ByteBuffer.allocate(1 + Long.BYTES);
+
+        private Builder() {
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        public Builder add(@Nullable String s) {
+            if (s == null) {
+                return addNull();
+            }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            update(value.put(STRING).putInt(bytes.length));
+            digest.update(bytes);
+            return this;
+        }
+
+        public Builder add(@Nullable Integer i) {
+            return i == null ? addNull() : update(value.put(INTEGER).putInt(i));
+        }
+
+        public Builder add(@Nullable Long l) {
+            return l == null ? addNull() : update(value.put(LONG).putLong(l));
+        }
+
+        public PayloadDigest build() {
+            return new PayloadDigest(digest.digest());
+        }
+
+        private Builder addNull() {
+            return update(value.put(NULL));
+        }
+
+        private Builder update(ByteBuffer buffer) {
+            digest.update(buffer.array(), 0, buffer.position());
+            buffer.clear();
+            return this;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package hello.itemservice.web.template;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSource;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.util.FileCopyUtils;
+import org.thymeleaf.IEngineConfiguration;
+import org.thymeleaf.engine.AbstractTemplateHandler;
+import org.thymeleaf.model.IAttribute;
+import org.thymeleaf.model.ICDATASection;
+import org.thymeleaf.model.ICloseElementTag;
+import org.thymeleaf.model.IComment;
+import org.thymeleaf.model.IDocType;
+import org.thymeleaf.model.IModelFactory;
+import org.thymeleaf.model.IOpenElementTag;
+import org.thymeleaf.model.IProcessingInstruction;
+import org.thymeleaf.model.IStandaloneElementTag;
+import org.thymeleaf.model.ITemplateEnd;
+import org.thymeleaf.model.ITemplateEvent;
+import org.thymeleaf.model.ITemplateStart;
+import org.thymeleaf.model.IText;
+import org.thymeleaf.model.IXMLDeclaration;
+import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateparser.ITemplateParser;
+import org.thymeleaf.templateparser.markup.HTMLTemplateParser;
+import org.thymeleaf.templateresource.ITemplateResource;
+import org.thymeleaf.templateresource.StringTemplateResource;
+import org.unbescape.html.HtmlEscape;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * resolves "validation/v4/items@ko" : the template validation/v4/items with its static messages already in it
+ *
+ * every element of the form <h2 th:text="#{page.items}">상품 목록</h2> (message without arguments, plain text body)
+ * becomes <h2>상품 목록</h2> with the text of the locale, escaped like th:text does. thymeleaf parses and caches
+ * the result per template name, so per locale : the labels, titles and buttons of the page chrome are
+ * plain text events in the cached template and a render no longer resolves #{label.item.*} / #{page.*} at all.
+ * everything else (expressions, messages with arguments, bodies with markup) is left to thymeleaf as is.
+ *
+ * the template is read with thymeleaf's own html parser (InliningHandler), not matched as text,
+ * so attribute values with '>' or quotes and multi line tags are seen the way thymeleaf sees them.
+ * other template modes than HTML are served unchanged.
+ *
+ * the bundles are read once per locale and template, so this only fits message sources that do not reload
+ * (no spring.messages.cache-duration).
+ */
+@Slf4j
+public class LocalizedTemplateResolver extends SpringResourceTemplateResolver {
+
+    static final char LOCALE_SEPARATOR = '@';
+
+    private static final String TEXT_ATTRIBUTE = "th:text";
+    private static final Pattern STATIC_MESSAGE = Pattern.compile("#\\{([\\w.-]+)}");
+
+    //only used while a template is resolved, a small buffer pool is enough
+    private final ITemplateParser parser = new HTMLTemplateParser(2, 4096);
+    private final MessageSource messageSource;
+
+    public LocalizedTemplateResolver(MessageSource messageSource) {
+        this.messageSource = messageSource;
+        setResolvablePatterns(Set.of("*" + LOCALE_SEPARATOR + "*"));
+    }
+
+    static String templateName(String viewTemplateName, Locale locale) {
+        return viewTemplateName + LOCALE_SEPARATOR + locale.toLanguageTag();
+    }
+
+    @Override
+    protected ITemplateResource computeTemplateResource(IEngineConfiguration configuration, String ownerTemplate,
+                                                        String template, String resourceName, String characterEncoding,
+                                                        Map<String, Object> templateResolutionAttributes) {
+        int separator = template.lastIndexOf(LOCALE_SEPARATOR);
+        String baseTemplate = template.substring(0, separator);
+        Locale locale = Locale.forLanguageTag(template.substring(separator + 1));
+
+        ITemplateResource resource = super.computeTemplateResource(configuration, ownerTemplate, baseTemplate,
+                getPrefix() + baseTemplate + getSuffix(), characterEncoding, templateResolutionAttributes);
+        if (!resource.exists() || getTemplateMode() != TemplateMode.HTML) {
+            return resource;
+        }
+        try (Reader reader = resource.reader()) {
+            return new StringTemplateResource(
+                    inlineMessages(configuration, baseTemplate, FileCopyUtils.copyToString(reader), locale));
+        } catch (IOException e) {
+            throw new UncheckedIOException("template " + baseTemplate + " could not be read", e);
+        }
+    }
+
+    String inlineMessages(IEngineConfiguration configuration, String template, String source, Locale locale) {
+        StringWriter inlined = new StringWriter(source.length());
+        InliningHandler handler = new InliningHandler(configuration.getModelFactory(TemplateMode.HTML), inlined, locale);
+        parser.parseString(configuration, template, source, 0, 0, TemplateMode.HTML, handler);
+        log.debug("{} static messages inlined in {} for {}", handler.count, template, locale);
+        return inlined.toString();
+    }
+
+    /**
+     * writes every parsed event back as it was, except an open tag with th:text="#{code}" followed by
+     * nothing but text and its own close tag : that one is held back and written as tag without th:text,
+     * escaped message, close tag. anything else before the close tag writes the held back events unchanged.
+     */
+    private class InliningHandler extends AbstractTemplateHandler {
+
+        private final IModelFactory modelFactory;
+        private final Writer writer;
+        private final Locale locale;
+        private final List<ITemplateEvent> pending = new ArrayList<>();
+        private IOpenElementTag pendingTag;
+        private String pendingMessage;
+        private int count;
+
+        InliningHandler(IModelFactory modelFactory, Writer writer, Locale locale) {
+            this.modelFactory = modelFactory;
+            this.writer = writer;
+            this.locale = locale;
+        }
+
+        @Override
+        public void handleTemplateStart(ITemplateStart templateStart) {
+        }
+
+        @Override
+        public void handleTemplateEnd(ITemplateEnd templateEnd) {
+            flush();
+        }
+
+        @Override
+        public void handleXMLDeclaration(IXMLDeclaration xmlDeclaration) {
+            write(xmlDeclaration);
+        }
+
+        @Override
+        public void handleDocType(IDocType docType) {
+            write(docType);
+        }
+
+        @Override
+        public void handleCDATASection(ICDATASection cdataSection) {
+            write(cdataSection);
+        }
+
+        @Override
+        public void handleComment(IComment comment) {
+            write(comment);
+        }
+
+        @Override
+        public void handleText(IText text) {
+            if (pendingTag != null) {
+                pending.add(text);
+                return;
+            }
+            write(text);
+        }
+
+        @Override
+        public void handleStandaloneElement(IStandaloneElementTag standaloneElementTag) {
+            write(standaloneElementTag);
+        }
+
+        @Override
+        public void handleOpenElement(IOpenElementTag openElementTag) {
+            flush();
+            String message = staticMessage(openElementTag);
+            if (message == null) {
+                write(openElementTag);
+                return;
+            }
+            pendingTag = openElementTag;
+            pendingMessage = message;
+        }
+
+        @Override
+        public void handleCloseElement(ICloseElementTag closeElementTag) {
+            if (pendingTag != null && pendingTag.getElementCompleteName().equals(closeElementTag.getElementCompleteName())) {
+                writeEvent(modelFactory.removeAttribute(pendingTag, TEXT_ATTRIBUTE));
+                writeText(HtmlEscape.escapeHtml4Xml(pendingMessage));
+                pendingTag = null;
+                pending.clear();
+                count++;
+            } else {
+                flush();
+            }
+            writeEvent(closeElementTag);
+        }
+
+        @Override
+        public void handleProcessingInstruction(IProcessingInstruction processingInstruction) {
+            write(processingInstruction);
+        }
+
+        /**
+         * @return the message of a th:text="#{code}" attribute, null for any other tag or a missing message
+         */
+        private String staticMessage(IOpenElementTag tag) {
+            IAttribute attribute = tag.getAttribute(TEXT_ATTRIBUTE);
+            if (attribute == null || attribute.getValue() == null) {
+                return null;
+            }
+            Matcher matcher = STATIC_MESSAGE.matcher(attribute.getValue().trim());
+            if (!matcher.matches()) {
+                return null;
+            }
+            try {
+                return messageSource.getMessage(matcher.group(1), null, locale);
+            } catch (NoSuchMessageException e) {
+                //thymeleaf renders ??code_locale?? for it, keep that behaviour
+                return null;
+            }
+        }
+
+        private void write(ITemplateEvent event) {
+            flush();
+            writeEvent(event);
+        }
+
+        /**
+         * writes the held back tag and body unchanged
+         */
+        private void flush() {
+            if (pendingTag == null) {
+                return;
+            }
+            IOpenElementTag tag = pendingTag;
+            pendingTag = null;
+            writeEvent(tag);
+            pending.forEach(this::writeEvent);
+            pending.clear();
+        }
+
+        private void writeEvent(ITemplateEvent event) {
+            try {
+                event.write(writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeText(String text) {
+            try {
+                writer.write(text);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package hello.itemservice.web.template;
+
+import org.thymeleaf.spring6.view.ThymeleafView;
+
+import java.util.Locale;
+
+/**
+ * renders the per locale variant of its template (LocalizedTemplateResolver)
+ * the view resolver already caches one view per view name and locale, the locale of the view is the request locale
+ */
+public class LocalizedThymeleafView extends ThymeleafView {
+
+    @Override
+    public String getTemplateName() {
+        String templateName = super.getTemplateName();
+        Locale locale = getLocale();
+        //fragment selections (template :: fragment) go to the plain template
+        if (templateName == null || locale == null || templateName.contains("::")) {
+            return templateName;
+        }
+        return LocalizedTemplateResolver.templateName(templateName, locale);
+    }
+}
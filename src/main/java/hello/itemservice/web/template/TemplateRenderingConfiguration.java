@@ -0,0 +1,71 @@
+package hello.itemservice.web.template;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+/**
+ * item.templates.precompiled=true : the precompiled rendering mode of the item pages
+ *
+ * LocalizedThymeleafView / LocalizedTemplateResolver : one cached parsed template per template and locale,
+ * with the static #{...} messages already resolved into it.
+ * (streaming the list rows is separate, item.templates.stream-rows, see ItemListing)
+ *
+ * - localizedViewResolver only takes the view names of item.templates.view-names (the item pages),
+ *   it is copied from boot's thymeleafViewResolver and asked before it, every other view is rendered as before
+ * - the template resolver is set up like boot's defaultTemplateResolver (spring.thymeleaf.*) and is asked first,
+ *   it only accepts the name@locale names, everything else still goes to the default one.
+ * spring.thymeleaf.cache=false (development) disables the template cache and with it the point of this mode.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "item.templates.precompiled", havingValue = "true")
+public class TemplateRenderingConfiguration {
+
+    @Bean
+    public ThymeleafViewResolver localizedViewResolver(@Qualifier("thymeleafViewResolver") ThymeleafViewResolver thymeleafViewResolver,
+                                                       @Value("${item.templates.view-names:validation/*}") String[] viewNames) {
+        ThymeleafViewResolver resolver = new ThymeleafViewResolver();
+        resolver.setViewClass(LocalizedThymeleafView.class);
+        resolver.setViewNames(viewNames);
+        //redirect: / forward: names stay with boot's resolver
+        resolver.setAlwaysProcessRedirectAndForward(false);
+        resolver.setTemplateEngine(thymeleafViewResolver.getTemplateEngine());
+        resolver.setCharacterEncoding(thymeleafViewResolver.getCharacterEncoding());
+        resolver.setContentType(thymeleafViewResolver.getContentType());
+        resolver.setProducePartialOutputWhileProcessing(thymeleafViewResolver.getProducePartialOutputWhileProcessing());
+        resolver.setRedirectContextRelative(thymeleafViewResolver.isRedirectContextRelative());
+        resolver.setRedirectHttp10Compatible(thymeleafViewResolver.isRedirectHttp10Compatible());
+        resolver.setCache(thymeleafViewResolver.isCache());
+        resolver.setCacheLimit(thymeleafViewResolver.getCacheLimit());
+        resolver.setOrder(thymeleafViewResolver.getOrder() - 1);
+        return resolver;
+    }
+
+    @Bean
+    public LocalizedTemplateResolver localizedTemplateResolver(ThymeleafProperties properties, MessageSource messageSource,
+                                                               SpringResourceTemplateResolver defaultTemplateResolver) {
+        LocalizedTemplateResolver resolver = new LocalizedTemplateResolver(messageSource);
+        resolver.setPrefix(properties.getPrefix());
+        resolver.setSuffix(properties.getSuffix());
+        resolver.setTemplateMode(properties.getMode());
+        if (properties.getEncoding() != null) {
+            resolver.setCharacterEncoding(properties.getEncoding().name());
+        }
+        resolver.setCacheable(properties.isCache());
+        resolver.setCheckExistence(true);
+        //with more than one resolver every resolver needs an order
+        if (defaultTemplateResolver.getOrder() == null) {
+            defaultTemplateResolver.setOrder(1);
+        }
+        resolver.setOrder(defaultTemplateResolver.getOrder() - 1);
+        return resolver;
+    }
+}
@@ -0,0 +1,91 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.domain.item.ItemVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.util.Objects;
+
+/**
+ * ETag / Last-Modified of the item pages (V1 - V4 item / items) and of the json GETs of the api
+ *
+ * the tags are built from ItemRepository versions, nothing is rendered or serialized to compute them :
+ * - item  : ItemRepository.getItemVersion(id), changes with every write of that item
+ * - items : ItemRepository.getVersion(), changes with every write (cursor / size are part of the tag)
+ * every tag also carries the start time of the application, versions start again from 0 after a restart.
+ *
+ * the page checks (isItemNotModified / isItemsNotModified) run before the model is filled,
+ * on a matching If-None-Match (or If-Modified-Since) the handler returns null and spring answers 304 without rendering.
+ * page tags are weak and include the locale and the query string (ie. ?status=true), the pages vary with both.
+ */
+@Component
+public class ItemConditionalGet {
+
+    private final ItemRepository itemRepository;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public ItemConditionalGet(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    /**
+     * @return true when the client already has this item page, the handler should return null
+     */
+    public boolean isItemNotModified(NativeWebRequest request, long itemId) {
+        ItemVersion version = itemRepository.getItemVersion(itemId);
+        if (version == null) {
+            return false;
+        }
+        return isPageNotModified(request, itemTag(itemId, version), version.lastModified());
+    }
+
+    /**
+     * @return true when the client already has this list page, the handler should return null
+     */
+    public boolean isItemsNotModified(NativeWebRequest request) {
+        long lastModified = itemRepository.getLastModified();
+        return isPageNotModified(request, itemsTag(itemRepository.getVersion()), lastModified);
+    }
+
+    /**
+     * strong ETag of the json of an item
+     */
+    public String itemETag(long itemId, ItemVersion version) {
+        return '"' + itemTag(itemId, version) + '"';
+    }
+
+    /**
+     * strong ETag of the json of one list page, read getVersion before the page so the tag is never newer than the page
+     */
+    public String itemsETag(long version, @Nullable Long cursor, @Nullable Integer size) {
+        return '"' + itemsTag(version) + "-" + cursor + "-" + size + '"';
+    }
+
+    private boolean isPageNotModified(NativeWebRequest request, String tag, long lastModified) {
+        String variant = Integer.toHexString(Objects.hash(request.getLocale(), queryString(request)));
+        HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE);
+        }
+        return request.checkNotModified("W/\"" + tag + "-" + variant + '"', lastModified);
+    }
+
+    private String itemTag(long itemId, ItemVersion version) {
+        return "item-" + epoch + "-" + itemId + "-" + version.version();
+    }
+
+    private String itemsTag(long version) {
+        return "items-" + epoch + "-" + version;
+    }
+
+    @Nullable
+    private static String queryString(NativeWebRequest request) {
+        HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+        return servletRequest == null ? null : servletRequest.getQueryString();
+    }
+}
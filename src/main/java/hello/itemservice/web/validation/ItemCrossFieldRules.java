@@ -0,0 +1,36 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.validation.CrossFieldRuleRegistry;
+import hello.itemservice.validation.MinProductRule;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * the one place the item cross field rules are declared
+ *
+ * totalPriceMin : price * quantity >= 10000, for Item (V2, V3), ItemSaveForm (V4 add, api) and ItemUpdateForm (V4 edit)
+ * ItemValidator uses ITEM_TOTAL_PRICE_MIN directly, the controllers get the registry bean.
+ */
+@Configuration
+public class ItemCrossFieldRules {
+
+    public static final int MIN_TOTAL_PRICE = 10000;
+
+    public static final MinProductRule<Item> ITEM_TOTAL_PRICE_MIN =
+            new MinProductRule<>("totalPriceMin", Item::getPrice, Item::getQuantity, MIN_TOTAL_PRICE);
+    public static final MinProductRule<ItemSaveForm> SAVE_FORM_TOTAL_PRICE_MIN =
+            new MinProductRule<>("totalPriceMin", ItemSaveForm::getPrice, ItemSaveForm::getQuantity, MIN_TOTAL_PRICE);
+    public static final MinProductRule<ItemUpdateForm> UPDATE_FORM_TOTAL_PRICE_MIN =
+            new MinProductRule<>("totalPriceMin", ItemUpdateForm::getPrice, ItemUpdateForm::getQuantity, MIN_TOTAL_PRICE);
+
+    @Bean
+    public CrossFieldRuleRegistry crossFieldRuleRegistry() {
+        return new CrossFieldRuleRegistry()
+                .register(Item.class, ITEM_TOTAL_PRICE_MIN)
+                .register(ItemSaveForm.class, SAVE_FORM_TOTAL_PRICE_MIN)
+                .register(ItemUpdateForm.class, UPDATE_FORM_TOTAL_PRICE_MIN);
+    }
+}
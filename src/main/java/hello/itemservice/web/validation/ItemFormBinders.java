@@ -0,0 +1,76 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.web.binding.FormBinder;
+import hello.itemservice.web.binding.FormBindingMethodProcessor;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * opt-in binding of the V1 - V4 form posts (item.binding.form-binders.enabled=true) :
+ * FormBinders of Item, ItemSaveForm and ItemUpdateForm
+ *
+ * FormBindingMethodProcessor is put in front of the @ModelAttribute resolvers of RequestMappingHandlerAdapter,
+ * so @ModelAttribute Item / ItemSaveForm / ItemUpdateForm bind without BeanWrapper, other types are untouched.
+ * the fields are listed here a second time next to the form classes, ItemFormBindersTest fails when the two drift apart
+ * (a new form property would otherwise never bind). requests the FormBinder can not bind exactly like the
+ * WebDataBinder still go to the WebDataBinder (FormBindingMethodProcessor.canBind).
+ * the post processor is ordered, so it runs before the metrics one wraps the resolvers.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "item.binding.form-binders.enabled", havingValue = "true")
+public class ItemFormBinders {
+
+    public static final FormBinder<Item> ITEM = FormBinder.of(Item.class, Item::new)
+            .longInteger("id", Item::setId)
+            .text("itemName", Item::setItemName)
+            .integer("price", Item::setPrice)
+            .integer("quantity", Item::setQuantity);
+
+    public static final FormBinder<ItemSaveForm> SAVE_FORM = FormBinder.of(ItemSaveForm.class, ItemSaveForm::new)
+            .text("itemName", ItemSaveForm::setItemName)
+            .integer("price", ItemSaveForm::setPrice)
+            .integer("quantity", ItemSaveForm::setQuantity);
+
+    public static final FormBinder<ItemUpdateForm> UPDATE_FORM = FormBinder.of(ItemUpdateForm.class, ItemUpdateForm::new)
+            .longInteger("id", ItemUpdateForm::setId)
+            .text("itemName", ItemUpdateForm::setItemName)
+            .integer("price", ItemUpdateForm::setPrice)
+            .integer("quantity", ItemUpdateForm::setQuantity);
+
+    @Bean
+    public static BeanPostProcessor formBindingPostProcessor() {
+        return new OrderedPostProcessor();
+    }
+
+    private static final class OrderedPostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof RequestMappingHandlerAdapter adapter && adapter.getArgumentResolvers() != null) {
+                List<HandlerMethodArgumentResolver> resolvers = new ArrayList<>(adapter.getArgumentResolvers().size() + 1);
+                resolvers.add(new FormBindingMethodProcessor(ITEM, SAVE_FORM, UPDATE_FORM));
+                resolvers.addAll(adapter.getArgumentResolvers());
+                adapter.setArgumentResolvers(resolvers);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
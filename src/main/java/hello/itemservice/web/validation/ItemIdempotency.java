@@ -0,0 +1,78 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.web.idempotency.IdempotencyTable;
+import hello.itemservice.web.idempotency.PayloadDigest;
+import hello.itemservice.web.validation.api.ItemBatchResult;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Idempotency-Key tables of the item writes
+ *
+ * - itemSaveKeys  : POST /validation/v1 - v4/items/add, key -> id of the saved item (the redirect goes to the original item),
+ *   one table for the four endpoints, every endpoint passes its own path as the scope of its keys
+ * - itemBatchKeys : POST /validation/api/items/batch, key -> ItemBatchResult of the first request
+ * the payload is the SHA-256 PayloadDigest of every bound field, of the item / form or of each form of the batch
+ *
+ * item.idempotency.ttl / max-entries / wait-timeout, see application.properties
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ItemIdempotency {
+
+    private final Duration ttl;
+    private final long maxEntries;
+    private final Duration waitTimeout;
+
+    public ItemIdempotency(@Value("${item.idempotency.ttl:10m}") Duration ttl,
+                           @Value("${item.idempotency.max-entries:100000}") long maxEntries,
+                           @Value("${item.idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.waitTimeout = waitTimeout;
+    }
+
+    @Bean
+    public IdempotencyTable<Long> itemSaveKeys() {
+        return new IdempotencyTable<>(ttl, maxEntries, waitTimeout);
+    }
+
+    @Bean
+    public IdempotencyTable<ItemBatchResult> itemBatchKeys() {
+        return new IdempotencyTable<>(ttl, maxEntries, waitTimeout);
+    }
+
+    static PayloadDigest payload(Item item) {
+        return PayloadDigest.builder()
+                .add(item.getId())
+                .add(item.getItemName())
+                .add(item.getPrice())
+                .add(item.getQuantity())
+                .build();
+    }
+
+    static PayloadDigest payload(ItemSaveForm form) {
+        return add(PayloadDigest.builder(), form).build();
+    }
+
+    static PayloadDigest payload(List<ItemSaveForm> forms) {
+        PayloadDigest.Builder builder = PayloadDigest.builder().add(forms.size());
+        for (ItemSaveForm form : forms) {
+            add(builder, form);
+        }
+        return builder.build();
+    }
+
+    private static PayloadDigest.Builder add(PayloadDigest.Builder builder, ItemSaveForm form) {
+        return builder.add(form.getItemName())
+                .add(form.getPrice())
+                .add(form.getQuantity());
+    }
+}
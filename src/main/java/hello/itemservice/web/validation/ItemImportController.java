@@ -0,0 +1,263 @@
+package hello.itemservice.web.validation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.web.validation.api.ErrorResult;
+import hello.itemservice.web.validation.api.ItemApiValidator;
+import hello.itemservice.web.validation.api.ItemImportResult;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * streaming counterpart of ValidationItemApiController.addItems
+ *
+ * even /batch has to buffer the whole json array before @RequestBody binding runs.
+ * here the body is newline delimited json (one ItemSaveForm per line) and is consumed line by line :
+ * - every line is parsed by its own Jackson parse, so one malformed line is reported and the next line is read normally,
+ *   anything after the json object of a line (FAIL_ON_TRAILING_TOKENS) makes the line malformed
+ * - a line is read up to MAX_LINE_CHARS, the rest of a longer line is skipped and the line is rejected (lineTooLong)
+ * - the form is checked with the same ItemSaveForm constraints as /add and /batch (ItemApiValidator)
+ * - valid forms are saved SAVE_BATCH at a time, then the results of those lines are written and flushed
+ *
+ * memory stays at one batch of lines of at most MAX_LINE_CHARS each, no matter how large the upload is.
+ * the response is also ndjson, one ItemImportResult per non blank input line, in input order.
+ *
+ * ie) curl -N -H 'Content-Type: application/x-ndjson' --data-binary @items.ndjson localhost:8080/validation/api/items/import
+ */
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/validation/api/items")
+@RequiredArgsConstructor
+public class ItemImportController {
+
+    private static final int SAVE_BATCH = 256;
+    static final int MAX_LINE_CHARS = 8192;
+
+    private final ObjectMapper objectMapper;
+    private final ItemRepository itemRepository;
+    private final ItemApiValidator itemApiValidator;
+    private final MessageSource messageSource;
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importItems(HttpServletRequest request, HttpServletResponse response, Locale locale) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(UTF_8.name());
+
+        ObjectReader formReader = objectMapper.readerFor(ItemSaveForm.class)
+                .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        Batch batch = new Batch();
+        long lineNumber = 0;
+        long saved = 0;
+        long rejected = 0;
+
+        try (BoundedLineReader reader = new BoundedLineReader(
+                new InputStreamReader(request.getInputStream(), UTF_8), MAX_LINE_CHARS);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!reader.isTruncated() && line.isBlank()) {
+                    continue;
+                }
+
+                List<ErrorResult> errors;
+                ItemSaveForm form = null;
+                if (reader.isTruncated()) {
+                    errors = List.of(itemApiValidator.error(null, "lineTooLong", locale));
+                } else {
+                    try {
+                        form = formReader.readValue(line);
+                        errors = itemApiValidator.validate(form, "itemSaveForm", locale);
+                    } catch (JsonProcessingException e) {
+                        errors = List.of(parseError(e, locale));
+                    }
+                }
+
+                if (errors.isEmpty()) {
+                    batch.add(lineNumber, form.toItem());
+                    saved++;
+                } else {
+                    batch.reject(lineNumber, errors);
+                    rejected++;
+                }
+                if (batch.size() >= SAVE_BATCH) {
+                    batch.flush(generator);
+                }
+            }
+            batch.flush(generator);
+        }
+        log.info("import 완료 lines={}, 저장={}, 오류={}", lineNumber, saved, rejected);
+    }
+
+    private ErrorResult parseError(JsonProcessingException e, Locale locale) {
+        if (e instanceof InvalidFormatException invalidFormat && !invalidFormat.getPath().isEmpty()) {
+            String field = invalidFormat.getPath().get(invalidFormat.getPath().size() - 1).getFieldName();
+            String[] codes = {"typeMismatch.itemSaveForm." + field, "typeMismatch." + field,
+                    "typeMismatch." + invalidFormat.getTargetType().getName(), "typeMismatch"};
+            String message = messageSource.getMessage(new DefaultMessageSourceResolvable(codes, e.getOriginalMessage()), locale);
+            return new ErrorResult(field, "typeMismatch", message);
+        }
+        String field = null;
+        if (e instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            field = mapping.getPath().get(mapping.getPath().size() - 1).getFieldName();
+        }
+        return new ErrorResult(field, "malformed", e.getOriginalMessage());
+    }
+
+    /**
+     * readLine of BufferedReader without the unbounded line : at most maxChars of a line are kept,
+     * the rest of a longer line is read and dropped, isTruncated tells the caller.
+     * \n and \r\n both end a line.
+     * the input is read a buffer at a time, each buffer is scanned for \n and the line copied in one append.
+     */
+    static final class BoundedLineReader implements AutoCloseable {
+
+        private static final int BUFFER_CHARS = 8192;
+
+        private final Reader reader;
+        private final int maxChars;
+        private final StringBuilder line;
+        private final char[] buffer = new char[BUFFER_CHARS];
+        private int position;
+        private int limit;
+        private boolean truncated;
+
+        BoundedLineReader(Reader reader, int maxChars) {
+            this.reader = reader;
+            this.maxChars = maxChars;
+            this.line = new StringBuilder(Math.min(maxChars, 256));
+        }
+
+        /**
+         * @return the line (the first maxChars of it when truncated), null at the end of the input
+         */
+        String readLine() throws IOException {
+            line.setLength(0);
+            truncated = false;
+            if (position == limit && !fill()) {
+                return null;
+            }
+            while (true) {
+                int start = position;
+                int end = start;
+                while (end < limit && buffer[end] != '\n') {
+                    end++;
+                }
+                int kept = Math.min(end - start, maxChars - line.length());
+                line.append(buffer, start, kept);
+                for (int i = start + kept; i < end && !truncated; i++) {
+                    truncated = buffer[i] != '\r';
+                }
+                if (end < limit) {
+                    position = end + 1;
+                    break;
+                }
+                position = limit;
+                if (!fill()) {
+                    break;
+                }
+            }
+            int last = line.length() - 1;
+            if (last >= 0 && line.charAt(last) == '\r') {
+                line.setLength(last);
+            }
+            return line.toString();
+        }
+
+        private boolean fill() throws IOException {
+            int read;
+            do {
+                read = reader.read(buffer, 0, buffer.length);
+            } while (read == 0);
+            if (read == -1) {
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * results of the lines read since the last flush, in input order
+     */
+    private class Batch {
+
+        private final List<Item> items = new ArrayList<>(SAVE_BATCH);
+        private final List<Long> lines = new ArrayList<>(SAVE_BATCH);
+        private final List<List<ErrorResult>> errors = new ArrayList<>(SAVE_BATCH);
+
+        private void add(long line, Item item) {
+            lines.add(line);
+            items.add(item);
+            errors.add(null);
+        }
+
+        private void reject(long line, List<ErrorResult> lineErrors) {
+            lines.add(line);
+            items.add(null);
+            errors.add(lineErrors);
+        }
+
+        private int size() {
+            return lines.size();
+        }
+
+        private void flush(JsonGenerator generator) throws IOException {
+            List<Item> validItems = new ArrayList<>(items.size());
+            for (Item item : items) {
+                if (item != null) {
+                    validItems.add(item);
+                }
+            }
+            itemRepository.saveAll(validItems);
+
+            for (int i = 0; i < lines.size(); i++) {
+                Item item = items.get(i);
+                generator.writeObject(new ItemImportResult(lines.get(i), item == null ? null : item.getId(), errors.get(i)));
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+
+            items.clear();
+            lines.clear();
+            errors.clear();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.ItemPage;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.domain.item.StreamingItemPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.ui.Model;
+
+/**
+ * model of the items.html list pages (V1 - V4), "items" and "page"
+ *
+ * default : one ItemPage, at most ItemPage.MAX_SIZE items loaded before rendering.
+ * item.templates.stream-rows=true : a StreamingItemPage, the rows are read from the repository while
+ * thymeleaf writes them, so a page of up to item.templates.stream-max-size items renders in bounded memory.
+ */
+@Component
+public class ItemListing {
+
+    private final ItemRepository itemRepository;
+    private final boolean streamRows;
+    private final int streamMaxSize;
+
+    public ItemListing(ItemRepository itemRepository,
+                       @Value("${item.templates.stream-rows:false}") boolean streamRows,
+                       @Value("${item.templates.stream-max-size:10000}") int streamMaxSize) {
+        this.itemRepository = itemRepository;
+        this.streamRows = streamRows;
+        this.streamMaxSize = streamMaxSize;
+    }
+
+    public void addItems(Model model, Long cursor, Integer size) {
+        if (streamRows) {
+            StreamingItemPage page = itemRepository.streamPage(cursor, size, streamMaxSize);
+            model.addAttribute("items", page.getItems());
+            model.addAttribute("page", page);
+            return;
+        }
+        ItemPage page = itemRepository.findPage(cursor, size);
+        model.addAttribute("items", page.getItems());
+        model.addAttribute("page", page);
+    }
+}
@@ -0,0 +1,75 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.validation.MemoizingValidator;
+import hello.itemservice.validation.ValidationResultCache;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.context.MessageSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.validation.SmartValidator;
+
+import java.util.Arrays;
+
+/**
+ * item.validation.result-cache.enabled=true : @Validated Item / ItemSaveForm / ItemUpdateForm go through MemoizingValidator
+ *
+ * mvcValidator (bean validation of the V1 - V4 forms and the api @RequestBody) is wrapped,
+ * so a retried or double submitted /validation/v4/items/add, /validation/api/items/add gets the errors
+ * of the first submission replayed instead of a new bean validation.
+ * the post processor is ordered, so the metrics one times the cached validator (hits included).
+ *
+ * results are dropped when the message bundles are cleared (ValidationResourcesChangedEvent),
+ * and kept at most spring.messages.cache-duration when the bundles are reloaded.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "item.validation.result-cache.enabled", havingValue = "true")
+public class ItemValidationResultCache {
+
+    @Bean
+    public ValidationResultCache validationResultCache(@Value("${item.validation.result-cache.max-entries:10000}") long maxEntries,
+                                                       MessageSourceProperties messageSourceProperties) {
+        return new ValidationResultCache(maxEntries, messageSourceProperties.getCacheDuration())
+                .register(ItemSaveForm.class, form ->
+                        Arrays.asList(form.getItemName(), form.getPrice(), form.getQuantity()))
+                .register(ItemUpdateForm.class, form ->
+                        Arrays.asList(form.getId(), form.getItemName(), form.getPrice(), form.getQuantity()))
+                .register(Item.class, item ->
+                        Arrays.asList(item.getId(), item.getItemName(), item.getPrice(), item.getQuantity()));
+    }
+
+    @Bean
+    public static BeanPostProcessor validationResultCachePostProcessor(ObjectProvider<ValidationResultCache> cache) {
+        return new OrderedPostProcessor(cache);
+    }
+
+    private static final class OrderedPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ValidationResultCache> cache;
+
+        OrderedPostProcessor(ObjectProvider<ValidationResultCache> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if ("mvcValidator".equals(beanName) && bean instanceof SmartValidator validator) {
+                return new MemoizingValidator(validator, cache.getObject());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
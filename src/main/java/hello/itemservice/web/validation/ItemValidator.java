@@ -1,9 +1,9 @@
 package hello.itemservice.web.validation;
 
 import hello.itemservice.domain.item.Item;
+import hello.itemservice.validation.CompiledRules;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
-import org.springframework.validation.ValidationUtils;
 import org.springframework.validation.Validator;
 
 
@@ -22,6 +22,27 @@ import org.springframework.validation.Validator;
  */
 @Component
 public class ItemValidator implements Validator {
+
+    static final int MIN_PRICE = 1000;
+    static final int MAX_PRICE = 1000000;
+    /**
+     * quantities up to 10000 pass, the message argument stays 9999 : both as the validator always had them
+     */
+    static final int MAX_QUANTITY = 10000;
+    static final int MAX_QUANTITY_ARGUMENT = 9999;
+
+    /**
+     * the rules of validate, compiled once (CompiledRules) : each field read once,
+     * shared argument arrays, and a valid item goes through without touching Errors or allocating
+     */
+    private static final CompiledRules<Item> RULES = CompiledRules.<Item>builder()
+            .required("itemName", Item::getItemName)
+            .range("price", Item::getPrice, MIN_PRICE, MAX_PRICE)
+            .max("quantity", Item::getQuantity, MAX_QUANTITY, MAX_QUANTITY_ARGUMENT)
+            //ObjectError (shared rule, long math)
+            .rule(ItemCrossFieldRules.ITEM_TOTAL_PRICE_MIN)
+            .compile();
+
     @Override
     public boolean supports(Class<?> clazz) {
         return Item.class.isAssignableFrom(clazz);
@@ -29,30 +50,8 @@ public class ItemValidator implements Validator {
 
     @Override
     public void validate(Object target, Errors errors) {
-        if (target instanceof Item) {  //is this really needed or is it redundant as supports already exists to check?
-            Item item = (Item) target;
-
-            ValidationUtils.rejectIfEmptyOrWhitespace(errors, "itemName", "required");
-
-//            price
-            if (item.getPrice() == null || item.getPrice() < 1000 || item.getPrice() > 1000000) {
-                errors.rejectValue("price", "range", new Object[]{1000, 1000000}, null);
-
-            }
-
-//            quantity
-            if (item.getQuantity() == null || item.getQuantity() > 10000) {
-                errors.rejectValue("quantity", "max", new Object[]{9999}, null);
-            }
-
-            //ObjectError
-            if (item.getPrice() != null && item.getQuantity() != null) {
-                int resultPrice = item.getPrice() * item.getQuantity();
-                if (resultPrice < 10000) {
-                    errors.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-                }
-            }
-
+        if (target instanceof Item item) {  //supports() already filters, this only guards direct calls
+            RULES.validate(item, errors);
         }
     }
 }
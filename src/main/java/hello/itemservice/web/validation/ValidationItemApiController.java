@@ -1,16 +1,64 @@
 package hello.itemservice.web.validation;
 
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemPage;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.domain.item.ItemSearchCond;
+import hello.itemservice.domain.item.ItemVersion;
+import hello.itemservice.validation.CrossFieldRuleRegistry;
+import hello.itemservice.web.idempotency.IdempotencyTable;
+import hello.itemservice.web.validation.api.ErrorResult;
+import hello.itemservice.web.validation.api.ItemApiValidator;
+import hello.itemservice.web.validation.api.ItemBatchResult;
+import hello.itemservice.web.validation.api.ItemErrorResult;
+import hello.itemservice.web.validation.api.ItemPatchBatchResult;
+import hello.itemservice.web.validation.api.ItemPatchResult;
+import hello.itemservice.web.validation.form.ItemPatchForm;
 import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Slf4j
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/validation/api/items")
+@RequiredArgsConstructor
 public class ValidationItemApiController {
 
+    private static final int MAX_BATCH_SIZE = 10000;
+
+    private final ItemRepository itemRepository;
+    private final ItemApiValidator itemApiValidator;
+    private final CrossFieldRuleRegistry crossFieldRuleRegistry;
+    private final IdempotencyTable<ItemBatchResult> itemBatchKeys;
+    private final ItemConditionalGet itemConditionalGet;
+
+    /**
+     * totalPriceMin for the @RequestBody of /add, same rule as the form controllers (ItemCrossFieldRules)
+     * /batch binds a List ("itemSaveFormList") and is checked by ItemApiValidator instead
+     */
+    @InitBinder("itemSaveForm")
+    public void init(WebDataBinder dataBinder) {
+        dataBinder.addValidators(crossFieldRuleRegistry);
+    }
+
 //    this API converter shows how the @Vlalid, @Validated can be used alongside
 //    with @RequestBody, (HttpMessageConverter)
 
@@ -76,4 +124,158 @@ public class ValidationItemApiController {
         log.info("성공 로직 실행");
         return form;
     }
+
+    /**
+     * bulk version of addItem, for import jobs
+     *
+     * instead of one http request + json parse + validator lookup per item,
+     * every form of the array is checked by the same shared validator,
+     * the valid ones are saved with one ItemRepository.saveAll (one id block, one log wait)
+     * and the invalid ones are reported by their index in the array.
+     *
+     * with an Idempotency-Key header a retried batch is not saved again, it gets the result (ids) of the first one
+     */
+    @PostMapping("/batch")
+    public ItemBatchResult addItems(@RequestBody List<ItemSaveForm> forms, Locale locale,
+                                    @RequestHeader(name = IdempotencyTable.HEADER, required = false) String idempotencyKey) {
+        if (forms.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "batch size must be at most " + MAX_BATCH_SIZE);
+        }
+        return itemBatchKeys.execute("/validation/api/items/batch", idempotencyKey, ItemIdempotency.payload(forms),
+                () -> saveBatch(forms, locale));
+    }
+
+    private ItemBatchResult saveBatch(List<ItemSaveForm> forms, Locale locale) {
+        List<Item> validItems = new ArrayList<>(forms.size());
+        int[] validIndexes = new int[forms.size()];
+        List<ItemErrorResult> errors = new ArrayList<>();
+        for (int i = 0; i < forms.size(); i++) {
+            ItemSaveForm form = forms.get(i);
+            List<ErrorResult> formErrors = itemApiValidator.validate(form, "itemSaveForm", locale);
+            if (!formErrors.isEmpty()) {
+                errors.add(new ItemErrorResult(i, formErrors));
+                continue;
+            }
+            validIndexes[validItems.size()] = i;
+            validItems.add(form.toItem());
+        }
+
+        itemRepository.saveAll(validItems);
+
+        Long[] ids = new Long[forms.size()];
+        for (int i = 0; i < validItems.size(); i++) {
+            ids[validIndexes[i]] = validItems.get(i).getId();
+        }
+        log.info("batch 요청={}, 저장={}, 오류={}", forms.size(), validItems.size(), errors.size());
+        return new ItemBatchResult(validItems.size(), Arrays.asList(ids), errors);
+    }
+
+    /**
+     * bulk partial update, ie) inventory sync pushing quantities
+     * [{"id": 1, "quantity": 5}, {"id": 2, "price": 20000}]
+     *
+     * 1. every patch : only the fields it sets are checked against the ItemUpdateForm constraints,
+     *    a patch without any field to change is INVALID (emptyPatch) and never reaches the repository
+     * 2. the valid patches go to one ItemRepository.updateAll, which merges each with the current item under
+     *    the update locks, checks the cross field rules (totalPriceMin) on the merged form and writes the batch as one unit.
+     *    only the rule error codes are kept under the locks, their messages are resolved after updateAll returns
+     * 3. one ItemPatchResult per element : UPDATED, INVALID (with errors) or NOT_FOUND
+     */
+    @PatchMapping
+    public ItemPatchBatchResult patchItems(@RequestBody List<ItemPatchForm> patches, Locale locale) {
+        if (patches.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "batch size must be at most " + MAX_BATCH_SIZE);
+        }
+
+        ItemPatchResult[] results = new ItemPatchResult[patches.size()];
+        Map<Long, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < patches.size(); i++) {
+            ItemPatchForm patch = patches.get(i);
+            Long id = patch == null ? null : patch.getId();
+            if (id == null) {
+                results[i] = ItemPatchResult.invalid(i, null, List.of(itemApiValidator.error("id", "required", locale)));
+                continue;
+            }
+            List<String> changedFields = patch.changedFields();
+            if (changedFields.isEmpty()) {
+                results[i] = ItemPatchResult.invalid(i, id, List.of(itemApiValidator.error(null, "emptyPatch", locale)));
+                continue;
+            }
+            List<ErrorResult> fieldErrors = itemApiValidator.validateProperties(
+                    patch.toUpdateForm(), "itemUpdateForm", changedFields, locale);
+            if (!fieldErrors.isEmpty()) {
+                results[i] = ItemPatchResult.invalid(i, id, fieldErrors);
+            } else if (indexById.putIfAbsent(id, i) != null) {
+                results[i] = ItemPatchResult.invalid(i, id, List.of(itemApiValidator.error("id", "duplicate", locale)));
+            }
+        }
+
+        Errors[] ruleErrors = new Errors[patches.size()];
+        List<Item> updated = itemRepository.updateAll(indexById.keySet(), current -> {
+            int i = indexById.get(current.getId());
+            ItemUpdateForm merged = patches.get(i).applyTo(current);
+            Errors errors = itemApiValidator.validateRules(merged, "itemUpdateForm");
+            if (errors.hasErrors()) {
+                ruleErrors[i] = errors;
+                return null;
+            }
+            results[i] = ItemPatchResult.updated(i, current.getId());
+            return merged.toItem();
+        });
+
+        for (Map.Entry<Long, Integer> entry : indexById.entrySet()) {
+            int i = entry.getValue();
+            if (ruleErrors[i] != null) {
+                results[i] = ItemPatchResult.invalid(i, entry.getKey(), itemApiValidator.toErrorResults(ruleErrors[i], locale));
+            } else if (results[i] == null) {
+                results[i] = ItemPatchResult.notFound(i, entry.getKey());
+            }
+        }
+        log.info("patch 요청={}, 수정={}", patches.size(), updated.size());
+        return new ItemPatchBatchResult(updated.size(), Arrays.asList(results));
+    }
+
+    /**
+     * json of one item with ETag / Last-Modified of its last write,
+     * a matching If-None-Match (If-Modified-Since) gets 304 without a body (HttpEntityMethodProcessor)
+     */
+    @GetMapping("/{itemId}")
+    public ResponseEntity<Item> item(@PathVariable long itemId) {
+        //version before the item, so the tag is never newer than the body
+        ItemVersion version = itemRepository.getItemVersion(itemId);
+        Item item = itemRepository.findById(itemId);
+        if (version == null || item == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .eTag(itemConditionalGet.itemETag(itemId, version))
+                .lastModified(version.lastModified())
+                .body(item);
+    }
+
+    /**
+     * json of one keyset page (same cursor / size as the list pages), ETag from the collection version
+     */
+    @GetMapping
+    public ResponseEntity<ItemPage> items(@RequestParam(required = false) Long cursor,
+                                          @RequestParam(required = false) Integer size) {
+        long version = itemRepository.getVersion();
+        long lastModified = itemRepository.getLastModified();
+        ItemPage page = itemRepository.findPage(cursor, size);
+        return ResponseEntity.ok()
+                .eTag(itemConditionalGet.itemsETag(version, cursor, size))
+                .lastModified(lastModified)
+                .body(page);
+    }
+
+    /**
+     * index backed lookup, ie) /validation/api/items/search?itemName=item&minPrice=1000&maxPrice=20000
+     * itemName is a prefix match, price / quantity bounds are inclusive, limit is capped at ItemPage.MAX_SIZE
+     */
+    @GetMapping("/search")
+    public List<Item> search(@ModelAttribute ItemSearchCond cond, @RequestParam(required = false) Integer limit) {
+        return itemRepository.search(cond, limit);
+    }
 }
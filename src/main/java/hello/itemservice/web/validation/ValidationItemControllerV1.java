@@ -2,35 +2,47 @@ package hello.itemservice.web.validation;
 
 import hello.itemservice.domain.item.Item;
 import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.web.idempotency.IdempotencyTable;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/validation/v1/items")
 @RequiredArgsConstructor
 public class ValidationItemControllerV1 {
 
     private final ItemRepository itemRepository;
+    private final ItemListing itemListing;
+    private final ItemConditionalGet itemConditionalGet;
+    private final IdempotencyTable<Long> itemSaveKeys;
     //검증 오류 결과를 보관
     Map<String, String> errors = new HashMap<>();
 
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
+    public String items(@RequestParam(required = false) Long cursor,
+                        @RequestParam(required = false) Integer size, Model model, NativeWebRequest request) {
+        if (itemConditionalGet.isItemsNotModified(request)) {
+            return null;
+        }
+        itemListing.addItems(model, cursor, size);
         return "validation/v1/items";
     }
 
     @GetMapping("/{itemId}")
-    public String item(@PathVariable long itemId, Model model) {
+    public String item(@PathVariable long itemId, Model model, NativeWebRequest request) {
+        if (itemConditionalGet.isItemNotModified(request, itemId)) {
+            return null;
+        }
         Item item = itemRepository.findById(itemId);
         model.addAttribute("item", item);
         return "validation/v1/item";
@@ -43,7 +55,8 @@ public class ValidationItemControllerV1 {
     }
 
     @PostMapping("/add")
-    public String addItem(@ModelAttribute Item item, RedirectAttributes redirectAttributes, Model model) {
+    public String addItem(@ModelAttribute Item item, RedirectAttributes redirectAttributes, Model model,
+                          @RequestHeader(name = IdempotencyTable.HEADER, required = false) String idempotencyKey) {
 
         if(!StringUtils.hasText(item.getItemName())) {
             errors.put("itemName", "name field is required");
@@ -67,8 +80,9 @@ public class ValidationItemControllerV1 {
             return "validation/v1/addForm";
         }
         //성공 로직
-        Item savedItem = itemRepository.save(item);
-        redirectAttributes.addAttribute("itemId", savedItem.getId());
+        Long itemId = itemSaveKeys.execute("/validation/v1/items/add", idempotencyKey, ItemIdempotency.payload(item),
+                () -> itemRepository.save(item).getId());
+        redirectAttributes.addAttribute("itemId", itemId);
         redirectAttributes.addAttribute("status", true);
         return "redirect:/validation/v1/items/{itemId}";
     }
@@ -2,25 +2,32 @@ package hello.itemservice.web.validation;
 
 import hello.itemservice.domain.item.Item;
 import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.web.idempotency.IdempotencyTable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.validation.ObjectError;
+import org.springframework.validation.Validator;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
+import static hello.itemservice.web.validation.ItemCrossFieldRules.ITEM_TOTAL_PRICE_MIN;
+
 @Slf4j
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/validation/v2/items")
 @RequiredArgsConstructor
 public class ValidationItemControllerV2 {
@@ -31,21 +38,32 @@ public class ValidationItemControllerV2 {
      *  Map<String, String> errors = new HashMap<>();
      */
     private final ItemRepository itemRepository;
+    private final ItemListing itemListing;
+    private final ItemConditionalGet itemConditionalGet;
+    private final IdempotencyTable<Long> itemSaveKeys;
 
     /**
      * used in V5 to store the itemValidator class(implements Validator)
+     * injected as Validator, so the TimedValidator decorator (item.validation{validator=itemValidator}) can take its place
      */
-    private final ItemValidator itemValidator;
+    @Qualifier("itemValidator")
+    private final Validator itemValidator;
 
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
+    public String items(@RequestParam(required = false) Long cursor,
+                        @RequestParam(required = false) Integer size, Model model, NativeWebRequest request) {
+        if (itemConditionalGet.isItemsNotModified(request)) {
+            return null;
+        }
+        itemListing.addItems(model, cursor, size);
         return "validation/v2/items";
     }
 
     @GetMapping("/{itemId}")
-    public String item(@PathVariable long itemId, Model model) {
+    public String item(@PathVariable long itemId, Model model, NativeWebRequest request) {
+        if (itemConditionalGet.isItemNotModified(request, itemId)) {
+            return null;
+        }
         Item item = itemRepository.findById(itemId);
         model.addAttribute("item", item);
         return "validation/v2/item";
@@ -89,12 +107,9 @@ public class ValidationItemControllerV2 {
         if(item.getQuantity() == null || item.getQuantity() >= 9999 || item.getQuantity() < 0) {
             bindingResult.addError(new FieldError("item","quantity", "quantity field is required and must be between 0 and 9999"));
         }
-        if(item.getPrice() != null && item.getQuantity() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if(resultPrice < 10000) {
-                bindingResult.addError(new ObjectError("item", "the multiple of price and quantity" +
-                        " must be more than 10k. current :" + resultPrice));
-            }
+        if(ITEM_TOTAL_PRICE_MIN.isViolatedBy(item)) {
+            bindingResult.addError(new ObjectError("item", "the multiple of price and quantity" +
+                    " must be more than 10k. current :" + ITEM_TOTAL_PRICE_MIN.arguments(item)[1]));
         }
 
         if(bindingResult.hasErrors()) {
@@ -174,13 +189,10 @@ public class ValidationItemControllerV2 {
             bindingResult.addError(new FieldError("item","quantity", item.getQuantity(),
                     false, null, null, "quantity field is required and must be between 0 and 9999"));
         }
-        if(item.getPrice() != null && item.getQuantity() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if(resultPrice < 10000) {
-                bindingResult.addError(new ObjectError("item", null, null,
-                        "the multiple of price and quantity" +
-                        " must be more than 10k. current :" + resultPrice));
-            }
+        if(ITEM_TOTAL_PRICE_MIN.isViolatedBy(item)) {
+            bindingResult.addError(new ObjectError("item", null, null,
+                    "the multiple of price and quantity" +
+                    " must be more than 10k. current :" + ITEM_TOTAL_PRICE_MIN.arguments(item)[1]));
         }
 
         if(bindingResult.hasErrors()) {
@@ -210,11 +222,8 @@ public class ValidationItemControllerV2 {
             bindingResult.addError(new FieldError("item","quantity", item.getQuantity(),
                     false, new String[]{"max.item.quantity"}, new Object[]{0, 9999}, null));
         }
-        if(item.getPrice() != null && item.getQuantity() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if(resultPrice < 10000) {
-                bindingResult.addError(new ObjectError("item", new String[]{"totalPriceMin"}, new Object[]{10000, resultPrice}, null));
-            }
+        if(ITEM_TOTAL_PRICE_MIN.isViolatedBy(item)) {
+            bindingResult.addError(new ObjectError("item", new String[]{ITEM_TOTAL_PRICE_MIN.getCode()}, ITEM_TOTAL_PRICE_MIN.arguments(item), null));
         }
 
         if(bindingResult.hasErrors()) {
@@ -259,12 +268,7 @@ public class ValidationItemControllerV2 {
         if(item.getQuantity() == null || item.getQuantity() >= 9999 || item.getQuantity() < 0) {
             bindingResult.rejectValue("quantity", "max", new Object[]{0, 9999}, null);
         }
-        if(item.getPrice() != null && item.getQuantity() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if(resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
+        ITEM_TOTAL_PRICE_MIN.validate(item, bindingResult);
 
 //        log.info("objectName={}", bindingResult.getObjectName());
 //        log.info("target={}", bindingResult.getTarget());
@@ -414,14 +418,16 @@ public class ValidationItemControllerV2 {
 
     @PostMapping("/add")
     public String addItemV6(@Validated @ModelAttribute Item item, BindingResult
-            bindingResult, RedirectAttributes redirectAttributes) {
+            bindingResult, RedirectAttributes redirectAttributes,
+                            @RequestHeader(name = IdempotencyTable.HEADER, required = false) String idempotencyKey) {
         if (bindingResult.hasErrors()) {
             log.info("errors={}", bindingResult);
             return "validation/v2/addForm";
         }
         //성공 로직
-        Item savedItem = itemRepository.save(item);
-        redirectAttributes.addAttribute("itemId", savedItem.getId());
+        Long itemId = itemSaveKeys.execute("/validation/v2/items/add", idempotencyKey, ItemIdempotency.payload(item),
+                () -> itemRepository.save(item).getId());
+        redirectAttributes.addAttribute("itemId", itemId);
         redirectAttributes.addAttribute("status", true);
         return "redirect:/validation/v2/items/{itemId}";
     }
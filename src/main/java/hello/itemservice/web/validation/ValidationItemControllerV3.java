@@ -5,33 +5,57 @@ import hello.itemservice.domain.item.ItemRepository;
 
 import hello.itemservice.domain.item.SaveCheck;
 import hello.itemservice.domain.item.UpdateCheck;
+import hello.itemservice.validation.CrossFieldRuleRegistry;
+import hello.itemservice.web.idempotency.IdempotencyTable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
-import java.util.List;
 
 @Slf4j
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/validation/v3/items")
 @RequiredArgsConstructor
 public class ValidationItemControllerV3 {
 
     private final ItemRepository itemRepository;
+    private final ItemListing itemListing;
+    private final ItemConditionalGet itemConditionalGet;
+    private final IdempotencyTable<Long> itemSaveKeys;
+    private final CrossFieldRuleRegistry crossFieldRuleRegistry;
+
+    /**
+     * 특정 필드가 아닌 복합 룰 검증 (totalPriceMin) -> ItemCrossFieldRules,
+     * runs once per bound "item" right after @Validated, the handlers only look at bindingResult
+     */
+    @InitBinder("item")
+    public void init(WebDataBinder dataBinder) {
+        dataBinder.addValidators(crossFieldRuleRegistry);
+    }
 
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
+    public String items(@RequestParam(required = false) Long cursor,
+                        @RequestParam(required = false) Integer size, Model model, NativeWebRequest request) {
+        if (itemConditionalGet.isItemsNotModified(request)) {
+            return null;
+        }
+        itemListing.addItems(model, cursor, size);
         return "validation/v3/items";
     }
 
     @GetMapping("/{itemId}")
-    public String item(@PathVariable long itemId, Model model) {
+    public String item(@PathVariable long itemId, Model model, NativeWebRequest request) {
+        if (itemConditionalGet.isItemNotModified(request, itemId)) {
+            return null;
+        }
         Item item = itemRepository.findById(itemId);
         model.addAttribute("item", item);
         return "validation/v3/item";
@@ -46,16 +70,9 @@ public class ValidationItemControllerV3 {
     //    @PostMapping("/add")
 //    instead of using @ScriptAssert, use java code, specifically bindingResult.reject()
 //    to create instances of invalidation, for global errors(non-field errors)
+//    (the reject() now lives in ItemCrossFieldRules, the binder runs it after @Validated, see init)
     public String addItem(@Validated @ModelAttribute Item item, BindingResult bindingResult, RedirectAttributes redirectAttributes, Model model) {
 
-        //특정 필드가 아닌 복합 룰 검증
-        if (item.getPrice() != null && item.getQuantity() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
-
         //검증에 실패하면 다시 입력 폼으로
         if (bindingResult.hasErrors()) {
             log.info("errors={} ", bindingResult);
@@ -73,15 +90,8 @@ public class ValidationItemControllerV3 {
 //    actions on the same model class, it is difficult to separate the validation into 2 parts
 //    @Validated by hibernate provides the 'groups' variable in @Validated, to do precisely that.
     @PostMapping("/add")
-    public String addItem2(@Validated(SaveCheck.class) @ModelAttribute Item item, BindingResult bindingResult, RedirectAttributes redirectAttributes) {
-
-        //특정 필드가 아닌 복합 룰 검증
-        if (item.getPrice() != null && item.getQuantity() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
+    public String addItem2(@Validated(SaveCheck.class) @ModelAttribute Item item, BindingResult bindingResult, RedirectAttributes redirectAttributes,
+                           @RequestHeader(name = IdempotencyTable.HEADER, required = false) String idempotencyKey) {
 
         //검증에 실패하면 다시 입력 폼으로
         if (bindingResult.hasErrors()) {
@@ -90,8 +100,9 @@ public class ValidationItemControllerV3 {
         }
 
         //성공 로직
-        Item savedItem = itemRepository.save(item);
-        redirectAttributes.addAttribute("itemId", savedItem.getId());
+        Long itemId = itemSaveKeys.execute("/validation/v3/items/add", idempotencyKey, ItemIdempotency.payload(item),
+                () -> itemRepository.save(item).getId());
+        redirectAttributes.addAttribute("itemId", itemId);
         redirectAttributes.addAttribute("status", true);
         return "redirect:/validation/v3/items/{itemId}";
     }
@@ -106,14 +117,6 @@ public class ValidationItemControllerV3 {
     //    @PostMapping("/{itemId}/edit")
     public String edit(@PathVariable Long itemId, @Validated @ModelAttribute Item item, BindingResult bindingResult) {
 
-        //특정 필드가 아닌 복합 룰 검증
-        if (item.getPrice() != null && item.getQuantity() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
-
         if (bindingResult.hasErrors()) {
             log.info("errors={}", bindingResult);
             return "validation/v3/editForm";
@@ -126,14 +129,6 @@ public class ValidationItemControllerV3 {
     @PostMapping("/{itemId}/edit")
     public String editV2(@PathVariable Long itemId, @Validated(UpdateCheck.class) @ModelAttribute Item item, BindingResult bindingResult) {
 
-        //특정 필드가 아닌 복합 룰 검증
-        if (item.getPrice() != null && item.getQuantity() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
-
         if (bindingResult.hasErrors()) {
             log.info("errors={}", bindingResult);
             return "validation/v3/editForm";
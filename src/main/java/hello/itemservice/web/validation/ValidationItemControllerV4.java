@@ -6,19 +6,24 @@ import hello.itemservice.domain.item.SaveCheck;
 import hello.itemservice.domain.item.UpdateCheck;
 import hello.itemservice.web.validation.form.ItemSaveForm;
 import hello.itemservice.web.validation.form.ItemUpdateForm;
+import hello.itemservice.validation.CrossFieldRuleRegistry;
+import hello.itemservice.web.idempotency.IdempotencyTable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
 
 @Slf4j
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/validation/v4/items")
 @RequiredArgsConstructor
 public class ValidationItemControllerV4 {
@@ -32,16 +37,35 @@ public class ValidationItemControllerV4 {
 //    in a clean fashion
 
     private final ItemRepository itemRepository;
+    private final ItemListing itemListing;
+    private final ItemConditionalGet itemConditionalGet;
+    private final IdempotencyTable<Long> itemSaveKeys;
+    private final CrossFieldRuleRegistry crossFieldRuleRegistry;
+
+    /**
+     * 특정 필드가 아닌 복합 룰 검증 (totalPriceMin) -> ItemCrossFieldRules,
+     * runs once per bound "item" right after @Validated, the handlers only look at bindingResult
+     */
+    @InitBinder("item")
+    public void init(WebDataBinder dataBinder) {
+        dataBinder.addValidators(crossFieldRuleRegistry);
+    }
 
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
+    public String items(@RequestParam(required = false) Long cursor,
+                        @RequestParam(required = false) Integer size, Model model, NativeWebRequest request) {
+        if (itemConditionalGet.isItemsNotModified(request)) {
+            return null;
+        }
+        itemListing.addItems(model, cursor, size);
         return "validation/v4/items";
     }
 
     @GetMapping("/{itemId}")
-    public String item(@PathVariable long itemId, Model model) {
+    public String item(@PathVariable long itemId, Model model, NativeWebRequest request) {
+        if (itemConditionalGet.isItemNotModified(request, itemId)) {
+            return null;
+        }
         Item item = itemRepository.findById(itemId);
         model.addAttribute("item", item);
         return "validation/v4/item";
@@ -54,15 +78,8 @@ public class ValidationItemControllerV4 {
     }
 
     @PostMapping("/add")
-    public String addItem(@Validated @ModelAttribute("item") ItemSaveForm form, BindingResult bindingResult, RedirectAttributes redirectAttributes) {
-
-        //특정 필드가 아닌 복합 룰 검증
-        if (form.getPrice() != null && form.getQuantity() != null) {
-            int resultPrice = form.getPrice() * form.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
+    public String addItem(@Validated @ModelAttribute("item") ItemSaveForm form, BindingResult bindingResult, RedirectAttributes redirectAttributes,
+                          @RequestHeader(name = IdempotencyTable.HEADER, required = false) String idempotencyKey) {
 
         //검증에 실패하면 다시 입력 폼으로
         if (bindingResult.hasErrors()) {
@@ -71,13 +88,9 @@ public class ValidationItemControllerV4 {
         }
 
         //성공 로직
-        Item item = new Item();
-        item.setItemName(form.getItemName());
-        item.setPrice(form.getPrice());
-        item.setQuantity(form.getQuantity());
-
-        Item savedItem = itemRepository.save(item);
-        redirectAttributes.addAttribute("itemId", savedItem.getId());
+        Long itemId = itemSaveKeys.execute("/validation/v4/items/add", idempotencyKey, ItemIdempotency.payload(form),
+                () -> itemRepository.save(form.toItem()).getId());
+        redirectAttributes.addAttribute("itemId", itemId);
         redirectAttributes.addAttribute("status", true);
         return "redirect:/validation/v4/items/{itemId}";
     }
@@ -92,25 +105,12 @@ public class ValidationItemControllerV4 {
     @PostMapping("/{itemId}/edit")
     public String edit(@PathVariable Long itemId, @Validated @ModelAttribute("item") ItemUpdateForm form, BindingResult bindingResult) {
 
-        //특정 필드가 아닌 복합 룰 검증
-        if (form.getPrice() != null && form.getQuantity() != null) {
-            int resultPrice = form.getPrice() * form.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
-
         if (bindingResult.hasErrors()) {
             log.info("errors={}", bindingResult);
             return "validation/v4/editForm";
         }
 
-        Item itemParam = new Item();
-        itemParam.setItemName(form.getItemName());
-        itemParam.setPrice(form.getPrice());
-        itemParam.setQuantity(form.getQuantity());
-
-        itemRepository.update(itemId, itemParam);
+        itemRepository.update(itemId, form.toItem());
         return "redirect:/validation/v4/items/{itemId}";
     }
 
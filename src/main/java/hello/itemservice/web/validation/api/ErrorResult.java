@@ -0,0 +1,17 @@
+package hello.itemservice.web.validation.api;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * compact form of a FieldError / ObjectError for API responses
+ * field is null for global (ObjectError) errors, code is the base error code (ie. NotBlank, Range, totalPriceMin)
+ */
+@Getter
+@RequiredArgsConstructor
+public class ErrorResult {
+
+    private final String field;
+    private final String code;
+    private final String message;
+}
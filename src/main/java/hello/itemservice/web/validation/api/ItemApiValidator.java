@@ -0,0 +1,119 @@
+package hello.itemservice.web.validation.api;
+
+import hello.itemservice.validation.CrossFieldRuleRegistry;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.MessageCodesResolver;
+import org.springframework.validation.ObjectError;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * bean validation for API bodies that are not bound through @RequestBody @Validated (bulk / streaming input)
+ *
+ * one shared jakarta Validator is used for every element, then the cross field rules (totalPriceMin),
+ * errors get the same codes as BindingResult (NotBlank.itemSaveForm.itemName, ... )
+ * and are resolved against errors.properties into ErrorResults.
+ *
+ * partial updates (PATCH) are checked in two steps : validateProperties on the fields the patch sets,
+ * without the current item, and validateRules on the merged form once the current item is known.
+ */
+@Component
+public class ItemApiValidator {
+
+    private final PropertyValidatorAdapter validator;
+    private final MessageSource messageSource;
+    private final MessageCodesResolver messageCodesResolver;
+    private final CrossFieldRuleRegistry crossFieldRuleRegistry;
+
+    public ItemApiValidator(jakarta.validation.Validator validator, MessageSource messageSource,
+                            MessageCodesResolver messageCodesResolver, CrossFieldRuleRegistry crossFieldRuleRegistry) {
+        this.validator = new PropertyValidatorAdapter(validator);
+        this.messageSource = messageSource;
+        this.messageCodesResolver = messageCodesResolver;
+        this.crossFieldRuleRegistry = crossFieldRuleRegistry;
+    }
+
+    /**
+     * @return the errors of the form, an empty list when it is valid
+     */
+    public List<ErrorResult> validate(Object form, String objectName, Locale locale) {
+        if (form == null) {
+            return List.of(new ErrorResult(null, "required",
+                    messageSource.getMessage("required", null, "required", locale)));
+        }
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(form, objectName);
+        errors.setMessageCodesResolver(messageCodesResolver);
+        validator.validate(form, errors);
+        crossFieldRuleRegistry.validate(form, errors);
+        if (!errors.hasErrors()) {
+            return Collections.emptyList();
+        }
+        return toErrorResults(errors, locale);
+    }
+
+    /**
+     * bean validation of the given properties only (jakarta Validator.validateProperty), no cross field rules
+     */
+    public List<ErrorResult> validateProperties(Object form, String objectName, List<String> properties, Locale locale) {
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(form, objectName);
+        errors.setMessageCodesResolver(messageCodesResolver);
+        validator.validateProperties(form, errors, properties);
+        return errors.hasErrors() ? toErrorResults(errors, locale) : Collections.emptyList();
+    }
+
+    /**
+     * cross field rules of the form only (totalPriceMin), no bean validation
+     *
+     * only the error codes are collected, no message is resolved, so it is cheap enough to run
+     * under the ItemRepository update locks. toErrorResults resolves the messages once the locks are released.
+     */
+    public Errors validateRules(Object form, String objectName) {
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(form, objectName);
+        errors.setMessageCodesResolver(messageCodesResolver);
+        crossFieldRuleRegistry.validate(form, errors);
+        return errors;
+    }
+
+    /**
+     * an error that is not a constraint violation (ie. required id, duplicate id), message from errors.properties
+     */
+    public ErrorResult error(String field, String code, Locale locale) {
+        return new ErrorResult(field, code, messageSource.getMessage(code, null, code, locale));
+    }
+
+    public List<ErrorResult> toErrorResults(Errors errors, Locale locale) {
+        List<ErrorResult> results = new ArrayList<>(errors.getErrorCount());
+        for (ObjectError error : errors.getAllErrors()) {
+            String field = error instanceof FieldError fieldError ? fieldError.getField() : null;
+            results.add(new ErrorResult(field, error.getCode(), messageSource.getMessage(error, locale)));
+        }
+        return results;
+    }
+
+    /**
+     * SpringValidatorAdapter that can also turn the violations of single properties into errors
+     */
+    private static final class PropertyValidatorAdapter extends SpringValidatorAdapter {
+
+        private final jakarta.validation.Validator targetValidator;
+
+        PropertyValidatorAdapter(jakarta.validation.Validator targetValidator) {
+            super(targetValidator);
+            this.targetValidator = targetValidator;
+        }
+
+        void validateProperties(Object form, Errors errors, List<String> properties) {
+            for (String property : properties) {
+                processConstraintViolations(targetValidator.validateProperty(form, property), errors);
+            }
+        }
+    }
+}
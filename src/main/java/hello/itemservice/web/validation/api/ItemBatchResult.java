@@ -0,0 +1,21 @@
+package hello.itemservice.web.validation.api;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * response of POST /validation/api/items/batch
+ *
+ * ids is aligned with the request array, null where the form failed validation.
+ * errors only lists the failed indexes, so a clean batch stays small.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ItemBatchResult {
+
+    private final int savedCount;
+    private final List<Long> ids;
+    private final List<ItemErrorResult> errors;
+}
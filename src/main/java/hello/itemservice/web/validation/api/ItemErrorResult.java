@@ -0,0 +1,17 @@
+package hello.itemservice.web.validation.api;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * validation errors of one element of a bulk request, index is the position in the request
+ */
+@Getter
+@RequiredArgsConstructor
+public class ItemErrorResult {
+
+    private final int index;
+    private final List<ErrorResult> errors;
+}
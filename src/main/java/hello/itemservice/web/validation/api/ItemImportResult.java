@@ -0,0 +1,21 @@
+package hello.itemservice.web.validation.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * one output line of POST /validation/api/items/import
+ * either id (saved) or errors (rejected) is set, line is the 1-based line number of the input
+ */
+@Getter
+@RequiredArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportResult {
+
+    private final long line;
+    private final Long id;
+    private final List<ErrorResult> errors;
+}
@@ -0,0 +1,19 @@
+package hello.itemservice.web.validation.api;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * response of PATCH /validation/api/items
+ *
+ * results is aligned with the request array, one ItemPatchResult per element.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ItemPatchBatchResult {
+
+    private final int updatedCount;
+    private final List<ItemPatchResult> results;
+}
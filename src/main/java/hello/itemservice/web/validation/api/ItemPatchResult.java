@@ -0,0 +1,38 @@
+package hello.itemservice.web.validation.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * result of one element of PATCH /validation/api/items, index is the position in the request
+ * errors is only set for INVALID
+ */
+@Getter
+@RequiredArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemPatchResult {
+
+    public enum Status {
+        UPDATED, INVALID, NOT_FOUND
+    }
+
+    private final int index;
+    private final Long id;
+    private final Status status;
+    private final List<ErrorResult> errors;
+
+    public static ItemPatchResult updated(int index, Long id) {
+        return new ItemPatchResult(index, id, Status.UPDATED, null);
+    }
+
+    public static ItemPatchResult invalid(int index, Long id, List<ErrorResult> errors) {
+        return new ItemPatchResult(index, id, Status.INVALID, errors);
+    }
+
+    public static ItemPatchResult notFound(int index, Long id) {
+        return new ItemPatchResult(index, id, Status.NOT_FOUND, null);
+    }
+}
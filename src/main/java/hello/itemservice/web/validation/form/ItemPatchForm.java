@@ -0,0 +1,64 @@
+package hello.itemservice.web.validation.form;
+
+import hello.itemservice.domain.item.Item;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * one element of PATCH /validation/api/items, the fields that are set are the ones that change
+ *
+ * [{"id": 1, "quantity": 5}, {"id": 2, "price": 20000, "itemName": "itemB"}]
+ * a missing (or null) field keeps its current value, so a quantity can not be cleared through a patch.
+ * the changed fields are checked against the constraints of ItemUpdateForm, the merged item against its cross field rules.
+ */
+@Data
+public class ItemPatchForm {
+
+    private Long id;
+    private String itemName;
+    private Integer price;
+    private Integer quantity;
+
+    /**
+     * @return names of the ItemUpdateForm properties this patch changes
+     */
+    public List<String> changedFields() {
+        List<String> fields = new ArrayList<>(3);
+        if (itemName != null) {
+            fields.add("itemName");
+        }
+        if (price != null) {
+            fields.add("price");
+        }
+        if (quantity != null) {
+            fields.add("quantity");
+        }
+        return fields;
+    }
+
+    /**
+     * the patch as an ItemUpdateForm, only id and the changed fields set
+     */
+    public ItemUpdateForm toUpdateForm() {
+        ItemUpdateForm form = new ItemUpdateForm();
+        form.setId(id);
+        form.setItemName(itemName);
+        form.setPrice(price);
+        form.setQuantity(quantity);
+        return form;
+    }
+
+    /**
+     * the ItemUpdateForm after this patch : the changed fields from the patch, the others from current
+     */
+    public ItemUpdateForm applyTo(Item current) {
+        ItemUpdateForm form = new ItemUpdateForm();
+        form.setId(current.getId());
+        form.setItemName(itemName != null ? itemName : current.getItemName());
+        form.setPrice(price != null ? price : current.getPrice());
+        form.setQuantity(quantity != null ? quantity : current.getQuantity());
+        return form;
+    }
+}
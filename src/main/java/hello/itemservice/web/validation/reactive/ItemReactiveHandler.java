@@ -0,0 +1,104 @@
+package hello.itemservice.web.validation.reactive;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ReactiveItemRepository;
+import hello.itemservice.web.validation.api.ErrorResult;
+import hello.itemservice.web.validation.api.ItemApiValidator;
+import hello.itemservice.web.validation.api.ItemImportResult;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * webflux counterpart of ValidationItemApiController /add and ItemImportController /import
+ *
+ * - add : one ItemSaveForm body, 400 + ErrorResults when invalid, the saved item otherwise
+ * - import : a stream of ItemSaveForm (ndjson or json array), answered with one ItemImportResult per form.
+ *   forms are validated as they are decoded and saved SAVE_BATCH at a time; concatMap asks the body
+ *   for the next forms only after the previous batch is saved, so a fast client is held back by
+ *   tcp backpressure instead of piling forms up in memory.
+ *
+ * validation is the same ItemApiValidator (bean validation + cross field rules) as the servlet api.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ItemReactiveHandler {
+
+    static final int SAVE_BATCH = 256;
+
+    private final ItemApiValidator itemApiValidator;
+    private final ReactiveItemRepository itemRepository;
+
+    public Mono<ServerResponse> addItem(ServerRequest request) {
+        Locale locale = locale(request);
+        return request.bodyToMono(ItemSaveForm.class)
+                .flatMap(form -> {
+                    List<ErrorResult> errors = itemApiValidator.validate(form, "itemSaveForm", locale);
+                    if (!errors.isEmpty()) {
+                        log.info("검증 오류 발생 errors={}", errors.size());
+                        return ServerResponse.badRequest().bodyValue(errors);
+                    }
+                    return itemRepository.save(form.toItem())
+                            .flatMap(savedItem -> ServerResponse.ok().bodyValue(savedItem));
+                })
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest()
+                        .bodyValue(itemApiValidator.validate(null, "itemSaveForm", locale))));
+    }
+
+    public Mono<ServerResponse> importItems(ServerRequest request) {
+        Locale locale = locale(request);
+        Flux<ItemImportResult> results = request.bodyToFlux(ItemSaveForm.class)
+                .index()
+                .map(indexed -> validate(indexed.getT1() + 1, indexed.getT2(), locale))
+                .buffer(SAVE_BATCH)
+                .concatMap(this::saveBatch, 1);
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(results, ItemImportResult.class);
+    }
+
+    private Line validate(long line, ItemSaveForm form, Locale locale) {
+        List<ErrorResult> errors = itemApiValidator.validate(form, "itemSaveForm", locale);
+        return errors.isEmpty() ? new Line(line, form.toItem(), null) : new Line(line, null, errors);
+    }
+
+    private Flux<ItemImportResult> saveBatch(List<Line> lines) {
+        List<Item> validItems = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            if (line.item() != null) {
+                validItems.add(line.item());
+            }
+        }
+        return itemRepository.saveAll(validItems)
+                .flatMapIterable(saved -> {
+                    List<ItemImportResult> results = new ArrayList<>(lines.size());
+                    for (Line line : lines) {
+                        Item item = line.item();
+                        results.add(new ItemImportResult(line.line(), item == null ? null : item.getId(), line.errors()));
+                    }
+                    return results;
+                });
+    }
+
+    private static Locale locale(ServerRequest request) {
+        LocaleContext localeContext = request.exchange().getLocaleContext();
+        Locale locale = localeContext.getLocale();
+        return locale != null ? locale : Locale.getDefault();
+    }
+
+    /**
+     * a decoded form, either the item to save or its errors
+     */
+    private record Line(long line, Item item, List<ErrorResult> errors) {
+    }
+}
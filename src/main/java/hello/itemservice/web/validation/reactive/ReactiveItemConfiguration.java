@@ -0,0 +1,60 @@
+package hello.itemservice.web.validation.reactive;
+
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.domain.item.ReactiveItemRepository;
+import hello.itemservice.web.validation.api.ItemApiValidator;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.accept;
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * --spring.profiles.active=reactive (application-reactive.properties)
+ *
+ * runs the application as a webflux app on netty instead of servlet + tomcat,
+ * the servlet controllers (@ConditionalOnWebApplication SERVLET) are not created.
+ * both stacks are in the same build, so the same jar can be load tested in either mode.
+ *
+ * POST /validation/reactive/items/add    : json ItemSaveForm
+ * POST /validation/reactive/items/import : ndjson or json array of ItemSaveForm, ndjson ItemImportResults back
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveItemConfiguration {
+
+    /**
+     * tomcat is on the classpath too and would otherwise be picked for the reactive server
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public ReactiveItemRepository reactiveItemRepository(ItemRepository itemRepository) {
+        return new ReactiveItemRepository(itemRepository);
+    }
+
+    @Bean
+    public ItemReactiveHandler itemReactiveHandler(ItemApiValidator itemApiValidator,
+                                                   ReactiveItemRepository reactiveItemRepository) {
+        return new ItemReactiveHandler(itemApiValidator, reactiveItemRepository);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveItemRoutes(ItemReactiveHandler handler) {
+        return route()
+                .path("/validation/reactive/items", builder -> builder
+                        .POST("/add", contentType(MediaType.APPLICATION_JSON), handler::addItem)
+                        .POST("/import", contentType(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON)
+                                .and(accept(MediaType.APPLICATION_NDJSON, MediaType.ALL)), handler::importItems))
+                .build();
+    }
+}
@@ -3,7 +3,12 @@ package hello.itemservice.domain.item;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -65,4 +70,303 @@ class ItemRepositoryTest {
         assertThat(findItem.getPrice()).isEqualTo(updateParam.getPrice());
         assertThat(findItem.getQuantity()).isEqualTo(updateParam.getQuantity());
     }
+
+    @Test
+    void concurrentSave() throws InterruptedException {
+        //given
+        int threadCount = 8;
+        int savesPerThread = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+
+        //when
+        for (int i = 0; i < threadCount; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < savesPerThread; j++) {
+                    itemRepository.save(new Item("item", 10000, 10));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        //then
+        List<Item> result = itemRepository.findAll();
+        assertThat(result).hasSize(threadCount * savesPerThread);
+        assertThat(result).extracting(Item::getId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void updateDoesNotMutateReadItem() {
+        //given
+        Item savedItem = itemRepository.save(new Item("item1", 10000, 10));
+        Item readItem = itemRepository.findById(savedItem.getId());
+
+        //when
+        itemRepository.update(savedItem.getId(), new Item("item2", 20000, 30));
+
+        //then
+        assertThat(readItem.getItemName()).isEqualTo("item1");
+        assertThat(itemRepository.findById(savedItem.getId()).getItemName()).isEqualTo("item2");
+    }
+
+    @Test
+    void findPage() {
+        //given
+        for (int i = 0; i < 5; i++) {
+            itemRepository.save(new Item("item" + i, 10000, 10));
+        }
+
+        //when
+        ItemPage firstPage = itemRepository.findPage(null, 2);
+        ItemPage secondPage = itemRepository.findPage(firstPage.getNextCursor(), 2);
+        ItemPage lastPage = itemRepository.findPage(secondPage.getNextCursor(), 2);
+
+        //then
+        assertThat(firstPage.getItems()).extracting(Item::getItemName).containsExactly("item0", "item1");
+        assertThat(secondPage.getItems()).extracting(Item::getItemName).containsExactly("item2", "item3");
+        assertThat(lastPage.getItems()).extracting(Item::getItemName).containsExactly("item4");
+        assertThat(lastPage.hasNext()).isFalse();
+    }
+
+    @Test
+    void findPageSizeIsCapped() {
+        //given
+        for (int i = 0; i < ItemPage.MAX_SIZE + 1; i++) {
+            itemRepository.save(new Item("item" + i, 10000, 10));
+        }
+
+        //when
+        ItemPage page = itemRepository.findPage(null, Integer.MAX_VALUE);
+
+        //then
+        assertThat(page.getItems()).hasSize(ItemPage.MAX_SIZE);
+        assertThat(page.hasNext()).isTrue();
+    }
+
+    @Test
+    void searchByPriceRange() {
+        //given
+        Item item1 = itemRepository.save(new Item("item1", 10000, 10));
+        Item item2 = itemRepository.save(new Item("item2", 20000, 20));
+        itemRepository.save(new Item("item3", 30000, 30));
+
+        //when
+        ItemSearchCond cond = new ItemSearchCond();
+        cond.setMinPrice(5000);
+        cond.setMaxPrice(20000);
+        List<Item> result = itemRepository.search(cond, null);
+
+        //then
+        assertThat(result).containsExactly(item1, item2);
+    }
+
+    @Test
+    void searchByNamePrefixAfterUpdate() {
+        //given
+        Item item = itemRepository.save(new Item("apple", 10000, 10));
+        itemRepository.save(new Item("banana", 10000, 10));
+
+        //when
+        itemRepository.update(item.getId(), new Item("avocado", 10000, 10));
+
+        //then
+        ItemSearchCond cond = new ItemSearchCond();
+        cond.setItemName("ap");
+        assertThat(itemRepository.search(cond, null)).isEmpty();
+        cond.setItemName("av");
+        assertThat(itemRepository.search(cond, null)).extracting(Item::getId).containsExactly(item.getId());
+    }
+
+    @Test
+    void idsPast32BitsAreIndexed() {
+        //given
+        MemoryItemStore store = new MemoryItemStore();
+        Item restored = new Item("restored", 10000, 10);
+        restored.setId(1L << 32);
+        store.restore(restored);
+        ItemRepository wideRepository = new ItemRepository(store, null, false);
+
+        //when
+        Item item = wideRepository.save(new Item("itemA", 20000, 20));
+        List<Item> batch = wideRepository.saveAll(List.of(new Item("itemB", 20000, 30)));
+
+        //then
+        ItemSearchCond cond = new ItemSearchCond();
+        cond.setMinPrice(20000);
+        cond.setMaxPrice(20000);
+        assertThat(item.getId()).isGreaterThan(0xFFFFFFFFL);
+        assertThat(wideRepository.search(cond, null)).containsExactly(item, batch.get(0));
+    }
+
+    @Test
+    void saveAll() {
+        //given
+        Item item1 = new Item("item1", 10000, 10);
+        Item item2 = new Item("item2", 20000, 20);
+
+        //when
+        itemRepository.saveAll(List.of(item1, item2));
+
+        //then
+        assertThat(item2.getId()).isEqualTo(item1.getId() + 1);
+        assertThat(itemRepository.findById(item1.getId())).isEqualTo(item1);
+        assertThat(itemRepository.findById(item2.getId())).isEqualTo(item2);
+    }
+
+    @Test
+    void streamPage() {
+        //given more items than one chunk
+        int count = StreamingItemPage.CHUNK * 2 + 10;
+        for (int i = 0; i < count; i++) {
+            itemRepository.save(new Item("item" + i, 10000, 10));
+        }
+
+        //when
+        StreamingItemPage firstPage = itemRepository.streamPage(null, StreamingItemPage.CHUNK + 1, 10000);
+        List<Item> firstItems = new ArrayList<>();
+        firstPage.getItems().forEach(firstItems::add);
+        StreamingItemPage lastPage = itemRepository.streamPage(firstPage.getNextCursor(), count, 10000);
+        List<Item> lastItems = new ArrayList<>();
+        lastPage.getItems().forEach(lastItems::add);
+
+        //then
+        assertThat(firstItems).hasSize(StreamingItemPage.CHUNK + 1);
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(lastItems).hasSize(count - firstItems.size());
+        assertThat(lastItems.get(0).getId()).isEqualTo(firstPage.getNextCursor() + 1);
+        assertThat(lastPage.hasNext()).isFalse();
+    }
+
+    @Test
+    void streamPageIsSingleUse() {
+        StreamingItemPage page = itemRepository.streamPage(null, null, 10000);
+        page.iterator();
+
+        assertThatThrownBy(page::iterator).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void versionChangesOnEveryWrite() {
+        //given
+        long initial = itemRepository.getVersion();
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        long saved = itemRepository.getVersion();
+
+        //when
+        itemRepository.update(item.getId(), new Item("itemB", 20000, 20));
+
+        //then
+        assertThat(saved).isGreaterThan(initial);
+        assertThat(itemRepository.getVersion()).isGreaterThan(saved);
+        assertThat(itemRepository.getSnapshot()).isNull();
+    }
+
+    @Test
+    void snapshotReads() {
+        //given
+        ItemRepository snapshotRepository = new ItemRepository(new MemoryItemStore(), null, true);
+        Item itemA = snapshotRepository.save(new Item("itemA", 10000, 10));
+        snapshotRepository.saveAll(List.of(new Item("itemB", 20000, 20), new Item("itemC", 30000, 30)));
+        ItemSnapshot before = snapshotRepository.getSnapshot();
+
+        //when
+        snapshotRepository.update(itemA.getId(), new Item("itemA2", 11000, 11));
+
+        //then the old snapshot is untouched, readers of it keep rendering the old values
+        ItemSnapshot after = snapshotRepository.getSnapshot();
+        assertThat(before.getItems()).extracting(Item::getItemName).containsExactly("itemA", "itemB", "itemC");
+        assertThat(after.getItems()).extracting(Item::getItemName).containsExactly("itemA2", "itemB", "itemC");
+        assertThat(after.getVersion()).isGreaterThan(before.getVersion());
+        assertThat(snapshotRepository.getVersion()).isEqualTo(after.getVersion());
+        assertThat(snapshotRepository.findAll()).isSameAs(after.getItems());
+        assertThat(snapshotRepository.findById(itemA.getId()).getPrice()).isEqualTo(11000);
+        assertThatThrownBy(() -> snapshotRepository.findAll().clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void snapshotPage() {
+        //given
+        ItemRepository snapshotRepository = new ItemRepository(new MemoryItemStore(), null, true);
+        for (int i = 0; i < 5; i++) {
+            snapshotRepository.save(new Item("item" + i, 1000 * (i + 1), 10));
+        }
+
+        //when
+        ItemPage first = snapshotRepository.findPage(null, 2);
+        ItemPage last = snapshotRepository.findPage(4L, 2);
+
+        //then
+        assertThat(first.getItems()).extracting(Item::getId).containsExactly(1L, 2L);
+        assertThat(first.getNextCursor()).isEqualTo(2L);
+        assertThat(last.getItems()).extracting(Item::getId).containsExactly(5L);
+        assertThat(last.hasNext()).isFalse();
+
+        snapshotRepository.clearStore();
+        assertThat(snapshotRepository.isEmpty()).isTrue();
+        assertThat(snapshotRepository.findPage(null, 2).getItems()).isEmpty();
+    }
+
+    @Test
+    void updateAll() {
+        //given
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        Item itemB = itemRepository.save(new Item("itemB", 20000, 20));
+        long version = itemRepository.getVersion();
+
+        //when quantity of A changes, B is left as it is, 99 does not exist
+        List<Item> updated = itemRepository.updateAll(List.of(itemB.getId(), itemA.getId(), 99L), current ->
+                current.getId().equals(itemA.getId()) ? new Item(current.getItemName(), current.getPrice(), 5) : null);
+
+        //then
+        assertThat(updated).extracting(Item::getId).containsExactly(itemA.getId());
+        assertThat(itemRepository.findById(itemA.getId()).getQuantity()).isEqualTo(5);
+        assertThat(itemRepository.findById(itemB.getId()).getQuantity()).isEqualTo(20);
+        assertThat(itemRepository.getItemVersion(itemA.getId()).version()).isGreaterThan(version);
+        assertThat(itemRepository.getItemVersion(itemB.getId()).version()).isLessThanOrEqualTo(version);
+    }
+
+    @Test
+    void snapshotStreamPage() {
+        //given
+        ItemRepository snapshotRepository = new ItemRepository(new MemoryItemStore(), null, true);
+        int count = StreamingItemPage.CHUNK + 10;
+        for (int i = 0; i < count; i++) {
+            snapshotRepository.save(new Item("item" + i, 10000, 10));
+        }
+        StreamingItemPage page = snapshotRepository.streamPage(null, count, 10000);
+
+        //when writes happen while the page is rendered
+        List<Item> items = new ArrayList<>();
+        for (Item item : page.getItems()) {
+            if (items.isEmpty()) {
+                snapshotRepository.update((long) count, new Item("updated", 20000, 20));
+                snapshotRepository.save(new Item("added", 10000, 10));
+            }
+            items.add(item);
+        }
+
+        //then the whole page is the snapshot of when it was created
+        assertThat(items).hasSize(count);
+        assertThat(items.get(count - 1).getItemName()).isEqualTo("item" + (count - 1));
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void updateAllIsOneSnapshot() {
+        //given
+        ItemRepository snapshotRepository = new ItemRepository(new MemoryItemStore(), null, true);
+        snapshotRepository.saveAll(List.of(new Item("itemA", 10000, 10), new Item("itemB", 20000, 20)));
+        long version = snapshotRepository.getVersion();
+
+        //when
+        snapshotRepository.updateAll(List.of(2L, 1L), current -> new Item(current.getItemName(), current.getPrice(), 1));
+
+        //then both changes are in the next snapshot
+        assertThat(snapshotRepository.getVersion()).isEqualTo(version + 1);
+        assertThat(snapshotRepository.findAll()).extracting(Item::getQuantity).containsExactly(1, 1);
+    }
 }
@@ -0,0 +1,202 @@
+package hello.itemservice.domain.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ItemWriteAheadLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoverFromLog() {
+        //given
+        ItemWriteAheadLog writeAheadLog = newLog();
+        ItemRepository itemRepository = new ItemRepository(new MemoryItemStore(), writeAheadLog);
+        Item item1 = itemRepository.save(new Item("item1", 10000, 10));
+        itemRepository.save(new Item("item2", 20000, 20));
+        itemRepository.update(item1.getId(), new Item("item1-updated", 15000, null));
+        writeAheadLog.close();
+
+        //when
+        ItemWriteAheadLog recoveredLog = newLog();
+        ItemRepository recovered = new ItemRepository(new MemoryItemStore(), recoveredLog);
+
+        //then
+        assertThat(recovered.findAll()).hasSize(2);
+        Item findItem = recovered.findById(item1.getId());
+        assertThat(findItem.getItemName()).isEqualTo("item1-updated");
+        assertThat(findItem.getQuantity()).isNull();
+        assertThat(recovered.save(new Item("item3", 10000, 10)).getId()).isEqualTo(3L);
+        recoveredLog.close();
+    }
+
+    @Test
+    void recoverFromSnapshotAndLog() {
+        //given
+        ItemWriteAheadLog writeAheadLog = newLog();
+        OffHeapItemStore store = new OffHeapItemStore();
+        ItemRepository itemRepository = new ItemRepository(store, writeAheadLog);
+        for (int i = 0; i < 100; i++) {
+            itemRepository.save(new Item("item" + i, 10000, i));
+        }
+        writeAheadLog.snapshot(consumer -> itemRepository.findAll().forEach(consumer), store::getLastId, store::getClearedId);
+        itemRepository.clearStore();
+        itemRepository.save(new Item("afterClear", 10000, 10));
+        writeAheadLog.close();
+
+        //when
+        ItemWriteAheadLog recoveredLog = newLog();
+        ItemRepository recovered = new ItemRepository(new OffHeapItemStore(), recoveredLog);
+
+        //then
+        assertThat(recovered.findAll()).extracting(Item::getItemName).containsExactly("afterClear");
+        recoveredLog.close();
+    }
+
+    @Test
+    void clearedIdsAreNotReusedAfterRecoverFromLog() {
+        //given
+        ItemWriteAheadLog writeAheadLog = newLog();
+        ItemRepository itemRepository = new ItemRepository(new MemoryItemStore(), writeAheadLog);
+        itemRepository.save(new Item("item1", 10000, 10));
+        itemRepository.save(new Item("item2", 20000, 20));
+        itemRepository.clearStore();
+        writeAheadLog.close();
+
+        //when
+        ItemWriteAheadLog recoveredLog = newLog();
+        MemoryItemStore recoveredStore = new MemoryItemStore();
+        ItemRepository recovered = new ItemRepository(recoveredStore, recoveredLog);
+
+        //then
+        assertThat(recovered.findAll()).isEmpty();
+        assertThat(recoveredStore.getClearedId()).isEqualTo(2L);
+        assertThat(recovered.save(new Item("item3", 10000, 10)).getId()).isEqualTo(3L);
+        recoveredLog.close();
+    }
+
+    @Test
+    void clearedIdsAreNotReusedAfterRecoverFromSnapshot() {
+        //given
+        ItemWriteAheadLog writeAheadLog = newLog();
+        OffHeapItemStore store = new OffHeapItemStore();
+        ItemRepository itemRepository = new ItemRepository(store, writeAheadLog);
+        itemRepository.save(new Item("item1", 10000, 10));
+        itemRepository.save(new Item("item2", 20000, 20));
+        itemRepository.clearStore();
+        //the snapshot deletes the log generation holding the clear record
+        writeAheadLog.snapshot(consumer -> itemRepository.findAll().forEach(consumer), store::getLastId, store::getClearedId);
+        writeAheadLog.close();
+
+        //when
+        ItemWriteAheadLog recoveredLog = newLog();
+        OffHeapItemStore recoveredStore = new OffHeapItemStore();
+        ItemRepository recovered = new ItemRepository(recoveredStore, recoveredLog);
+
+        //then reads start after the cleared ids, new ids follow them
+        assertThat(recovered.findAll()).isEmpty();
+        assertThat(recoveredStore.getClearedId()).isEqualTo(2L);
+        assertThat(recovered.save(new Item("item3", 10000, 10)).getId()).isEqualTo(3L);
+        recoveredLog.close();
+    }
+
+    @Test
+    void updateRacingTheSaveOfTheSameIdIsRecovered() throws Exception {
+        //given an updater that changes every item as soon as it is visible
+        int count = 500;
+        ItemWriteAheadLog writeAheadLog = newLog();
+        ItemRepository itemRepository = new ItemRepository(new MemoryItemStore(), writeAheadLog);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> updater = executor.submit(() -> {
+            for (long id = 1; id <= count; id++) {
+                while (itemRepository.findById(id) == null) {
+                    Thread.onSpinWait();
+                }
+                itemRepository.update(id, new Item("updated" + id, 20000, 20));
+            }
+        });
+
+        //when
+        for (int i = 1; i <= count; i++) {
+            itemRepository.save(new Item("item" + i, 10000, 10));
+        }
+        updater.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+        writeAheadLog.close();
+        ItemWriteAheadLog recoveredLog = newLog();
+        ItemRepository recovered = new ItemRepository(new MemoryItemStore(), recoveredLog);
+
+        //then every update is replayed after the save of its id
+        assertThat(recovered.findAll()).hasSize(count)
+                .allSatisfy(item -> assertThat(item.getItemName()).isEqualTo("updated" + item.getId()));
+        recoveredLog.close();
+    }
+
+    @Test
+    void saveRacingClearStoreIsRecovered() throws Exception {
+        //given
+        ItemWriteAheadLog writeAheadLog = newLog();
+        ItemRepository itemRepository = new ItemRepository(new MemoryItemStore(), writeAheadLog);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> saver = executor.submit(() -> {
+            for (int i = 0; i < 500; i++) {
+                itemRepository.save(new Item("item" + i, 10000, 10));
+            }
+        });
+
+        //when
+        for (int i = 0; i < 20; i++) {
+            itemRepository.clearStore();
+        }
+        saver.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+        List<Long> ids = itemRepository.findAll().stream().map(Item::getId).sorted().toList();
+        writeAheadLog.close();
+        ItemWriteAheadLog recoveredLog = newLog();
+        ItemRepository recovered = new ItemRepository(new MemoryItemStore(), recoveredLog);
+
+        //then the recovered store holds exactly what was in memory
+        assertThat(recovered.findAll()).extracting(Item::getId).containsExactlyInAnyOrderElementsOf(ids);
+        recoveredLog.close();
+    }
+
+    @Test
+    void snapshotAfterClearKeepsTheItemsSavedAfterIt() {
+        //given
+        ItemWriteAheadLog writeAheadLog = newLog();
+        MemoryItemStore store = new MemoryItemStore();
+        ItemRepository itemRepository = new ItemRepository(store, writeAheadLog);
+        itemRepository.save(new Item("item1", 10000, 10));
+        itemRepository.save(new Item("item2", 20000, 20));
+        itemRepository.clearStore();
+        itemRepository.save(new Item("item3", 30000, 30));
+        writeAheadLog.snapshot(consumer -> itemRepository.findAll().forEach(consumer), store::getLastId, store::getClearedId);
+        writeAheadLog.close();
+
+        //when
+        ItemWriteAheadLog recoveredLog = newLog();
+        MemoryItemStore recoveredStore = new MemoryItemStore();
+        ItemRepository recovered = new ItemRepository(recoveredStore, recoveredLog);
+
+        //then
+        assertThat(recovered.findAll()).extracting(Item::getItemName).containsExactly("item3");
+        assertThat(recoveredStore.getClearedId()).isEqualTo(2L);
+        assertThat(recovered.save(new Item("item4", 10000, 10)).getId()).isEqualTo(4L);
+        recoveredLog.close();
+    }
+
+    private ItemWriteAheadLog newLog() {
+        //small regions so the tests cross region boundaries, no scheduled snapshots
+        return new ItemWriteAheadLog(dir, 4096, true, 0);
+    }
+}
@@ -0,0 +1,137 @@
+package hello.itemservice.domain.item;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OffHeapItemStoreTest {
+
+    // tiny segments and arena chunks so the tests cross segment / chunk boundaries
+    OffHeapItemStore store = new OffHeapItemStore(4, 16);
+
+    @Test
+    void saveAndFind() {
+        //given
+        Item item = new Item("상품A", 10000, 10);
+
+        //when
+        Item savedItem = store.save(item);
+
+        //then
+        Item findItem = store.findById(savedItem.getId());
+        assertThat(findItem).isEqualTo(savedItem);
+        assertThat(findItem).isNotSameAs(savedItem);
+    }
+
+    @Test
+    void nullFields() {
+        //given
+        Item savedItem = store.save(new Item(null, null, null));
+
+        //when
+        Item findItem = store.findById(savedItem.getId());
+
+        //then
+        assertThat(findItem.getItemName()).isNull();
+        assertThat(findItem.getPrice()).isNull();
+        assertThat(findItem.getQuantity()).isNull();
+    }
+
+    @Test
+    void findAllAcrossSegments() {
+        //given
+        for (int i = 0; i < 50; i++) {
+            store.save(new Item("item" + i, 1000 + i, i));
+        }
+
+        //when
+        List<Item> result = store.findAll();
+
+        //then
+        assertThat(result).hasSize(50);
+        assertThat(result.get(49).getItemName()).isEqualTo("item49");
+        assertThat(store.findById(51)).isNull();
+    }
+
+    @Test
+    void update() {
+        //given
+        Item savedItem = store.save(new Item("item1", 10000, 10));
+
+        //when
+        store.update(savedItem.getId(), new Item("a much longer item name", 20000, 30));
+
+        //then
+        Item findItem = store.findById(savedItem.getId());
+        assertThat(findItem.getItemName()).isEqualTo("a much longer item name");
+        assertThat(findItem.getPrice()).isEqualTo(20000);
+        assertThat(findItem.getQuantity()).isEqualTo(30);
+    }
+
+    @Test
+    void updateWithTheSameNameKeepsItsBytes() {
+        //given
+        Item savedItem = store.save(new Item("item1", 10000, 10));
+        long arenaBytes = store.nameArenaBytes();
+
+        //when
+        for (int i = 0; i < 1000; i++) {
+            store.update(savedItem.getId(), new Item("item1", 10000, i));
+        }
+        store.update(savedItem.getId(), new Item("item2", 10000, 10));
+
+        //then only the changed name is appended
+        assertThat(store.nameArenaBytes()).isLessThanOrEqualTo(arenaBytes + 16);
+        assertThat(store.findById(savedItem.getId()).getItemName()).isEqualTo("item2");
+    }
+
+    @Test
+    void concurrentSavesKeepTheirNames() throws Exception {
+        //given
+        int threads = 8;
+        int perThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<Item>>> results = new ArrayList<>();
+
+        //when
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            results.add(executor.submit(() -> {
+                List<Item> saved = new ArrayList<>();
+                for (int i = 0; i < perThread; i++) {
+                    saved.add(store.save(new Item("thread" + thread + "-item" + i, 10000, i)));
+                }
+                return saved;
+            }));
+        }
+
+        //then
+        for (Future<List<Item>> result : results) {
+            for (Item saved : result.get(30, TimeUnit.SECONDS)) {
+                assertThat(store.findById(saved.getId()).getItemName()).isEqualTo(saved.getItemName());
+            }
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void clear() {
+        //given
+        Item savedItem = store.save(new Item("item1", 10000, 10));
+
+        //when
+        store.clear();
+
+        //then
+        assertThat(store.findById(savedItem.getId())).isNull();
+        assertThat(store.findAll()).isEmpty();
+        assertThat(store.save(new Item("item2", 10000, 10)).getId()).isGreaterThan(savedItem.getId());
+    }
+}
@@ -0,0 +1,83 @@
+package hello.itemservice.expression;
+
+import hello.itemservice.domain.item.Item;
+import jakarta.validation.ConstraintDeclarationException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ExpressionAssertTest {
+
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Data
+    @ExpressionAssert(expression = "_this.price * _this.quantity >= 10000")
+    static class TotalPriceItem {
+        private Integer price;
+        private Integer quantity;
+    }
+
+    @Data
+    @ExpressionAssert(expression = "_this.itemName != null && _this.itemName != ''", reportOn = "itemName")
+    static class NamedItem {
+        private String itemName;
+    }
+
+    @Test
+    void totalPrice() {
+        assertThat(validate(1000, 10)).isEmpty();
+        assertThat(validate(1000, 9)).hasSize(1);
+    }
+
+    @Test
+    void nullPropertyIsNotChecked() {
+        assertThat(validate(null, 9)).isEmpty();
+    }
+
+    @Test
+    void noIntOverflow() {
+        //int * int wraps around to a negative number, long math does not
+        assertThat(validate(Integer.MAX_VALUE, Integer.MAX_VALUE)).isEmpty();
+    }
+
+    @Test
+    void reportOnField() {
+        Set<ConstraintViolation<NamedItem>> violations = validator.validate(new NamedItem());
+
+        assertThat(violations).hasSize(1);
+        assertThat(violations.iterator().next().getPropertyPath().toString()).isEqualTo("itemName");
+    }
+
+    @Test
+    void compiledOncePerClass() {
+        CompiledExpression first = CompiledExpression.compile("_this.price > 0", Item.class, "_this");
+        CompiledExpression second = CompiledExpression.compile("_this.price > 0", Item.class, "_this");
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.evaluate(new Item("a", 10, 1))).isTrue();
+        assertThat(first.evaluate(new Item("a", 0, 1))).isFalse();
+    }
+
+    @Test
+    void typeErrors() {
+        assertThatThrownBy(() -> CompiledExpression.compile("_this.itemName > 0", Item.class, "_this"))
+                .isInstanceOf(ConstraintDeclarationException.class);
+        assertThatThrownBy(() -> CompiledExpression.compile("_this.weight > 0", Item.class, "_this"))
+                .isInstanceOf(ConstraintDeclarationException.class);
+        assertThatThrownBy(() -> CompiledExpression.compile("_this.price * 2", Item.class, "_this"))
+                .isInstanceOf(ConstraintDeclarationException.class);
+    }
+
+    private Set<ConstraintViolation<TotalPriceItem>> validate(Integer price, Integer quantity) {
+        TotalPriceItem item = new TotalPriceItem();
+        item.setPrice(price);
+        item.setQuantity(quantity);
+        return validator.validate(item);
+    }
+}
@@ -0,0 +1,56 @@
+package hello.itemservice.javascript;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomScriptAssertTest {
+
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Data
+    @AllArgsConstructor
+    @CustomScriptAssert(script = "_this.price * _this.quantity >= 10000")
+    public static class ScriptItem {
+        private Integer price;
+        private Integer quantity;
+    }
+
+    @Test
+    void script() {
+        assertThat(validator.validate(new ScriptItem(1000, 10))).isEmpty();
+        assertThat(validator.validate(new ScriptItem(1000, 9))).hasSize(1);
+    }
+
+    @Test
+    void concurrentValidations() throws Exception {
+        //given
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < 500; i++) {
+            int quantity = i % 20;
+            results.add(executor.submit(() -> validator.validate(new ScriptItem(1000, quantity)).isEmpty()));
+        }
+
+        //then, no evaluation sees the object of another one
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i).get()).isEqualTo(i % 20 >= 10);
+        }
+        executor.shutdown();
+        ScriptEnginePool pool = ScriptEnginePool.getDefault();
+        assertThat(pool.getContextCount()).isLessThanOrEqualTo(pool.getMaxContexts());
+        assertThat(pool.getTimeoutCount()).isZero();
+    }
+}
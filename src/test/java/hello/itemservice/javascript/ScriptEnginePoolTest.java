@@ -0,0 +1,82 @@
+package hello.itemservice.javascript;
+
+import hello.itemservice.metrics.ItemMetricsConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ScriptEnginePoolTest {
+
+    @Test
+    void globalsDoNotLeakToTheNextBorrower() throws Exception {
+        //given one context, so both evaluations get the same one unless it is dropped
+        ScriptEnginePool pool = new ScriptEnginePool(1, 1000);
+
+        //when
+        pool.eval("javascript", "var leaked = _this; function f() {} implicit = 1; true", "_this", 1);
+        Object result = pool.eval("javascript", "typeof leaked + typeof f + typeof implicit", "_this", 2);
+
+        //then
+        assertThat(result).isEqualTo("undefinedundefinedundefined");
+        assertThat(pool.getDroppedContextCount()).isEqualTo(1);
+        assertThat(pool.getContextCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cleanContextsAreReused() throws Exception {
+        //given
+        ScriptEnginePool pool = new ScriptEnginePool(1, 1000);
+
+        //when
+        pool.eval("javascript", "_this > 1", "_this", 1);
+        Object result = pool.eval("javascript", "typeof _this", "_this", 2);
+
+        //then
+        assertThat(result).isEqualTo("number");
+        assertThat(pool.getDroppedContextCount()).isZero();
+        assertThat(pool.getIdleContextCount()).isEqualTo(1);
+    }
+
+    @Test
+    void borrowTimeoutIsContextUnavailable() throws Exception {
+        //given the only context is held by a slow script
+        ScriptEnginePool pool = new ScriptEnginePool(1, 50);
+        CountDownLatch holding = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Object> slow = executor.submit(() -> pool.eval("javascript",
+                "_this.countDown(); java.lang.Thread.sleep(1000); true", "_this", holding));
+        assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+
+        //when then
+        assertThatThrownBy(() -> pool.eval("javascript", "true", "_this", 1))
+                .isInstanceOf(ScriptContextUnavailableException.class);
+        assertThat(pool.getTimeoutCount()).isEqualTo(1);
+        assertThat(slow.get()).isEqualTo(true);
+        executor.shutdown();
+    }
+
+    @Test
+    void poolMetrics() throws Exception {
+        //given
+        ScriptEnginePool pool = new ScriptEnginePool(4, 1000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new ItemMetricsConfiguration().scriptEnginePoolMetrics(pool).bindTo(registry);
+
+        //when
+        pool.eval("javascript", "_this > 1", "_this", 2);
+
+        //then
+        assertThat(registry.get("item.script.pool.evaluations").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("item.script.pool.contexts").tag("state", "created").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("item.script.pool.contexts").tag("state", "idle").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("item.script.pool.contexts.max").gauge().value()).isEqualTo(4);
+        assertThat(registry.get("item.script.pool.timeouts").functionCounter().count()).isZero();
+    }
+}
@@ -0,0 +1,76 @@
+package hello.itemservice.message;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.context.support.ResourceBundleMessageSource;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PrecompiledMessageSourceTest {
+
+    PrecompiledMessageSource ms;
+    ResourceBundleMessageSource plain;
+
+    @BeforeEach
+    void beforeEach() {
+        ms = new PrecompiledMessageSource(100);
+        ms.setBasenames("messages", "errors");
+        ms.setDefaultEncoding("UTF-8");
+        ms.setFallbackToSystemLocale(false);
+        ms.setPrecompileLocales(Locale.KOREAN, Locale.ENGLISH);
+        ms.afterPropertiesSet();
+
+        plain = new ResourceBundleMessageSource();
+        plain.setBasenames("messages", "errors");
+        plain.setDefaultEncoding("UTF-8");
+        plain.setFallbackToSystemLocale(false);
+    }
+
+    @Test
+    void sameMessagesAsResourceBundleMessageSource() {
+        for (Locale locale : new Locale[]{Locale.KOREAN, Locale.ENGLISH}) {
+            assertThat(ms.getMessage("hello", null, locale)).isEqualTo(plain.getMessage("hello", null, locale));
+            assertThat(ms.getMessage("hello.name", new Object[]{"Spring"}, locale))
+                    .isEqualTo(plain.getMessage("hello.name", new Object[]{"Spring"}, locale));
+            assertThat(ms.getMessage("range.item.price", new Object[]{1000, 1000000}, locale))
+                    .isEqualTo(plain.getMessage("range.item.price", new Object[]{1000, 1000000}, locale));
+        }
+        assertThat(ms.getMessage("hello", null, Locale.ENGLISH)).isEqualTo("hello");
+    }
+
+    @Test
+    void mostSpecificCodeWins() {
+        //given
+        DefaultMessageSourceResolvable resolvable = new DefaultMessageSourceResolvable(
+                new String[]{"required.item.itemName", "required.itemName", "required.java.lang.String", "required"});
+
+        //when
+        String message = ms.getMessage(resolvable, Locale.KOREAN);
+
+        //then
+        assertThat(message).isEqualTo("상품 이름은 필수입니다.");
+    }
+
+    @Test
+    void constantArgumentsAreRenderedOnce() {
+        //when
+        String first = ms.getMessage("range.item.price", new Object[]{1000, 1000000}, Locale.KOREAN);
+        String second = ms.getMessage("range.item.price", new Object[]{1000, 1000000}, Locale.KOREAN);
+
+        //then
+        assertThat(second).isSameAs(first);
+        assertThat(ms.getRenderMissCount()).isEqualTo(1);
+        assertThat(ms.getRenderHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownCode() {
+        assertThatThrownBy(() -> ms.getMessage("no_code", null, Locale.KOREAN))
+                .isInstanceOf(NoSuchMessageException.class);
+        assertThat(ms.getMessage("no_code", null, "기본 메시지", Locale.KOREAN)).isEqualTo("기본 메시지");
+    }
+}
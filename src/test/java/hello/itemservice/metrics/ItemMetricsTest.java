@@ -0,0 +1,155 @@
+package hello.itemservice.metrics;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.domain.item.ItemRepositoryMetrics.Operation;
+import hello.itemservice.web.validation.ItemValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Validator;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ItemMetricsTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void everyCallIsTimedAtFullRate() {
+        //given
+        ItemMetrics metrics = new ItemMetrics(registry, 1.0);
+
+        //when
+        for (int i = 0; i < 10; i++) {
+            metrics.record(Operation.SAVE, metrics.start());
+        }
+
+        //then
+        assertThat(registry.get("item.repository").tag("operation", "save").timer().count()).isEqualTo(10);
+    }
+
+    @Test
+    void nothingIsTimedAtZeroRate() {
+        //given
+        ItemMetrics metrics = new ItemMetrics(registry, 0);
+
+        //when
+        long start = metrics.start();
+        metrics.record(Operation.UPDATE, start);
+
+        //then
+        assertThat(start).isZero();
+        assertThat(registry.get("item.repository").tag("operation", "update").timer().count()).isZero();
+    }
+
+    @Test
+    void repositoryTimesItsOwnOperations() {
+        //given
+        ItemRepository itemRepository = new ItemRepository();
+        itemRepository.setMetrics(new ItemMetrics(registry, 1.0));
+
+        //when
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.update(item.getId(), new Item("itemB", 20000, 20));
+        itemRepository.findById(item.getId());
+
+        //then timers are registered up front, only the timed operations count
+        assertThat(registry.get("item.repository").tag("operation", "save").timer().count()).isEqualTo(1);
+        assertThat(registry.get("item.repository").tag("operation", "update").timer().count()).isEqualTo(1);
+        assertThat(registry.get("item.repository").tag("operation", "search").timer().count()).isZero();
+    }
+
+    @Test
+    void timedValidatorDelegates() {
+        //given
+        ItemMetrics metrics = new ItemMetrics(registry, 1.0);
+        TimedValidator validator = new TimedValidator(new ItemValidator(), metrics, "mvcValidator");
+        Item item = new Item("itemA", 10, 1);
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+
+        //when
+        validator.validate(item, bindingResult, "hint");
+
+        //then
+        assertThat(validator.supports(Item.class)).isTrue();
+        assertThat(bindingResult.hasErrors()).isTrue();
+        assertThat(registry.get("item.validation").tag("validator", "mvcValidator").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void sampledShare() {
+        //given
+        ItemMetrics metrics = new ItemMetrics(registry, 0.1);
+
+        //when
+        for (int i = 0; i < 100_000; i++) {
+            metrics.recordMessage(metrics.start());
+        }
+
+        //then
+        assertThat(registry.get("item.messages").timer().count()).isBetween(8_000L, 12_000L);
+    }
+
+    @Test
+    void errorsAreCountedPerCode() {
+        //given
+        ItemMetrics metrics = new ItemMetrics(registry, 0);
+        Item item = new Item("itemA", 10, 1);
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+        bindingResult.rejectValue("price", "range", new Object[]{1000, 1000000}, null);
+        bindingResult.reject("totalPriceMin", new Object[]{10000, 10}, null);
+
+        //when
+        metrics.countErrors(bindingResult);
+        metrics.countErrors(bindingResult);
+
+        //then
+        assertThat(registry.get("item.validation.errors").tags("object", "item", "field", "price", "code", "range")
+                .counter().count()).isEqualTo(2);
+        assertThat(registry.get("item.validation.errors").tags("field", "none", "code", "totalPriceMin")
+                .counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidSampleRate() {
+        assertThatThrownBy(() -> new ItemMetrics(registry, 1.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void indexMaintenanceIsCounted() {
+        //given
+        ItemRepository itemRepository = new ItemRepository();
+        new ItemMetricsConfiguration().itemIndexMetrics(itemRepository).bindTo(registry);
+
+        //when
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.update(item.getId(), new Item("itemB", 20000, 20));
+
+        //then
+        assertThat(registry.get("item.index.maintenance").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("item.index.maintenance.time").functionCounter().count()).isPositive();
+    }
+
+    @Test
+    void itemValidatorIsTimed() {
+        //given
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("itemMetrics", new ItemMetrics(registry, 1.0));
+        BeanPostProcessor postProcessor = ItemMetricsConfiguration.itemMetricsPostProcessor(
+                beanFactory.getBeanProvider(ItemMetrics.class), true);
+        Item item = new Item("itemA", 10000, 10);
+
+        //when
+        Object bean = postProcessor.postProcessAfterInitialization(new ItemValidator(), "itemValidator");
+        ((Validator) bean).validate(item, new BeanPropertyBindingResult(item, "item"));
+
+        //then
+        assertThat(bean).isInstanceOf(TimedValidator.class);
+        assertThat(registry.get("item.validation").tag("validator", "itemValidator").timer().count()).isEqualTo(1);
+    }
+}
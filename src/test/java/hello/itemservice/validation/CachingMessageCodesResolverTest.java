@@ -0,0 +1,58 @@
+package hello.itemservice.validation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.DefaultMessageCodesResolver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingMessageCodesResolverTest {
+
+    CachingMessageCodesResolver codesResolver = new CachingMessageCodesResolver(2);
+
+    @Test
+    void sameCodesAsDefault() {
+        DefaultMessageCodesResolver defaultResolver = new DefaultMessageCodesResolver();
+
+        assertThat(codesResolver.resolveMessageCodes("required", "item", "itemName", String.class))
+                .containsExactly(defaultResolver.resolveMessageCodes("required", "item", "itemName", String.class));
+        assertThat(codesResolver.resolveMessageCodes("totalPriceMin", "item"))
+                .containsExactly(defaultResolver.resolveMessageCodes("totalPriceMin", "item"));
+    }
+
+    @Test
+    void secondCallIsServedFromCache() {
+        //given
+        String[] first = codesResolver.resolveMessageCodes("range", "item", "price", Integer.class);
+
+        //when
+        String[] second = codesResolver.resolveMessageCodes("range", "item", "price", Integer.class);
+
+        //then
+        assertThat(second).isSameAs(first);
+        assertThat(codesResolver.getHitCount()).isEqualTo(1);
+        assertThat(codesResolver.getMissCount()).isEqualTo(1);
+        assertThat(codesResolver.getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void fieldTypeIsPartOfTheKey() {
+        String[] integerCodes = codesResolver.resolveMessageCodes("typeMismatch", "item", "price", Integer.class);
+        String[] intCodes = codesResolver.resolveMessageCodes("typeMismatch", "item", "price", int.class);
+
+        assertThat(intCodes).contains("typeMismatch.int");
+        assertThat(integerCodes).contains("typeMismatch.java.lang.Integer");
+    }
+
+    @Test
+    void cacheIsBounded() {
+        //when
+        for (int i = 0; i < 10; i++) {
+            codesResolver.resolveMessageCodes("range", "items", "items[" + i + "].price", Integer.class);
+        }
+
+        //then
+        assertThat(codesResolver.size()).isEqualTo(2);
+        assertThat(codesResolver.resolveMessageCodes("range", "items", "items[9].price", Integer.class))
+                .contains("range.items.items[9].price");
+    }
+}
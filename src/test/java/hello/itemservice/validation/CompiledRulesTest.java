@@ -0,0 +1,54 @@
+package hello.itemservice.validation;
+
+import hello.itemservice.domain.item.Item;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledRulesTest {
+
+    @Test
+    void rulesRunInDeclarationOrder() {
+        //given
+        CompiledRules<Item> rules = CompiledRules.<Item>builder()
+                .required("itemName", Item::getItemName)
+                .range("price", Item::getPrice, 1000, 1000000)
+                .max("quantity", Item::getQuantity, 100, 99)
+                .rule((item, errors) -> errors.reject("global"))
+                .compile();
+        Item item = new Item(null, null, 101);
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+
+        //when
+        rules.validate(item, bindingResult);
+
+        //then
+        assertThat(bindingResult.getFieldErrors()).extracting("field").containsExactly("itemName", "price", "quantity");
+        assertThat(bindingResult.getFieldError("price").getArguments()).containsExactly(1000, 1000000);
+        assertThat(bindingResult.getFieldError("quantity").getArguments()).containsExactly(99);
+        assertThat(bindingResult.getGlobalError().getCode()).isEqualTo("global");
+    }
+
+    @Test
+    void eachGetterIsCalledOnce() {
+        //given
+        AtomicInteger reads = new AtomicInteger();
+        CompiledRules<Item> rules = CompiledRules.<Item>builder()
+                .range("price", item -> {
+                    reads.incrementAndGet();
+                    return item.getPrice();
+                }, 1000, 1000000)
+                .compile();
+        Item item = new Item("itemA", 10, 10);
+
+        //when
+        rules.validate(item, new BeanPropertyBindingResult(item, "item"));
+
+        //then
+        assertThat(reads).hasValue(1);
+    }
+}
@@ -0,0 +1,83 @@
+package hello.itemservice.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.web.validation.ItemCrossFieldRules;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CrossFieldRuleRegistryTest {
+
+    CrossFieldRuleRegistry registry = new ItemCrossFieldRules().crossFieldRuleRegistry();
+
+    @Test
+    void totalPriceMin() {
+        //given
+        ItemSaveForm form = saveForm(1000, 1);
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+
+        //when
+        registry.validate(form, bindingResult);
+
+        //then
+        assertThat(bindingResult.getGlobalError().getCode()).isEqualTo("totalPriceMin");
+        assertThat(bindingResult.getGlobalError().getArguments()).containsExactly(10000, 1000);
+    }
+
+    @Test
+    void productDoesNotOverflow() {
+        //given 1000000 * 4295 wraps to 32704 in int math
+        ItemSaveForm form = saveForm(1000000, 4295);
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+
+        //when
+        registry.validate(form, bindingResult);
+
+        //then
+        assertThat(bindingResult.hasErrors()).isFalse();
+    }
+
+    @Test
+    void productBelowIntRange() {
+        //given
+        Item item = new Item("itemA", 1000000, -1000000);
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+
+        //when
+        registry.validate(item, bindingResult);
+
+        //then
+        assertThat(bindingResult.getGlobalError().getArguments()).containsExactly(10000, -1_000_000_000_000L);
+    }
+
+    @Test
+    void nullOperandIsNotChecked() {
+        //given
+        ItemSaveForm form = saveForm(null, 1);
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+
+        //when
+        registry.validate(form, bindingResult);
+
+        //then
+        assertThat(bindingResult.hasErrors()).isFalse();
+    }
+
+    @Test
+    void supportsRegisteredTypesOnly() {
+        assertThat(registry.supports(Item.class)).isTrue();
+        assertThat(registry.supports(ItemSaveForm.class)).isTrue();
+        assertThat(registry.supports(String.class)).isFalse();
+    }
+
+    private static ItemSaveForm saveForm(Integer price, Integer quantity) {
+        ItemSaveForm form = new ItemSaveForm();
+        form.setItemName("itemA");
+        form.setPrice(price);
+        form.setQuantity(quantity);
+        return form;
+    }
+}
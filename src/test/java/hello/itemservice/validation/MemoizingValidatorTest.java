@@ -0,0 +1,143 @@
+package hello.itemservice.validation;
+
+import hello.itemservice.domain.item.SaveCheck;
+import hello.itemservice.domain.item.UpdateCheck;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.ObjectError;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemoizingValidatorTest {
+
+    CountingValidator delegate = new CountingValidator(
+            new SpringValidatorAdapter(Validation.buildDefaultValidatorFactory().getValidator()));
+    ValidationResultCache cache = new ValidationResultCache(100, null)
+            .register(ItemSaveForm.class, form -> Arrays.asList(form.getItemName(), form.getPrice(), form.getQuantity()));
+    MemoizingValidator validator = new MemoizingValidator(delegate, cache);
+
+    @Test
+    void replayIdenticalForm() {
+        //given
+        BindingResult first = validate(saveForm(" ", 10, 10000));
+
+        //when
+        BindingResult second = validate(saveForm(" ", 10, 10000));
+
+        //then
+        assertThat(delegate.calls).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(second.getErrorCount()).isEqualTo(3);
+        assertThat(second.getAllErrors()).containsExactlyElementsOf(first.getAllErrors());
+        assertThat(second.getFieldError("price").getCodes()).contains("Range.item.price");
+    }
+
+    @Test
+    void otherValuesHintsAndObjectNamesAreValidated() {
+        //given
+        validate(saveForm("itemA", 1000, 10));
+
+        //when
+        validate(saveForm("itemA", 1000, 11));
+        validator.validate(saveForm("itemA", 1000, 10), new BeanPropertyBindingResult(saveForm("itemA", 1000, 10), "item"), SaveCheck.class);
+        validator.validate(saveForm("itemA", 1000, 10), new BeanPropertyBindingResult(saveForm("itemA", 1000, 10), "item"), UpdateCheck.class);
+        validator.validate(saveForm("itemA", 1000, 10), new BeanPropertyBindingResult(saveForm("itemA", 1000, 10), "itemSaveForm"));
+
+        //then
+        assertThat(delegate.calls).isEqualTo(5);
+    }
+
+    @Test
+    void invalidate() {
+        //given
+        validate(saveForm(null, 1000, 10));
+
+        //when
+        cache.invalidate();
+        BindingResult bindingResult = validate(saveForm(null, 1000, 10));
+
+        //then
+        assertThat(delegate.calls).isEqualTo(2);
+        assertThat(bindingResult.getFieldError("itemName").getCode()).isEqualTo("NotBlank");
+    }
+
+    @Test
+    void resultOfAnOlderGenerationIsNotStored() {
+        //given
+        ItemSaveForm form = saveForm("itemA", 10, 10);
+        ValidationResultCache.Key key = cache.key(form, "item", new Object[0], Locale.KOREA);
+
+        //when
+        cache.invalidate();
+        cache.put(key, List.of(new ObjectError("item", "stale")));
+
+        //then
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void bindingFailureIsNotCached() {
+        //given
+        ItemSaveForm form = saveForm("itemA", null, 10);
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+        bindingResult.rejectValue("price", "typeMismatch");
+
+        //when
+        validator.validate(form, bindingResult);
+        validate(saveForm("itemA", null, 10));
+
+        //then
+        assertThat(delegate.calls).isEqualTo(2);
+        assertThat(cache.getHitCount()).isZero();
+    }
+
+    private BindingResult validate(ItemSaveForm form) {
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+        validator.validate(form, bindingResult);
+        return bindingResult;
+    }
+
+    private static ItemSaveForm saveForm(String itemName, Integer price, Integer quantity) {
+        ItemSaveForm form = new ItemSaveForm();
+        form.setItemName(itemName);
+        form.setPrice(price);
+        form.setQuantity(quantity);
+        return form;
+    }
+
+    static class CountingValidator implements SmartValidator {
+
+        final SmartValidator delegate;
+        int calls;
+
+        CountingValidator(SmartValidator delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean supports(Class<?> clazz) {
+            return delegate.supports(clazz);
+        }
+
+        @Override
+        public void validate(Object target, Errors errors) {
+            validate(target, errors, new Object[0]);
+        }
+
+        @Override
+        public void validate(Object target, Errors errors, Object... validationHints) {
+            calls++;
+            delegate.validate(target, errors, validationHints);
+        }
+    }
+}
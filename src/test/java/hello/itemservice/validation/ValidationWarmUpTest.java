@@ -0,0 +1,116 @@
+package hello.itemservice.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.SaveCheck;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import jakarta.validation.ValidationException;
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ValidationWarmUpTest {
+
+    WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withUserConfiguration(WarmUpConfig.class, ValidationWarmUp.class);
+
+    @Test
+    void validatedTypesAreInitializedAtStartup() {
+        contextRunner.withBean(Validator.class, () -> mock(Validator.class)).run(context -> {
+            //given
+            Validator validator = context.getBean(Validator.class);
+
+            //when
+            Map<Class<?>, Set<Class<?>>> targets = context.getBean(ValidationWarmUp.class).findValidatedTypes();
+
+            //then
+            assertThat(context).hasNotFailed();
+            assertThat(targets).containsOnlyKeys(Item.class, ItemSaveForm.class, ItemUpdateForm.class);
+            assertThat(targets.get(Item.class)).containsExactly(SaveCheck.class);
+            assertThat(targets.get(ItemUpdateForm.class)).containsExactly(Default.class);
+            verify(validator).getConstraintsForClass(Item.class);
+            verify(validator).getConstraintsForClass(ItemSaveForm.class);
+            verify(validator).getConstraintsForClass(ItemUpdateForm.class);
+            verify(validator).validate(any(Item.class), eq(SaveCheck.class));
+            verify(validator).validate(any(ItemSaveForm.class), eq(Default.class));
+        });
+    }
+
+    @Test
+    void failedWarmUpDoesNotAbortStartup() {
+        contextRunner.withBean(Validator.class, () -> {
+                    Validator validator = mock(Validator.class);
+                    when(validator.getConstraintsForClass(Item.class)).thenThrow(new ValidationException("broken"));
+                    return validator;
+                })
+                .run(context -> {
+                    Validator validator = context.getBean(Validator.class);
+
+                    assertThat(context).hasNotFailed();
+                    //the other types are still warmed up
+                    verify(validator).getConstraintsForClass(ItemSaveForm.class);
+                    verify(validator).getConstraintsForClass(ItemUpdateForm.class);
+                });
+    }
+
+    @Test
+    void disabled() {
+        contextRunner.withBean(Validator.class, () -> mock(Validator.class))
+                .withPropertyValues("item.validation.warm-up.enabled=false").run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).doesNotHaveBean(ValidationWarmUp.class);
+            verifyNoInteractions(context.getBean(Validator.class));
+        });
+    }
+
+    @Configuration
+    static class WarmUpConfig {
+
+        @Bean
+        RequestMappingHandlerMapping requestMappingHandlerMapping() {
+            return new RequestMappingHandlerMapping();
+        }
+
+        @Bean
+        WarmUpController warmUpController() {
+            return new WarmUpController();
+        }
+    }
+
+    @Controller
+    static class WarmUpController {
+
+        @PostMapping("/item")
+        public String item(@Validated(SaveCheck.class) @ModelAttribute Item item) {
+            return "item";
+        }
+
+        @PostMapping("/save")
+        public String save(@Validated @ModelAttribute ItemSaveForm form) {
+            return "item";
+        }
+
+        @PostMapping("/batch")
+        public String batch(@Validated @RequestBody List<ItemUpdateForm> forms) {
+            return "item";
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package hello.itemservice.web;
+
+import hello.itemservice.javascript.ScriptContextUnavailableException;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ScriptContextUnavailableHandlerTest {
+
+    MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ScriptController())
+            .setControllerAdvice(new ScriptContextUnavailableHandler())
+            .build();
+
+    @Test
+    void unavailableContextIsServiceUnavailable() throws Exception {
+        mockMvc.perform(post("/direct")).andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void unavailableContextWrappedByTheValidatorIsServiceUnavailable() throws Exception {
+        mockMvc.perform(post("/wrapped")).andExpect(status().isServiceUnavailable());
+    }
+
+    @RestController
+    static class ScriptController {
+
+        @PostMapping("/direct")
+        public String direct() {
+            throw new ScriptContextUnavailableException("no script context free");
+        }
+
+        @PostMapping("/wrapped")
+        public String wrapped() {
+            throw new ValidationException("HV000028", new ScriptContextUnavailableException("no script context free"));
+        }
+    }
+}
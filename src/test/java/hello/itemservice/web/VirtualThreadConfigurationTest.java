@@ -0,0 +1,61 @@
+package hello.itemservice.web;
+
+import org.apache.coyote.ProtocolHandler;
+import org.apache.coyote.http11.Http11NioProtocol;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+class VirtualThreadConfigurationTest {
+
+    ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadConfiguration.class);
+
+    @Test
+    void platformPoolByDefault() {
+        contextRunner.run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).doesNotHaveBean(VirtualThreadConfiguration.class);
+            assertThat(context).doesNotHaveBean(ExecutorService.class);
+            assertThat(context).doesNotHaveBean(TomcatProtocolHandlerCustomizer.class);
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void enabledInstallsTheVirtualThreadExecutor() {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need java 21+");
+
+        contextRunner.withPropertyValues("item.threads.virtual.enabled=true").run(context -> {
+            //given
+            ExecutorService requestExecutor = context.getBean("requestExecutor", ExecutorService.class);
+            TomcatProtocolHandlerCustomizer<ProtocolHandler> customizer = context.getBean(TomcatProtocolHandlerCustomizer.class);
+            Http11NioProtocol protocolHandler = new Http11NioProtocol();
+
+            //when
+            customizer.customize(protocolHandler);
+
+            //then
+            assertThat(protocolHandler.getExecutor()).isSameAs(requestExecutor);
+            assertThat(requestExecutor.submit(() -> Thread.currentThread().toString()).get())
+                    .startsWith("VirtualThread");
+        });
+    }
+
+    @Test
+    void enabledOnOlderRuntimeFailsTheStartup() {
+        assumeTrue(Runtime.version().feature() < 21, "only an older runtime lacks virtual threads");
+
+        contextRunner.withPropertyValues("item.threads.virtual.enabled=true").run(context -> {
+            assertThat(context).hasFailed();
+            assertThat(context.getStartupFailure()).rootCause()
+                    .isInstanceOf(NoSuchMethodException.class);
+            assertThat(context.getStartupFailure()).hasStackTraceContaining("needs java 21 or later");
+        });
+    }
+}
@@ -0,0 +1,165 @@
+package hello.itemservice.web.binding;
+
+import hello.itemservice.web.validation.ItemFormBinders;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.ServletRequestDataBinder;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ExtendedServletRequestDataBinder;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FormBinderTest {
+
+    @Test
+    void bind() {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addParameter("itemName", "itemA");
+        request.addParameter("price", " 10000 ");
+        request.addParameter("quantity", "");
+        ItemSaveForm form = ItemFormBinders.SAVE_FORM.newInstance();
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+
+        //when
+        ItemFormBinders.SAVE_FORM.bind(form, new ServletWebRequest(request), bindingResult);
+
+        //then
+        assertThat(bindingResult.hasErrors()).isFalse();
+        assertThat(form.getItemName()).isEqualTo("itemA");
+        assertThat(form.getPrice()).isEqualTo(10000);
+        assertThat(form.getQuantity()).isNull();
+    }
+
+    @Test
+    void typeMismatchIsTheSameAsWebDataBinder() {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addParameter("itemName", "itemA");
+        request.addParameter("price", "abc");
+        request.addParameter("quantity", "10");
+
+        ItemSaveForm form = new ItemSaveForm();
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+        ServletRequestDataBinder dataBinder = new ServletRequestDataBinder(new ItemSaveForm(), "item");
+
+        //when
+        ItemFormBinders.SAVE_FORM.bind(form, new ServletWebRequest(request), bindingResult);
+        dataBinder.bind(request);
+
+        //then
+        FieldError expected = dataBinder.getBindingResult().getFieldError("price");
+        FieldError actual = bindingResult.getFieldError("price");
+        assertThat(actual.getCodes()).containsExactly(expected.getCodes());
+        assertThat(actual.getArguments()).usingRecursiveComparison().isEqualTo(expected.getArguments());
+        assertThat(actual.getRejectedValue()).isEqualTo(expected.getRejectedValue());
+        assertThat(actual.isBindingFailure()).isTrue();
+        assertThat(actual.getDefaultMessage()).isEqualTo(expected.getDefaultMessage());
+        assertThat(form.getQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    void missingParameterLeavesFieldUntouched() {
+        //given
+        ItemSaveForm form = new ItemSaveForm();
+        form.setQuantity(5);
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+
+        //when
+        ItemFormBinders.SAVE_FORM.bind(form, new ServletWebRequest(new MockHttpServletRequest()), bindingResult);
+
+        //then
+        assertThat(form.getQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    void disallowedFieldsAreHonored() {
+        //given
+        MockHttpServletRequest request = itemRequest();
+        ExtendedServletRequestDataBinder binder = new ExtendedServletRequestDataBinder(new ItemSaveForm(), "item");
+        binder.setDisallowedFields("price");
+
+        //when
+        processor().bindRequestParameters(binder, new ServletWebRequest(request));
+
+        //then
+        ItemSaveForm form = (ItemSaveForm) binder.getTarget();
+        assertThat(form.getItemName()).isEqualTo("itemA");
+        assertThat(form.getPrice()).isNull();
+    }
+
+    @Test
+    void multiValuedParameterGoesToTheDataBinder() {
+        //given
+        MockHttpServletRequest request = itemRequest();
+        request.addParameter("itemName", "itemB");
+        ExtendedServletRequestDataBinder binder = new ExtendedServletRequestDataBinder(new ItemSaveForm(), "item");
+
+        //when
+        processor().bindRequestParameters(binder, new ServletWebRequest(request));
+
+        //then same as WebDataBinder : the values joined
+        assertThat(((ItemSaveForm) binder.getTarget()).getItemName()).isEqualTo("itemA,itemB");
+    }
+
+    @Test
+    void fieldMarkerGoesToTheDataBinder() {
+        //given quantity unchecked, only its marker is sent
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addParameter("_quantity", "on");
+        ItemSaveForm form = new ItemSaveForm();
+        form.setQuantity(5);
+        ExtendedServletRequestDataBinder binder = new ExtendedServletRequestDataBinder(form, "item");
+
+        //when
+        processor().bindRequestParameters(binder, new ServletWebRequest(request));
+
+        //then
+        assertThat(form.getQuantity()).isNull();
+    }
+
+    @Test
+    void uriVariableOfABoundField() {
+        //given
+        MockHttpServletRequest request = itemRequest();
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "7"));
+        ExtendedServletRequestDataBinder binder = new ExtendedServletRequestDataBinder(new ItemUpdateForm(), "item");
+
+        //when
+        processor().bindRequestParameters(binder, new ServletWebRequest(request));
+
+        //then
+        assertThat(((ItemUpdateForm) binder.getTarget()).getId()).isEqualTo(7L);
+    }
+
+    @Test
+    void plainRequestIsBoundByTheFormBinder() {
+        //given
+        MockHttpServletRequest request = itemRequest();
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("itemId", "7"));
+        ExtendedServletRequestDataBinder binder = new ExtendedServletRequestDataBinder(new ItemUpdateForm(), "item");
+
+        //then
+        assertThat(FormBindingMethodProcessor.canBind(binder, ItemFormBinders.UPDATE_FORM, new ServletWebRequest(request))).isTrue();
+    }
+
+    private static FormBindingMethodProcessor processor() {
+        return new FormBindingMethodProcessor(ItemFormBinders.ITEM, ItemFormBinders.SAVE_FORM, ItemFormBinders.UPDATE_FORM);
+    }
+
+    private static MockHttpServletRequest itemRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addParameter("itemName", "itemA");
+        request.addParameter("price", "10000");
+        request.addParameter("quantity", "10");
+        return request;
+    }
+}
@@ -0,0 +1,134 @@
+package hello.itemservice.web.idempotency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyTableTest {
+
+    private static final String SCOPE = "/items/add";
+    private static final PayloadDigest PAYLOAD = PayloadDigest.builder().add("itemA").add(10000).add(10).build();
+    private static final PayloadDigest OTHER_PAYLOAD = PayloadDigest.builder().add("itemA").add(10000).add(20).build();
+
+    IdempotencyTable<Long> table = new IdempotencyTable<>(Duration.ofMinutes(1), 100, Duration.ofSeconds(5));
+    AtomicLong sequence = new AtomicLong();
+
+    @Test
+    void sameKeyReturnsTheFirstResult() {
+        //when
+        Long first = table.execute(SCOPE, "key-1", PAYLOAD, sequence::incrementAndGet);
+        Long retry = table.execute(SCOPE, "key-1", PAYLOAD, sequence::incrementAndGet);
+        Long other = table.execute(SCOPE, "key-2", PAYLOAD, sequence::incrementAndGet);
+
+        //then
+        assertThat(retry).isEqualTo(first);
+        assertThat(other).isNotEqualTo(first);
+        assertThat(sequence.get()).isEqualTo(2);
+    }
+
+    @Test
+    void keysAreScopedPerEndpoint() {
+        //when
+        Long first = table.execute(SCOPE, "key", PAYLOAD, sequence::incrementAndGet);
+        Long other = table.execute("/other/add", "key", PAYLOAD, sequence::incrementAndGet);
+
+        //then
+        assertThat(other).isNotEqualTo(first);
+        assertThat(sequence.get()).isEqualTo(2);
+    }
+
+    @Test
+    void sameKeyWithAnotherPayloadIsRejected() {
+        //given
+        table.execute(SCOPE, "key", PAYLOAD, sequence::incrementAndGet);
+
+        //when then
+        assertThatThrownBy(() -> table.execute(SCOPE, "key", OTHER_PAYLOAD, sequence::incrementAndGet))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(sequence.get()).isEqualTo(1);
+    }
+
+    @Test
+    void noKeyIsNotDeduplicated() {
+        //when
+        table.execute(SCOPE, null, PAYLOAD, sequence::incrementAndGet);
+        table.execute(SCOPE, null, PAYLOAD, sequence::incrementAndGet);
+
+        //then
+        assertThat(sequence.get()).isEqualTo(2);
+        assertThat(table.size()).isZero();
+    }
+
+    @Test
+    void concurrentRetryWaitsForTheFirstWrite() throws Exception {
+        //given
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger writes = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        //when
+        Future<Long> first = executor.submit(() -> table.execute(SCOPE, "key", PAYLOAD, () -> {
+            writes.incrementAndGet();
+            writing.countDown();
+            await(release);
+            return 1L;
+        }));
+        writing.await();
+        Future<Long> retry = executor.submit(() -> table.execute(SCOPE, "key", PAYLOAD, () -> {
+            writes.incrementAndGet();
+            return 2L;
+        }));
+        release.countDown();
+
+        //then
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1L);
+        assertThat(retry.get(5, TimeUnit.SECONDS)).isEqualTo(1L);
+        assertThat(writes.get()).isEqualTo(1);
+        executor.shutdown();
+    }
+
+    @Test
+    void failedWriteCanBeRetried() {
+        //given
+        assertThatThrownBy(() -> table.execute(SCOPE, "key", PAYLOAD, () -> {
+            throw new IllegalStateException("store down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        //when
+        Long retry = table.execute(SCOPE, "key", PAYLOAD, sequence::incrementAndGet);
+
+        //then
+        assertThat(retry).isEqualTo(1L);
+    }
+
+    @Test
+    void invalidKey() {
+        assertThatThrownBy(() -> table.execute(SCOPE, " ", PAYLOAD, sequence::incrementAndGet))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> table.execute(SCOPE, "k".repeat(IdempotencyTable.MAX_KEY_LENGTH + 1), PAYLOAD, sequence::incrementAndGet))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThat(sequence.get()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package hello.itemservice.web.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayloadDigestTest {
+
+    @Test
+    void sameValuesSameDigest() {
+        assertThat(PayloadDigest.builder().add("itemA").add(10000).add(10).build())
+                .isEqualTo(PayloadDigest.builder().add("itemA").add(10000).add(10).build());
+    }
+
+    @Test
+    void valuesDoNotRunIntoEachOther() {
+        assertThat(PayloadDigest.builder().add("ab").add("c").build())
+                .isNotEqualTo(PayloadDigest.builder().add("a").add("bc").build());
+        assertThat(PayloadDigest.builder().add((Integer) null).build())
+                .isNotEqualTo(PayloadDigest.builder().add(0).build());
+        assertThat(PayloadDigest.builder().add(1).build())
+                .isNotEqualTo(PayloadDigest.builder().add(1L).build());
+    }
+
+    @Test
+    void payloadsWithTheSameHashCodeDiffer() {
+        //given price + 1 and quantity - 59 : the same lombok hashCode (result * 59 + field)
+        int first = ((59 + "itemA".hashCode()) * 59 + 10000) * 59 + 69;
+        int second = ((59 + "itemA".hashCode()) * 59 + 10001) * 59 + 10;
+
+        //when
+        PayloadDigest firstDigest = PayloadDigest.builder().add("itemA").add(10000).add(69).build();
+        PayloadDigest secondDigest = PayloadDigest.builder().add("itemA").add(10001).add(10).build();
+
+        //then
+        assertThat(first).isEqualTo(second);
+        assertThat(firstDigest).isNotEqualTo(secondDigest);
+    }
+}
@@ -0,0 +1,72 @@
+package hello.itemservice.web.template;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.thymeleaf.IEngineConfiguration;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalizedTemplateResolverTest {
+
+    private final IEngineConfiguration configuration = new SpringTemplateEngine().getConfiguration();
+
+    @Test
+    void staticMessagesAreInlined() {
+        //given
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("page.items", Locale.KOREAN, "상품 목록");
+        messageSource.addMessage("page.addItem", Locale.KOREAN, "<등록>");
+        LocalizedTemplateResolver resolver = new LocalizedTemplateResolver(messageSource);
+        String source = """
+                <h2 th:text="#{page.items}">items</h2>
+                <button class="btn"
+                        th:onclick="|location.href='@{/validation/v4/items/add}'|"
+                        type="button" th:text="#{page.addItem}">add</button>
+                <td th:text="${item.price}">10000</td>
+                <span th:text="#{missing}">missing</span>
+                """;
+
+        //when
+        String inlined = resolver.inlineMessages(configuration, "items", source, Locale.KOREAN);
+
+        //then
+        assertThat(inlined).contains("<h2>상품 목록</h2>");
+        assertThat(inlined).contains("type=\"button\">&lt;등록&gt;</button>");
+        assertThat(inlined).contains("th:onclick=\"|location.href='@{/validation/v4/items/add}'|\"");
+        assertThat(inlined).contains("<td th:text=\"${item.price}\">10000</td>");
+        assertThat(inlined).contains("<span th:text=\"#{missing}\">missing</span>");
+    }
+
+    @Test
+    void attributeValuesWithMarkupCharacters() {
+        //given
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("page.items", Locale.KOREAN, "상품 목록");
+        LocalizedTemplateResolver resolver = new LocalizedTemplateResolver(messageSource);
+        String source = """
+                <input type="hidden" value="a>b">
+                <button th:onclick="|if (count > 0) location.reload()|" th:text="#{page.items}">items</button>
+                <p title="1 > 0"><span th:text="#{page.items}">items</span></p>
+                <h2 th:text="#{page.items}">items <b>bold</b></h2>
+                """;
+
+        //when
+        String inlined = resolver.inlineMessages(configuration, "items", source, Locale.KOREAN);
+
+        //then
+        assertThat(inlined).contains("<input type=\"hidden\" value=\"a>b\">");
+        assertThat(inlined).contains("<button th:onclick=\"|if (count > 0) location.reload()|\">상품 목록</button>");
+        assertThat(inlined).contains("<p title=\"1 > 0\"><span>상품 목록</span></p>");
+        //a body with markup stays with thymeleaf
+        assertThat(inlined).contains("<h2 th:text=\"#{page.items}\">items <b>bold</b></h2>");
+    }
+
+    @Test
+    void templateNamePerLocale() {
+        assertThat(LocalizedTemplateResolver.templateName("validation/v4/items", Locale.KOREA))
+                .isEqualTo("validation/v4/items@ko-KR");
+    }
+}
@@ -0,0 +1,37 @@
+package hello.itemservice.web.template;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.view.ThymeleafView;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TemplateRenderingConfigurationTest {
+
+    @Test
+    void onlyItemViewsAreLocalized() throws Exception {
+        //given
+        ThymeleafViewResolver thymeleafViewResolver = new ThymeleafViewResolver();
+        thymeleafViewResolver.setTemplateEngine(new SpringTemplateEngine());
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.refresh();
+        ThymeleafViewResolver resolver = new TemplateRenderingConfiguration()
+                .localizedViewResolver(thymeleafViewResolver, new String[]{"validation/*"});
+        resolver.setApplicationContext(context);
+        thymeleafViewResolver.setApplicationContext(context);
+
+        //when //then
+        assertThat(resolver.getOrder()).isLessThan(thymeleafViewResolver.getOrder());
+        assertThat(resolver.resolveViewName("validation/v4/items", Locale.KOREAN))
+                .isInstanceOf(LocalizedThymeleafView.class);
+        assertThat(resolver.resolveViewName("error", Locale.KOREAN)).isNull();
+        assertThat(resolver.resolveViewName("redirect:/validation/v4/items", Locale.KOREAN)).isNull();
+        assertThat(thymeleafViewResolver.resolveViewName("error", Locale.KOREAN))
+                .isExactlyInstanceOf(ThymeleafView.class);
+        context.close();
+    }
+}
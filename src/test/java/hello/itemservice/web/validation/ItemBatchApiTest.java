@@ -0,0 +1,107 @@
+package hello.itemservice.web.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemBatchApiTest {
+
+    private static final String ITEM = "{\"itemName\":\"itemA\",\"price\":10000,\"quantity\":10}";
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Test
+    void validItemsAreSavedInvalidOnesReportedByIndex() throws Exception {
+        //when blank name and price out of range / price * quantity under totalPriceMin
+        JsonNode result = addBatch("[" + ITEM + ","
+                + "{\"itemName\":\" \",\"price\":10,\"quantity\":2000},"
+                + "{\"itemName\":\"itemB\",\"price\":20000,\"quantity\":20},"
+                + "{\"itemName\":\"itemC\",\"price\":1000,\"quantity\":1}]");
+
+        //then
+        assertThat(result.get("savedCount").asInt()).isEqualTo(2);
+        JsonNode ids = result.get("ids");
+        assertThat(ids).hasSize(4);
+        assertThat(ids.get(1).isNull()).isTrue();
+        assertThat(ids.get(3).isNull()).isTrue();
+        Item first = itemRepository.findById(ids.get(0).asLong());
+        Item third = itemRepository.findById(ids.get(2).asLong());
+        assertThat(first.getItemName()).isEqualTo("itemA");
+        assertThat(third.getItemName()).isEqualTo("itemB");
+
+        JsonNode errors = result.get("errors");
+        assertThat(errors).hasSize(2);
+        JsonNode fieldErrors = errors.get(0);
+        assertThat(fieldErrors.get("index").asInt()).isEqualTo(1);
+        assertThat(codes(fieldErrors.get("errors"))).containsExactlyInAnyOrder("itemName:NotBlank", "price:Range");
+        JsonNode ruleErrors = errors.get(1);
+        assertThat(ruleErrors.get("index").asInt()).isEqualTo(3);
+        assertThat(ruleErrors.get("errors").get(0).get("field").isNull()).isTrue();
+        assertThat(ruleErrors.get("errors").get(0).get("code").asText()).isEqualTo("totalPriceMin");
+        assertThat(ruleErrors.get("errors").get(0).get("message").asText()).isNotBlank();
+    }
+
+    @Test
+    void cleanBatchHasNoErrors() throws Exception {
+        //when
+        JsonNode result = addBatch("[" + ITEM + "," + ITEM + "]");
+
+        //then
+        assertThat(result.get("savedCount").asInt()).isEqualTo(2);
+        assertThat(result.get("errors")).isEmpty();
+        assertThat(result.get("ids").get(1).asLong()).isGreaterThan(result.get("ids").get(0).asLong());
+    }
+
+    @Test
+    void batchOverTheCapIsRejectedAndSavesNothing() throws Exception {
+        //given
+        String body = "[" + String.join(",", Collections.nCopies(10001, ITEM)) + "]";
+        long writes = itemRepository.getVersion();
+
+        //when then
+        mockMvc.perform(post("/validation/api/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isPayloadTooLarge());
+        assertThat(itemRepository.getVersion()).isEqualTo(writes);
+    }
+
+    private JsonNode addBatch(String body) throws Exception {
+        String content = mockMvc.perform(post("/validation/api/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .locale(Locale.KOREAN)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(content);
+    }
+
+    private static List<String> codes(JsonNode errors) {
+        List<String> codes = new ArrayList<>();
+        errors.forEach(error -> codes.add(error.get("field").asText() + ":" + error.get("code").asText()));
+        return codes;
+    }
+}
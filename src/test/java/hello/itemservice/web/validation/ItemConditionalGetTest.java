@@ -0,0 +1,92 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemConditionalGetTest {
+
+    ItemRepository itemRepository = new ItemRepository();
+    ItemConditionalGet conditionalGet = new ItemConditionalGet(itemRepository);
+
+    @Test
+    void itemNotModifiedUntilItIsUpdated() {
+        //given
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertThat(conditionalGet.isItemNotModified(request("/items/1", null, first), item.getId())).isFalse();
+        String eTag = first.getHeader(HttpHeaders.ETAG);
+
+        //when
+        MockHttpServletResponse cached = new MockHttpServletResponse();
+        boolean notModified = conditionalGet.isItemNotModified(request("/items/1", eTag, cached), item.getId());
+        itemRepository.update(item.getId(), new Item("itemB", 20000, 20));
+        boolean afterUpdate = conditionalGet.isItemNotModified(request("/items/1", eTag, new MockHttpServletResponse()), item.getId());
+
+        //then
+        assertThat(eTag).startsWith("W/\"item-");
+        assertThat(notModified).isTrue();
+        assertThat(cached.getStatus()).isEqualTo(304);
+        assertThat(afterUpdate).isFalse();
+    }
+
+    @Test
+    void itemsTagChangesWithAnyWrite() {
+        //given
+        itemRepository.save(new Item("itemA", 10000, 10));
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        conditionalGet.isItemsNotModified(request("/items", null, first));
+        String eTag = first.getHeader(HttpHeaders.ETAG);
+
+        //when
+        boolean notModified = conditionalGet.isItemsNotModified(request("/items", eTag, new MockHttpServletResponse()));
+        itemRepository.save(new Item("itemB", 20000, 20));
+        boolean afterSave = conditionalGet.isItemsNotModified(request("/items", eTag, new MockHttpServletResponse()));
+
+        //then
+        assertThat(notModified).isTrue();
+        assertThat(afterSave).isFalse();
+        assertThat(first.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_LANGUAGE);
+    }
+
+    @Test
+    void pageTagVariesWithLocale() {
+        //given
+        itemRepository.save(new Item("itemA", 10000, 10));
+        MockHttpServletResponse korean = new MockHttpServletResponse();
+        conditionalGet.isItemsNotModified(request("/items", null, korean));
+
+        //when
+        MockHttpServletRequest english = new MockHttpServletRequest("GET", "/items");
+        english.addPreferredLocale(Locale.ENGLISH);
+        english.addHeader(HttpHeaders.IF_NONE_MATCH, korean.getHeader(HttpHeaders.ETAG));
+
+        //then
+        assertThat(conditionalGet.isItemsNotModified(new ServletWebRequest(english, new MockHttpServletResponse()))).isFalse();
+    }
+
+    @Test
+    void unknownItemIsNotChecked() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(conditionalGet.isItemNotModified(request("/items/99", "W/\"x\"", response), 99L)).isFalse();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+    }
+
+    private static ServletWebRequest request(String uri, String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addPreferredLocale(Locale.KOREAN);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, response);
+    }
+}
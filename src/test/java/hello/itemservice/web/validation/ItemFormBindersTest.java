@@ -0,0 +1,30 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.web.binding.FormBinder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemFormBindersTest {
+
+    @Test
+    void bindersCoverEveryWritableProperty() {
+        for (FormBinder<?> binder : List.of(ItemFormBinders.ITEM, ItemFormBinders.SAVE_FORM, ItemFormBinders.UPDATE_FORM)) {
+            //given
+            List<String> properties = Arrays.stream(BeanUtils.getPropertyDescriptors(binder.getType()))
+                    .filter(descriptor -> descriptor.getWriteMethod() != null)
+                    .map(PropertyDescriptor::getName)
+                    .toList();
+
+            //then a property added to the form has to be added to its FormBinder too
+            assertThat(binder.getFieldNames())
+                    .as("FormBinder fields of %s", binder.getType().getSimpleName())
+                    .containsExactlyInAnyOrderElementsOf(properties);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package hello.itemservice.web.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.web.idempotency.IdempotencyTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemIdempotencyTest {
+
+    private static final String BATCH = "[{\"itemName\":\"itemA\",\"price\":10000,\"quantity\":10},"
+            + "{\"itemName\":\"itemB\",\"price\":20000,\"quantity\":20}]";
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    ItemRepository itemRepository;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"v1", "v2", "v3", "v4"})
+    void retriedAddRedirectsToTheSameItem(String version) throws Exception {
+        //given
+        String key = UUID.randomUUID().toString();
+        String first = addItem(version, key, "10").andExpect(status().is3xxRedirection())
+                .andReturn().getResponse().getRedirectedUrl();
+        long writes = itemRepository.getVersion();
+
+        //when
+        String retry = addItem(version, key, "10").andExpect(status().is3xxRedirection())
+                .andReturn().getResponse().getRedirectedUrl();
+
+        //then
+        assertThat(first).startsWith("/validation/" + version + "/items/");
+        assertThat(retry).isEqualTo(first);
+        assertThat(itemRepository.getVersion()).isEqualTo(writes);
+    }
+
+    @Test
+    void keyReusedWithAnotherFormIsRejected() throws Exception {
+        //given
+        String key = UUID.randomUUID().toString();
+        addItem("v4", key, "10").andExpect(status().is3xxRedirection());
+        long writes = itemRepository.getVersion();
+
+        //when then
+        addItem("v4", key, "20").andExpect(status().isUnprocessableEntity());
+        assertThat(itemRepository.getVersion()).isEqualTo(writes);
+    }
+
+    @Test
+    void keyReusedWithAFormOfTheSameHashCodeIsRejected() throws Exception {
+        //given price + 1 and quantity - 59 : both forms have the same lombok hashCode
+        String key = UUID.randomUUID().toString();
+        addItem("v4", key, "10000", "69").andExpect(status().is3xxRedirection());
+        long writes = itemRepository.getVersion();
+
+        //when then
+        addItem("v4", key, "10001", "10").andExpect(status().isUnprocessableEntity());
+        assertThat(itemRepository.getVersion()).isEqualTo(writes);
+    }
+
+    @Test
+    void sameKeyOnAnotherEndpointIsAnotherKey() throws Exception {
+        //given
+        String key = UUID.randomUUID().toString();
+
+        //when
+        String v3 = addItem("v3", key, "10").andReturn().getResponse().getRedirectedUrl();
+        String v4 = addItem("v4", key, "10").andReturn().getResponse().getRedirectedUrl();
+
+        //then
+        assertThat(itemId(v4)).isNotEqualTo(itemId(v3));
+    }
+
+    @Test
+    void retriedBatchGetsTheSameIds() throws Exception {
+        //given
+        String key = UUID.randomUUID().toString();
+        JsonNode first = addBatch(key, BATCH);
+        long writes = itemRepository.getVersion();
+
+        //when
+        JsonNode retry = addBatch(key, BATCH);
+
+        //then
+        assertThat(first.get("ids")).hasSize(2);
+        assertThat(retry.get("ids")).isEqualTo(first.get("ids"));
+        assertThat(itemRepository.getVersion()).isEqualTo(writes);
+    }
+
+    private ResultActions addItem(String version, String key, String quantity) throws Exception {
+        return addItem(version, key, "10000", quantity);
+    }
+
+    private ResultActions addItem(String version, String key, String price, String quantity) throws Exception {
+        return mockMvc.perform(post("/validation/" + version + "/items/add")
+                .header(IdempotencyTable.HEADER, key)
+                .param("itemName", "itemA")
+                .param("price", price)
+                .param("quantity", quantity));
+    }
+
+    private JsonNode addBatch(String key, String body) throws Exception {
+        String content = mockMvc.perform(post("/validation/api/items/batch")
+                        .header(IdempotencyTable.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(content);
+    }
+
+    private static String itemId(String redirectedUrl) {
+        String path = redirectedUrl.contains("?") ? redirectedUrl.substring(0, redirectedUrl.indexOf('?')) : redirectedUrl;
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+}
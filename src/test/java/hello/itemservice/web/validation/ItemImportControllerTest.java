@@ -0,0 +1,160 @@
+package hello.itemservice.web.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemImportControllerTest {
+
+    private static final String VALID = "{\"itemName\":\"itemA\",\"price\":10000,\"quantity\":10}";
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    void validAndBlankLines() throws Exception {
+        //when
+        List<JsonNode> results = importLines(VALID + "\n\n   \r\n" + VALID + "\r\n");
+
+        //then blank lines get no result, line numbers still count them
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).get("line").asLong()).isEqualTo(1);
+        assertThat(results.get(0).get("id").isNumber()).isTrue();
+        assertThat(results.get(1).get("line").asLong()).isEqualTo(4);
+        assertThat(results.get(1).has("errors")).isFalse();
+    }
+
+    @Test
+    void invalidLine() throws Exception {
+        //when
+        List<JsonNode> results = importLines("{\"itemName\":\"itemA\",\"price\":10,\"quantity\":10}\n" + VALID);
+
+        //then
+        assertThat(results.get(0).has("id")).isFalse();
+        assertThat(results.get(0).get("errors").get(0).get("field").asText()).isEqualTo("price");
+        assertThat(results.get(0).get("errors").get(0).get("code").asText()).isEqualTo("Range");
+        assertThat(results.get(1).get("id").isNumber()).isTrue();
+    }
+
+    @Test
+    void malformedLines() throws Exception {
+        //when
+        List<JsonNode> results = importLines("{\"itemName\":\n" + VALID + " {\"itemName\":\"itemB\"}\n"
+                + "{\"itemName\":\"itemA\",\"price\":\"abc\",\"quantity\":10}\n" + VALID);
+
+        //then the second line has a trailing object
+        assertThat(results).hasSize(4);
+        assertThat(results.get(0).get("errors").get(0).get("code").asText()).isEqualTo("malformed");
+        assertThat(results.get(1).get("errors").get(0).get("code").asText()).isEqualTo("malformed");
+        assertThat(results.get(2).get("errors").get(0).get("code").asText()).isEqualTo("typeMismatch");
+        assertThat(results.get(2).get("errors").get(0).get("field").asText()).isEqualTo("price");
+        assertThat(results.get(3).get("id").isNumber()).isTrue();
+    }
+
+    @Test
+    void lineTooLong() throws Exception {
+        //given one line far over the cap, without any newline in it
+        String longLine = "{\"itemName\":\"" + "a".repeat(ItemImportController.MAX_LINE_CHARS * 4) + "\",\"price\":10000,\"quantity\":10}";
+
+        //when
+        List<JsonNode> results = importLines(longLine + "\n" + VALID);
+
+        //then
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).get("errors").get(0).get("code").asText()).isEqualTo("lineTooLong");
+        assertThat(results.get(1).get("line").asLong()).isEqualTo(2);
+        assertThat(results.get(1).get("id").isNumber()).isTrue();
+    }
+
+    @Test
+    void resultsInInputOrderAcrossSaveBatches() throws Exception {
+        //given 300 lines, more than one save batch (256), every 7th invalid
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i <= 300; i++) {
+            body.append(i % 7 == 0 ? "{\"itemName\":\"\",\"price\":10000,\"quantity\":10}" : VALID).append('\n');
+        }
+
+        //when
+        List<JsonNode> results = importLines(body.toString());
+
+        //then
+        assertThat(results).hasSize(300);
+        long previousId = 0;
+        for (int i = 1; i <= 300; i++) {
+            JsonNode result = results.get(i - 1);
+            assertThat(result.get("line").asLong()).isEqualTo(i);
+            if (i % 7 == 0) {
+                assertThat(result.has("id")).isFalse();
+                assertThat(result.get("errors").get(0).get("code").asText()).isEqualTo("NotBlank");
+            } else {
+                assertThat(result.get("id").asLong()).isGreaterThan(previousId);
+                previousId = result.get("id").asLong();
+            }
+        }
+    }
+
+    @Test
+    void boundedLineReader() throws Exception {
+        ItemImportController.BoundedLineReader reader =
+                new ItemImportController.BoundedLineReader(new StringReader("abcdef\r\nab\n\nabc"), 4);
+
+        assertThat(reader.readLine()).isEqualTo("abcd");
+        assertThat(reader.isTruncated()).isTrue();
+        assertThat(reader.readLine()).isEqualTo("ab");
+        assertThat(reader.isTruncated()).isFalse();
+        assertThat(reader.readLine()).isEmpty();
+        assertThat(reader.readLine()).isEqualTo("abc");
+        assertThat(reader.readLine()).isNull();
+    }
+
+    @Test
+    void boundedLineReaderAcrossBuffers() throws Exception {
+        //given lines longer than the read buffer, the \r\n split between two reads
+        String longLine = "a".repeat(20000);
+        String kept = "b".repeat(8191);
+        ItemImportController.BoundedLineReader reader = new ItemImportController.BoundedLineReader(
+                new StringReader(longLine + "\n" + kept + "\r\nabc"), 10000);
+
+        //when then
+        assertThat(reader.readLine()).isEqualTo("a".repeat(10000));
+        assertThat(reader.isTruncated()).isTrue();
+        assertThat(reader.readLine()).isEqualTo(kept);
+        assertThat(reader.isTruncated()).isFalse();
+        assertThat(reader.readLine()).isEqualTo("abc");
+        assertThat(reader.readLine()).isNull();
+    }
+
+    private List<JsonNode> importLines(String body) throws Exception {
+        String content = mockMvc.perform(post("/validation/api/items/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .locale(Locale.KOREAN)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : content.split("\n")) {
+            if (!line.isBlank()) {
+                results.add(objectMapper.readTree(line));
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,124 @@
+package hello.itemservice.web.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemPatchApiTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Test
+    void updated() throws Exception {
+        //given
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+
+        //when
+        JsonNode result = patchItems("[{\"id\":" + item.getId() + ",\"quantity\":5}]");
+
+        //then
+        assertThat(result.get("updatedCount").asInt()).isEqualTo(1);
+        assertThat(result.get("results").get(0).get("status").asText()).isEqualTo("UPDATED");
+        Item patched = itemRepository.findById(item.getId());
+        assertThat(patched.getQuantity()).isEqualTo(5);
+        assertThat(patched.getPrice()).isEqualTo(10000);
+    }
+
+    @Test
+    void invalidFieldAndRule() throws Exception {
+        //given
+        Item item1 = itemRepository.save(new Item("itemA", 10000, 10));
+        Item item2 = itemRepository.save(new Item("itemB", 10000, 10));
+
+        //when price out of range / price * quantity under totalPriceMin after the merge
+        JsonNode result = patchItems("[{\"id\":" + item1.getId() + ",\"price\":10},"
+                + "{\"id\":" + item2.getId() + ",\"price\":1000,\"quantity\":1}]");
+
+        //then
+        assertThat(result.get("updatedCount").asInt()).isZero();
+        JsonNode fieldError = result.get("results").get(0);
+        assertThat(fieldError.get("status").asText()).isEqualTo("INVALID");
+        assertThat(fieldError.get("errors").get(0).get("field").asText()).isEqualTo("price");
+        assertThat(fieldError.get("errors").get(0).get("code").asText()).isEqualTo("Range");
+        JsonNode ruleError = result.get("results").get(1);
+        assertThat(ruleError.get("status").asText()).isEqualTo("INVALID");
+        assertThat(ruleError.get("errors").get(0).get("code").asText()).isEqualTo("totalPriceMin");
+        assertThat(ruleError.get("errors").get(0).get("message").asText()).isNotBlank();
+        assertThat(itemRepository.findById(item2.getId()).getPrice()).isEqualTo(10000);
+    }
+
+    @Test
+    void patchWithOnlyAnIdIsInvalidAndWritesNothing() throws Exception {
+        //given
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        long version = itemRepository.getItemVersion(item.getId()).version();
+
+        //when
+        JsonNode result = patchItems("[{\"id\":" + item.getId() + "}]");
+
+        //then
+        JsonNode patched = result.get("results").get(0);
+        assertThat(patched.get("status").asText()).isEqualTo("INVALID");
+        assertThat(patched.get("errors").get(0).get("code").asText()).isEqualTo("emptyPatch");
+        assertThat(itemRepository.getItemVersion(item.getId()).version()).isEqualTo(version);
+    }
+
+    @Test
+    void notFound() throws Exception {
+        //when
+        JsonNode result = patchItems("[{\"id\":" + Long.MAX_VALUE + ",\"quantity\":5}]");
+
+        //then
+        assertThat(result.get("updatedCount").asInt()).isZero();
+        assertThat(result.get("results").get(0).get("status").asText()).isEqualTo("NOT_FOUND");
+        assertThat(result.get("results").get(0).get("id").asLong()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void duplicateIdKeepsTheFirstPatch() throws Exception {
+        //given
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+
+        //when
+        JsonNode result = patchItems("[{\"id\":" + item.getId() + ",\"quantity\":5},"
+                + "{\"id\":" + item.getId() + ",\"quantity\":7}]");
+
+        //then
+        assertThat(result.get("updatedCount").asInt()).isEqualTo(1);
+        assertThat(result.get("results").get(0).get("status").asText()).isEqualTo("UPDATED");
+        JsonNode duplicate = result.get("results").get(1);
+        assertThat(duplicate.get("status").asText()).isEqualTo("INVALID");
+        assertThat(duplicate.get("errors").get(0).get("code").asText()).isEqualTo("duplicate");
+        assertThat(itemRepository.findById(item.getId()).getQuantity()).isEqualTo(5);
+    }
+
+    private JsonNode patchItems(String body) throws Exception {
+        String content = mockMvc.perform(patch("/validation/api/items")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .locale(Locale.KOREAN)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(content);
+    }
+}
@@ -0,0 +1,97 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.Item;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ItemValidatorTest {
+
+    ItemValidator itemValidator = new ItemValidator();
+
+    @Test
+    void validItem() {
+        //given
+        Item item = new Item("itemA", 10000, 10);
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+
+        //when
+        itemValidator.validate(item, bindingResult);
+
+        //then
+        assertThat(bindingResult.hasErrors()).isFalse();
+    }
+
+    @Test
+    void invalidItem() {
+        //given
+        Item item = new Item(" ", 10, 10000);
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+
+        //when
+        itemValidator.validate(item, bindingResult);
+
+        //then
+        assertThat(bindingResult.getFieldError("itemName").getCodes()).contains("required.item.itemName");
+        assertThat(bindingResult.getFieldError("price").getArguments()).containsExactly(1000, 1000000);
+        assertThat(bindingResult.getFieldError("quantity").getArguments()).containsExactly(9999);
+        assertThat(bindingResult.getGlobalErrors()).isEmpty(); //10 * 10000 >= 10000
+    }
+
+    @Test
+    void quantityBound() {
+        //given
+        Item atBound = new Item("itemA", 10000, 10000);
+        Item aboveBound = new Item("itemA", 10000, 10001);
+        BindingResult atBoundResult = new BeanPropertyBindingResult(atBound, "item");
+        BindingResult aboveBoundResult = new BeanPropertyBindingResult(aboveBound, "item");
+
+        //when
+        itemValidator.validate(atBound, atBoundResult);
+        itemValidator.validate(aboveBound, aboveBoundResult);
+
+        //then
+        assertThat(atBoundResult.hasErrors()).isFalse();
+        assertThat(aboveBoundResult.getFieldError("quantity").getCode()).isEqualTo("max");
+    }
+
+    @Test
+    void totalPriceMin() {
+        //given
+        Item item = new Item("itemA", 1000, 1);
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+
+        //when
+        itemValidator.validate(item, bindingResult);
+
+        //then
+        assertThat(bindingResult.getGlobalError().getCode()).isEqualTo("totalPriceMin");
+        assertThat(bindingResult.getGlobalError().getArguments()).containsExactly(10000, 1000);
+    }
+
+    @Test
+    void validItemDoesNotAllocate() {
+        //given
+        Item item = new Item("itemA", 10000, 10);
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < 10_000; i++) {
+            itemValidator.validate(item, bindingResult);
+        }
+
+        //when
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            itemValidator.validate(item, bindingResult);
+        }
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        //then (a single byte per call would already be 100KB, the slack only covers the measurement itself)
+        assertThat(allocated).isLessThan(1024);
+    }
+}
@@ -0,0 +1,65 @@
+package hello.itemservice.web.validation.api;
+
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.validation.Errors;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class ItemApiValidatorTest {
+
+    @Autowired
+    ItemApiValidator itemApiValidator;
+
+    @Test
+    void validatePropertiesChecksOnlyTheGivenProperties() {
+        //given itemName is blank and id is missing, but only price is patched
+        ItemUpdateForm form = new ItemUpdateForm();
+        form.setPrice(10);
+
+        //when
+        List<ErrorResult> errors = itemApiValidator.validateProperties(form, "itemUpdateForm", List.of("price"), Locale.KOREAN);
+
+        //then
+        assertThat(errors).extracting(ErrorResult::getField, ErrorResult::getCode)
+                .containsExactly(tuple("price", "Range"));
+        assertThat(errors.get(0).getMessage()).isNotBlank();
+    }
+
+    @Test
+    void validatePropertiesOfAValidPatch() {
+        //given
+        ItemUpdateForm form = new ItemUpdateForm();
+        form.setQuantity(5);
+
+        //when
+        List<ErrorResult> errors = itemApiValidator.validateProperties(form, "itemUpdateForm", List.of("quantity"), Locale.KOREAN);
+
+        //then
+        assertThat(errors).isEmpty();
+    }
+
+    @Test
+    void validateRulesCollectsCodes() {
+        //given
+        ItemUpdateForm form = new ItemUpdateForm();
+        form.setId(1L);
+        form.setItemName("itemA");
+        form.setPrice(1000);
+        form.setQuantity(1);
+
+        //when
+        Errors errors = itemApiValidator.validateRules(form, "itemUpdateForm");
+
+        //then
+        assertThat(errors.getGlobalError().getCode()).isEqualTo("totalPriceMin");
+        assertThat(itemApiValidator.toErrorResults(errors, Locale.KOREAN))
+                .extracting(ErrorResult::getCode).containsExactly("totalPriceMin");
+    }
+}
@@ -0,0 +1,63 @@
+package hello.itemservice.web.validation.form;
+
+import hello.itemservice.domain.item.Item;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ItemPatchFormTest {
+
+    @Test
+    void changedFieldsAreTheSetOnes() {
+        //given
+        ItemPatchForm patch = new ItemPatchForm();
+        patch.setId(1L);
+
+        //then an id alone changes nothing
+        assertThat(patch.changedFields()).isEmpty();
+
+        //when
+        patch.setQuantity(5);
+        patch.setItemName("itemB");
+
+        //then
+        assertThat(patch.changedFields()).containsExactly("itemName", "quantity");
+    }
+
+    @Test
+    void applyToKeepsTheFieldsThePatchDoesNotSet() {
+        //given
+        Item current = new Item("itemA", 10000, 10);
+        current.setId(7L);
+        ItemPatchForm patch = new ItemPatchForm();
+        patch.setId(7L);
+        patch.setPrice(20000);
+
+        //when
+        ItemUpdateForm merged = patch.applyTo(current);
+
+        //then
+        assertThat(merged.getId()).isEqualTo(7L);
+        assertThat(merged.getItemName()).isEqualTo("itemA");
+        assertThat(merged.getPrice()).isEqualTo(20000);
+        assertThat(merged.getQuantity()).isEqualTo(10);
+        assertThat(current.getPrice()).isEqualTo(10000);
+    }
+
+    @Test
+    void toUpdateFormOnlySetsThePatch() {
+        //given
+        ItemPatchForm patch = new ItemPatchForm();
+        patch.setId(7L);
+        patch.setQuantity(5);
+
+        //when
+        ItemUpdateForm form = patch.toUpdateForm();
+
+        //then
+        assertThat(form.getId()).isEqualTo(7L);
+        assertThat(form.getQuantity()).isEqualTo(5);
+        assertThat(form.getItemName()).isNull();
+        assertThat(form.getPrice()).isNull();
+    }
+}
@@ -0,0 +1,100 @@
+package hello.itemservice.web.validation.reactive;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.domain.item.ReactiveItemRepository;
+import hello.itemservice.validation.CachingMessageCodesResolver;
+import hello.itemservice.web.validation.ItemCrossFieldRules;
+import hello.itemservice.web.validation.api.ItemApiValidator;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemReactiveHandlerTest {
+
+    ValidatorFactory validatorFactory;
+    ItemRepository itemRepository;
+    WebTestClient client;
+
+    @BeforeEach
+    void beforeEach() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasenames("messages", "errors");
+        messageSource.setDefaultEncoding("UTF-8");
+        ItemApiValidator itemApiValidator = new ItemApiValidator(validatorFactory.getValidator(), messageSource,
+                new CachingMessageCodesResolver(100), new ItemCrossFieldRules().crossFieldRuleRegistry());
+
+        itemRepository = new ItemRepository();
+        ItemReactiveHandler handler = new ItemReactiveHandler(itemApiValidator, new ReactiveItemRepository(itemRepository));
+        client = WebTestClient.bindToRouterFunction(new ReactiveItemConfiguration().reactiveItemRoutes(handler)).build();
+    }
+
+    @AfterEach
+    void afterEach() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void addItem() {
+        client.post().uri("/validation/reactive/items/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"itemName\":\"itemA\",\"price\":10000,\"quantity\":10}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Item.class)
+                .value(item -> assertThat(item.getId()).isNotNull());
+
+        assertThat(itemRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void addInvalidItem() {
+        client.post().uri("/validation/reactive/items/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"itemName\":\" \",\"price\":1000,\"quantity\":1}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$[?(@.field == 'itemName')].code").isEqualTo("NotBlank")
+                .jsonPath("$[?(@.field == null)].code").isEqualTo("totalPriceMin");
+
+        assertThat(itemRepository.isEmpty()).isTrue();
+    }
+
+    @Test
+    void importItems() {
+        String body = """
+                {"itemName":"itemA","price":10000,"quantity":10}
+                {"itemName":"itemB","price":10,"quantity":10}
+                {"itemName":"itemC","price":20000,"quantity":20}
+                """;
+
+        client.post().uri("/validation/reactive/items/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(ImportLine.class)
+                .value(lines -> {
+                    assertThat(lines).extracting(ImportLine::line).containsExactly(1L, 2L, 3L);
+                    assertThat(lines.get(0).id()).isNotNull();
+                    assertThat(lines.get(1).id()).isNull();
+                    assertThat(lines.get(1).errors()).isNotEmpty();
+                    assertThat(lines.get(2).id()).isNotNull();
+                });
+
+        assertThat(itemRepository.findAll()).hasSize(2);
+    }
+
+    record ImportLine(long line, Long id, java.util.List<Object> errors) {
+    }
+}